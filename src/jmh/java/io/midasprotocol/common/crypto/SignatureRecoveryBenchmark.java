@@ -0,0 +1,64 @@
+package io.midasprotocol.common.crypto;
+
+import io.midasprotocol.common.crypto.ECKey.ECDSASignature;
+import io.midasprotocol.common.utils.Sha256Hash;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recovering the signers of a block's worth of signatures through {@link ECKey}, one at a time
+ * through {@link Secp256k1}, and as one {@link Secp256k1} batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignatureRecoveryBenchmark {
+
+	@Param({"1", "100", "1000"})
+	private int count;
+
+	private List<byte[]> hashes;
+	private List<byte[]> sigs;
+	private List<String> base64s;
+
+	@Setup
+	public void setup() {
+		hashes = new ArrayList<>(count);
+		sigs = new ArrayList<>(count);
+		base64s = new ArrayList<>(count);
+		for (int i = 0; i < count; ++i) {
+			byte[] hash = Sha256Hash.of(("message " + i).getBytes()).getBytes();
+			ECDSASignature sig = new ECKey().sign(hash);
+			hashes.add(hash);
+			sigs.add(sig.toByteArray());
+			base64s.add(sig.toBase64());
+		}
+	}
+
+	@Benchmark
+	public void ecKey(Blackhole blackhole) throws SignatureException {
+		for (int i = 0; i < count; ++i) {
+			blackhole.consume(ECKey.signatureToAddress(hashes.get(i), base64s.get(i)));
+		}
+	}
+
+	@Benchmark
+	public void single(Blackhole blackhole) throws SignatureException {
+		for (int i = 0; i < count; ++i) {
+			blackhole.consume(Secp256k1.signatureToAddress(hashes.get(i), sigs.get(i)));
+		}
+	}
+
+	@Benchmark
+	public byte[][] batch() {
+		return Secp256k1.signaturesToAddresses(hashes, sigs);
+	}
+}
@@ -0,0 +1,123 @@
+package io.midasprotocol.common.runtime.vm;
+
+import io.midasprotocol.common.utils.ByteUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The arithmetic opcodes on {@link DataWord} against the BigInteger round trip they used before.
+ * Operands are full width, except divisors, which take half of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataWordBenchmark {
+
+	@Param({"ADD", "SUB", "MUL", "DIV", "SDIV", "MOD", "SMOD", "EXP", "ADDMOD", "MULMOD"})
+	private OpCode op;
+
+	private DataWord a;
+	private DataWord b;
+	private DataWord c;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(0);
+		a = new DataWord(random(random, 32));
+		boolean division = op == OpCode.DIV || op == OpCode.SDIV || op == OpCode.MOD
+			|| op == OpCode.SMOD;
+		b = new DataWord(random(random, division ? 16 : 32));
+		c = new DataWord(random(random, 16));
+	}
+
+	private static byte[] random(Random random, int length) {
+		byte[] data = new byte[32];
+		byte[] bytes = new byte[length];
+		random.nextBytes(bytes);
+		System.arraycopy(bytes, 0, data, 32 - length, length);
+		return data;
+	}
+
+	@Benchmark
+	public DataWord dataWord() {
+		DataWord word = a.clone();
+		switch (op) {
+			case ADD:
+				word.add(b);
+				break;
+			case SUB:
+				word.sub(b);
+				break;
+			case MUL:
+				word.mul(b);
+				break;
+			case DIV:
+				word.div(b);
+				break;
+			case SDIV:
+				word.sDiv(b);
+				break;
+			case MOD:
+				word.mod(b);
+				break;
+			case SMOD:
+				word.sMod(b);
+				break;
+			case EXP:
+				word.exp(b);
+				break;
+			case ADDMOD:
+				word.addmod(b, c);
+				break;
+			default:
+				word.mulmod(b, c);
+		}
+		return word;
+	}
+
+	@Benchmark
+	public byte[] bigInteger() {
+		BigInteger x = a.value();
+		BigInteger y = b.value();
+		BigInteger result;
+		switch (op) {
+			case ADD:
+				result = x.add(y);
+				break;
+			case SUB:
+				result = x.subtract(y);
+				break;
+			case MUL:
+				result = x.multiply(y);
+				break;
+			case DIV:
+				result = x.divide(y);
+				break;
+			case SDIV:
+				result = a.sValue().divide(b.sValue());
+				break;
+			case MOD:
+				result = x.mod(y);
+				break;
+			case SMOD:
+				result = a.sValue().abs().mod(b.sValue().abs());
+				result = a.isNegative() ? result.negate() : result;
+				break;
+			case EXP:
+				result = x.modPow(y, DataWord._2_256);
+				break;
+			case ADDMOD:
+				result = x.add(y).mod(c.value());
+				break;
+			default:
+				result = x.multiply(y).mod(c.value());
+		}
+		return ByteUtil.copyToArray(result.and(DataWord.MAX_VALUE));
+	}
+}
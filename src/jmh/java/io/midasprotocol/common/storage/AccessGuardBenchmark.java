@@ -0,0 +1,82 @@
+package io.midasprotocol.common.storage;
+
+import com.google.common.primitives.Longs;
+import io.midasprotocol.common.storage.leveldb.RocksDbDataSourceImpl;
+import io.midasprotocol.common.utils.FileUtil;
+import org.openjdk.jmh.annotations.*;
+import org.rocksdb.RocksDBException;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Point reads on a RocksDB data source from many threads, through the {@link AccessGuard} the
+ * data sources use against the {@link ReentrantReadWriteLock} they used before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class AccessGuardBenchmark {
+
+	private static final int KEYS = 10_000;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final AccessGuard guard = new AccessGuard();
+	private File dir;
+	private RocksDbDataSourceImpl source;
+
+	@Setup
+	public void setup() throws Exception {
+		dir = Files.createTempDirectory("access-guard").toFile();
+		source = new RocksDbDataSourceImpl(dir.getPath(), "guard");
+		source.initDB();
+		for (long i = 0; i < KEYS; ++i) {
+			source.putData(Longs.toByteArray(i), Longs.toByteArray(i));
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		source.closeDB();
+		FileUtil.deleteDir(dir);
+	}
+
+	private static byte[] randomKey() {
+		return Longs.toByteArray(ThreadLocalRandom.current().nextInt(KEYS));
+	}
+
+	@Benchmark
+	public byte[] lockedGet() throws RocksDBException {
+		lock.readLock().lock();
+		try {
+			return source.getDatabase().get(randomKey());
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Benchmark
+	public byte[] guardedGet() {
+		return source.getData(randomKey());
+	}
+
+	@Benchmark
+	public void lockOnly() {
+		lock.readLock().lock();
+		lock.readLock().unlock();
+	}
+
+	@Benchmark
+	public void guardOnly() {
+		guard.enter();
+		guard.exit();
+	}
+}
@@ -0,0 +1,62 @@
+package io.midasprotocol.common.storage;
+
+import com.google.common.primitives.Longs;
+import io.midasprotocol.common.storage.leveldb.LevelDbDataSourceImpl;
+import io.midasprotocol.common.storage.leveldb.RocksDbDataSourceImpl;
+import io.midasprotocol.common.utils.Sha256Hash;
+import io.midasprotocol.core.db2.BenchmarkEnv;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One flush worth of rows written as a single batch, into LevelDB and into RocksDB.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchWriteBenchmark {
+
+	private static final int VALUE_SIZE = 128;
+
+	@Param({"LEVELDB", "ROCKSDB"})
+	private String dbEngine;
+
+	@Param({"100", "10000"})
+	private int batchSize;
+
+	private File dir;
+	private DbSourceInter<byte[]> source;
+	private long next;
+
+	@Setup
+	public void setup() throws Exception {
+		dir = BenchmarkEnv.setUp("batch-write", dbEngine);
+		source = "ROCKSDB".equals(dbEngine)
+			? new RocksDbDataSourceImpl(dir.getPath(), "batch")
+			: new LevelDbDataSourceImpl(dir.getPath(), "batch");
+		source.initDB();
+	}
+
+	@TearDown
+	public void tearDown() {
+		source.closeDB();
+		BenchmarkEnv.tearDown(dir);
+	}
+
+	@Benchmark
+	public void updateByBatch() {
+		Map<byte[], byte[]> rows = new HashMap<>(batchSize * 2);
+		for (int i = 0; i < batchSize; ++i) {
+			byte[] key = Sha256Hash.hash(Longs.toByteArray(next++));
+			rows.put(key, new byte[VALUE_SIZE]);
+		}
+		source.updateByBatch(rows);
+	}
+}
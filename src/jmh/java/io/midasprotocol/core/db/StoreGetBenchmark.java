@@ -0,0 +1,68 @@
+package io.midasprotocol.core.db;
+
+import com.google.protobuf.ByteString;
+import io.midasprotocol.common.utils.ByteArray;
+import io.midasprotocol.core.capsule.AccountCapsule;
+import io.midasprotocol.core.db2.BenchmarkEnv;
+import io.midasprotocol.protos.Protocol.AccountType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of reading a capsule through a store on top of reading its bytes, for an account
+ * holding assets number of tokens.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StoreGetBenchmark {
+
+	private static final byte[] ADDRESS = ByteArray.fromHexString(
+		"a0548794500882809695a8a687866e76d4271a1abc");
+
+	@Param({"0", "100"})
+	private int assets;
+
+	private File dir;
+	private AccountBenchStore store;
+
+	@Setup
+	public void setup() throws Exception {
+		dir = BenchmarkEnv.setUp("store-get", "LEVELDB");
+		store = new AccountBenchStore();
+		AccountCapsule account = new AccountCapsule(ByteString.copyFrom(ADDRESS), AccountType.Normal);
+		account.setBalance(1_000_000L);
+		for (long i = 0; i < assets; ++i) {
+			account.addAsset(1_000_000L + i, i);
+		}
+		store.put(ADDRESS, account);
+	}
+
+	@TearDown
+	public void tearDown() {
+		store.close();
+		BenchmarkEnv.tearDown(dir);
+	}
+
+	@Benchmark
+	public byte[] getBytes() {
+		return store.getRevokingDB().getUnchecked(ADDRESS);
+	}
+
+	@Benchmark
+	public AccountCapsule getCapsule() {
+		return store.getUnchecked(ADDRESS);
+	}
+
+	private static class AccountBenchStore extends TronStoreWithRevoking<AccountCapsule> {
+
+		private AccountBenchStore() {
+			super("account-bench");
+		}
+	}
+}
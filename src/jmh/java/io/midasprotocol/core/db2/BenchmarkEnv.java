@@ -0,0 +1,32 @@
+package io.midasprotocol.core.db2;
+
+import io.midasprotocol.common.utils.FileUtil;
+import io.midasprotocol.core.config.args.Args;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * A node configuration whose output directory is a fresh temp directory, for benchmarks that
+ * open stores the way the node does.
+ */
+public final class BenchmarkEnv {
+
+	private static final String CONF = "config.conf";
+
+	private BenchmarkEnv() {
+	}
+
+	public static File setUp(String name, String dbEngine) throws IOException {
+		File dir = Files.createTempDirectory(name).toFile();
+		Args.setParam(new String[]{"-d", dir.getPath()}, CONF);
+		Args.getInstance().getStorage().setDbEngine(dbEngine);
+		return dir;
+	}
+
+	public static void tearDown(File dir) {
+		Args.clearParam();
+		FileUtil.deleteDir(dir);
+	}
+}
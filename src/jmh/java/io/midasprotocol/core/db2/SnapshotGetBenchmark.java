@@ -0,0 +1,93 @@
+package io.midasprotocol.core.db2;
+
+import com.google.common.primitives.Longs;
+import io.midasprotocol.core.db2.common.LevelDB;
+import io.midasprotocol.core.db2.core.ISession;
+import io.midasprotocol.core.db2.core.RevokingDBWithCachingNewValue;
+import io.midasprotocol.core.db2.core.Snapshot;
+import io.midasprotocol.core.db2.core.SnapshotManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point reads through the head of a stack of depth snapshots, for keys written by the newest
+ * snapshot, the oldest one, only the root db, and for missing keys.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotGetBenchmark {
+
+	private static final int KEYS = 1024;
+
+	@Param({"1", "16", "128"})
+	private int depth;
+
+	private File dir;
+	private RevokingDBWithCachingNewValue db;
+	private Snapshot head;
+
+	@Setup
+	public void setup() throws Exception {
+		dir = BenchmarkEnv.setUp("snapshot-get", "LEVELDB");
+		SnapshotManager manager = new SnapshotManager();
+		manager.setMaxSize(depth + 16);
+		db = new RevokingDBWithCachingNewValue("bench", LevelDB.class);
+		manager.add(db);
+
+		// written straight into the root while the manager is disabled
+		for (int i = 0; i < KEYS; ++i) {
+			db.put(key(0, i), key(0, i));
+		}
+		manager.enable();
+		for (int layer = 1; layer <= depth; ++layer) {
+			try (ISession session = manager.buildSession()) {
+				for (int i = 0; i < KEYS; ++i) {
+					db.put(key(layer, i), key(layer, i));
+				}
+				session.commit();
+			}
+		}
+		head = db.getHead();
+	}
+
+	@TearDown
+	public void tearDown() {
+		db.close();
+		BenchmarkEnv.tearDown(dir);
+	}
+
+	private static byte[] key(int layer, int i) {
+		return Longs.toByteArray(((long) layer << 32) | i);
+	}
+
+	private static int random() {
+		return ThreadLocalRandom.current().nextInt(KEYS);
+	}
+
+	@Benchmark
+	public byte[] hitNewest() {
+		return head.get(key(depth, random()));
+	}
+
+	@Benchmark
+	public byte[] hitOldest() {
+		return head.get(key(1, random()));
+	}
+
+	@Benchmark
+	public byte[] hitRoot() {
+		return head.get(key(0, random()));
+	}
+
+	@Benchmark
+	public byte[] miss() {
+		return head.get(key(depth + 1, random()));
+	}
+}
@@ -0,0 +1,91 @@
+package io.midasprotocol.core.db2;
+
+import com.google.common.primitives.Longs;
+import io.midasprotocol.core.db2.common.LevelDB;
+import io.midasprotocol.core.db2.core.ISession;
+import io.midasprotocol.core.db2.core.RevokingDBWithCachingNewValue;
+import io.midasprotocol.core.db2.core.SnapshotManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The session lifecycle of a block on top of a stack of depth unflushed snapshots: build a
+ * session and revoke it, as a failed transaction does, or merge it into the enclosing block
+ * session, as an applied one does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotManagerBenchmark {
+
+	private static final int STORES = 4;
+	private static final int KEYS_PER_SESSION = 16;
+
+	@Param({"1", "16", "128"})
+	private int depth;
+
+	private File dir;
+	private SnapshotManager manager;
+	private RevokingDBWithCachingNewValue[] dbs = new RevokingDBWithCachingNewValue[STORES];
+	private ISession block;
+	private long next;
+
+	@Setup
+	public void setup() throws Exception {
+		dir = BenchmarkEnv.setUp("snapshot-manager", "LEVELDB");
+		manager = new SnapshotManager();
+		manager.setMaxSize(depth + 16);
+		manager.enable();
+		for (int i = 0; i < STORES; ++i) {
+			dbs[i] = new RevokingDBWithCachingNewValue("bench-" + i, LevelDB.class);
+			manager.add(dbs[i]);
+		}
+		for (int i = 0; i < depth; ++i) {
+			try (ISession session = manager.buildSession()) {
+				write();
+				session.commit();
+			}
+		}
+		block = manager.buildSession();
+	}
+
+	@TearDown
+	public void tearDown() {
+		block.close();
+		for (RevokingDBWithCachingNewValue db : dbs) {
+			db.close();
+		}
+		BenchmarkEnv.tearDown(dir);
+	}
+
+	private void write() {
+		for (RevokingDBWithCachingNewValue db : dbs) {
+			for (int i = 0; i < KEYS_PER_SESSION; ++i) {
+				// a bounded key space keeps the enclosing session from growing without end
+				byte[] key = Longs.toByteArray(next++ & 0xffff);
+				db.put(key, key);
+			}
+		}
+	}
+
+	@Benchmark
+	public void buildSessionAndRevoke() {
+		try (ISession session = manager.buildSession()) {
+			write();
+			session.revoke();
+		}
+	}
+
+	@Benchmark
+	public void buildSessionAndMerge() {
+		try (ISession session = manager.buildSession()) {
+			write();
+			session.merge();
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package io.midasprotocol.core.db2;
+
+import com.google.common.primitives.Longs;
+import io.midasprotocol.common.utils.Sha256Hash;
+import io.midasprotocol.core.config.args.Args;
+import io.midasprotocol.core.db2.common.TxCacheDB;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording transaction ids block after block, and looking up ids that are cached or not.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TxCacheDBBenchmark {
+
+	private static final int TRANSACTIONS_PER_BLOCK = 200;
+	private static final int CACHED = 100_000;
+
+	@Param({"LEVELDB", "ROCKSDB"})
+	private String dbEngine;
+
+	private File dir;
+	private TxCacheDB txCacheDB;
+	private long next;
+
+	@Setup
+	public void setup() throws Exception {
+		dir = BenchmarkEnv.setUp("tx-cache", dbEngine);
+		txCacheDB = new TxCacheDB(Args.getInstance().getOutputDirectoryByDbName("trans-cache"),
+			"trans-cache");
+		for (next = 0; next < CACHED; ++next) {
+			record();
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		txCacheDB.close();
+		BenchmarkEnv.tearDown(dir);
+	}
+
+	private static byte[] txId(long i) {
+		return Sha256Hash.hash(Longs.toByteArray(i));
+	}
+
+	private void record() {
+		txCacheDB.put(txId(next), Longs.toByteArray(next / TRANSACTIONS_PER_BLOCK));
+	}
+
+	@Benchmark
+	public void put() {
+		record();
+		++next;
+	}
+
+	@Benchmark
+	public byte[] getHit() {
+		return txCacheDB.get(txId(next - 1 - ThreadLocalRandom.current().nextInt(CACHED)));
+	}
+
+	@Benchmark
+	public byte[] getMiss() {
+		return txCacheDB.get(txId(-1 - ThreadLocalRandom.current().nextInt(CACHED)));
+	}
+}
@@ -0,0 +1,173 @@
+package io.midasprotocol.common.crypto;
+
+import io.midasprotocol.common.crypto.ECKey.ECDSASignature;
+import org.spongycastle.asn1.x9.X9ECParameters;
+import org.spongycastle.crypto.ec.CustomNamedCurves;
+import org.spongycastle.math.ec.ECCurve;
+import org.spongycastle.math.ec.ECMultiplier;
+import org.spongycastle.math.ec.ECPoint;
+import org.spongycastle.math.ec.FixedPointCombMultiplier;
+
+import java.math.BigInteger;
+import java.security.SignatureException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Recovers signer addresses from secp256k1 signatures, several at a time.
+ *
+ * <p>Compared to {@link ECKey#signatureToAddress}, points live on the dedicated secp256k1 curve,
+ * whose field arithmetic works on fixed width words and whose multiplications use the curve
+ * endomorphism; multiples of the generator come from a comb table computed once; and a batch
+ * pays a single modular inversion for all of its r values and a single field inversion to bring
+ * all recovered keys back to affine coordinates.
+ *
+ * <p>Signatures are in the 65 bytes r, s, v layout transactions and blocks carry. Anything the
+ * batch path does not recover (a malformed header, an r without a point, a key at infinity) is
+ * handed to {@link ECKey}, so results and errors are the same as before.
+ */
+public final class Secp256k1 {
+
+	private static final X9ECParameters PARAMS = CustomNamedCurves.getByName("secp256k1");
+	private static final ECCurve CURVE = PARAMS.getCurve();
+	private static final BigInteger N = PARAMS.getN();
+	private static final BigInteger P = CURVE.getField().getCharacteristic();
+	private static final ECPoint G = PARAMS.getG();
+	private static final ECMultiplier G_MULTIPLIER = new FixedPointCombMultiplier();
+
+	static {
+		// build the generator table up front rather than under the first concurrent batch
+		G_MULTIPLIER.multiply(G, BigInteger.ONE);
+	}
+
+	private Secp256k1() {
+	}
+
+	/**
+	 * @param hash the 32 bytes signed.
+	 * @param sig  r, s and v.
+	 * @return the 20 bytes address of the signer.
+	 */
+	public static byte[] signatureToAddress(byte[] hash, byte[] sig) throws SignatureException {
+		byte[] address = signaturesToAddresses(Collections.singletonList(hash),
+			Collections.singletonList(sig))[0];
+		if (address == null) {
+			address = ECKey.signatureToAddress(hash, toBase64(sig));
+		}
+		return address;
+	}
+
+	/**
+	 * recover the signers of many signatures at once.
+	 *
+	 * @return the address of each signer, or null where the signature could not be recovered
+	 * here; {@link #signatureToAddress} tells why.
+	 */
+	public static byte[][] signaturesToAddresses(List<byte[]> hashes, List<byte[]> sigs) {
+		int size = hashes.size();
+		BigInteger[] r = new BigInteger[size];
+		BigInteger[] s = new BigInteger[size];
+		ECPoint[] points = new ECPoint[size];
+
+		for (int i = 0; i < size; ++i) {
+			byte[] hash = hashes.get(i);
+			byte[] sig = sigs.get(i);
+			if (hash.length != 32 || sig.length < 65) {
+				continue;
+			}
+			int recId = recId(sig[64]);
+			if (recId < 0) {
+				continue;
+			}
+			BigInteger ri = new BigInteger(1, Arrays.copyOfRange(sig, 0, 32));
+			BigInteger x = ri.add(N.multiply(BigInteger.valueOf(recId / 2)));
+			if (x.compareTo(P) >= 0 || ri.mod(N).signum() == 0) {
+				continue;
+			}
+			try {
+				points[i] = decompress(x, (recId & 1) == 1);
+			} catch (IllegalArgumentException e) {
+				continue;
+			}
+			r[i] = ri.mod(N);
+			s[i] = new BigInteger(1, Arrays.copyOfRange(sig, 32, 64));
+		}
+
+		BigInteger[] rInv = invertAll(r);
+		for (int i = 0; i < size; ++i) {
+			if (points[i] == null) {
+				continue;
+			}
+			// Q = r^-1 (sR - eG)
+			BigInteger e = new BigInteger(1, hashes.get(i));
+			BigInteger u1 = N.subtract(e.mod(N)).multiply(rInv[i]).mod(N);
+			BigInteger u2 = s[i].multiply(rInv[i]).mod(N);
+			points[i] = G_MULTIPLIER.multiply(G, u1).add(points[i].multiply(u2));
+		}
+		CURVE.normalizeAll(points);
+
+		byte[][] addresses = new byte[size][];
+		for (int i = 0; i < size; ++i) {
+			if (points[i] != null && !points[i].isInfinity()) {
+				addresses[i] = ECKey.computeAddress(points[i].getEncoded(false));
+			}
+		}
+		return addresses;
+	}
+
+	/**
+	 * @return the recovery id v encodes, or -1 if out of range.
+	 */
+	private static int recId(byte v) {
+		int header = v < 27 ? v + 27 : v;
+		if (header < 27 || header > 34) {
+			return -1;
+		}
+		return (header >= 31 ? header - 4 : header) - 27;
+	}
+
+	private static ECPoint decompress(BigInteger x, boolean yBit) {
+		byte[] encoded = new byte[33];
+		byte[] xBytes = x.toByteArray();
+		int length = Math.min(xBytes.length, 32);
+		System.arraycopy(xBytes, xBytes.length - length, encoded, 33 - length, length);
+		encoded[0] = (byte) (yBit ? 0x03 : 0x02);
+		return CURVE.decodePoint(encoded);
+	}
+
+	/**
+	 * invert the non null values modulo n with one inversion, by Montgomery's trick.
+	 */
+	private static BigInteger[] invertAll(BigInteger[] values) {
+		BigInteger[] inverses = new BigInteger[values.length];
+		BigInteger product = BigInteger.ONE;
+		for (int i = 0; i < values.length; ++i) {
+			if (values[i] != null) {
+				inverses[i] = product;
+				product = product.multiply(values[i]).mod(N);
+			}
+		}
+
+		BigInteger inverse = product.modInverse(N);
+		for (int i = values.length - 1; i >= 0; --i) {
+			if (values[i] != null) {
+				inverses[i] = inverses[i].multiply(inverse).mod(N);
+				inverse = inverse.multiply(values[i]).mod(N);
+			}
+		}
+		return inverses;
+	}
+
+	private static String toBase64(byte[] sig) throws SignatureException {
+		if (sig.length < 65) {
+			throw new SignatureException("Signature size is " + sig.length);
+		}
+		byte v = sig[64];
+		if (v < 27) {
+			v += 27;
+		}
+		return ECDSASignature.fromComponents(Arrays.copyOfRange(sig, 0, 32),
+			Arrays.copyOfRange(sig, 32, 64), v).toBase64();
+	}
+}
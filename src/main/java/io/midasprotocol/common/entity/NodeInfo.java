@@ -30,6 +30,11 @@ public class NodeInfo {
 
 	private Map<String, String> cheatWitnessInfoMap = new HashMap<>();
 
+	/*db flush information*/
+	private List<DbFlushInfo> dbFlushInfoList = new ArrayList<>();
+	private List<CapsuleCacheInfo> capsuleCacheInfoList = new ArrayList<>();
+	private List<WorkQueueInfo> workQueueInfoList = new ArrayList<>();
+
 	public long getBeginSyncNum() {
 		return beginSyncNum;
 	}
@@ -130,6 +135,33 @@ public class NodeInfo {
 		return this;
 	}
 
+	public List<DbFlushInfo> getDbFlushInfoList() {
+		return new ArrayList<>(dbFlushInfoList);
+	}
+
+	public NodeInfo setDbFlushInfoList(List<DbFlushInfo> dbFlushInfoList) {
+		this.dbFlushInfoList = new ArrayList<>(dbFlushInfoList);
+		return this;
+	}
+
+	public List<CapsuleCacheInfo> getCapsuleCacheInfoList() {
+		return new ArrayList<>(capsuleCacheInfoList);
+	}
+
+	public NodeInfo setCapsuleCacheInfoList(List<CapsuleCacheInfo> capsuleCacheInfoList) {
+		this.capsuleCacheInfoList = new ArrayList<>(capsuleCacheInfoList);
+		return this;
+	}
+
+	public List<WorkQueueInfo> getWorkQueueInfoList() {
+		return new ArrayList<>(workQueueInfoList);
+	}
+
+	public NodeInfo setWorkQueueInfoList(List<WorkQueueInfo> workQueueInfoList) {
+		this.workQueueInfoList = new ArrayList<>(workQueueInfoList);
+		return this;
+	}
+
 	public Protocol.NodeInfo transferToProtoEntity() {
 		Protocol.NodeInfo.Builder builder = Protocol.NodeInfo.newBuilder();
 		builder.setBeginSyncNum(getBeginSyncNum());
@@ -233,6 +265,40 @@ public class NodeInfo {
 			}
 			builder.setMachineInfo(machineBuilder.build());
 		}
+		for (DbFlushInfo dbFlushInfo : getDbFlushInfoList()) {
+			Protocol.NodeInfo.DbFlushInfo.Builder flushBuilder = Protocol.NodeInfo.DbFlushInfo
+				.newBuilder();
+			flushBuilder.setName(dbFlushInfo.getName());
+			flushBuilder.setFlushCount(dbFlushInfo.getFlushCount());
+			flushBuilder.setLastCost(dbFlushInfo.getLastCost());
+			flushBuilder.setTotalCost(dbFlushInfo.getTotalCost());
+			flushBuilder.setLastBytes(dbFlushInfo.getLastBytes());
+			flushBuilder.setTotalBytes(dbFlushInfo.getTotalBytes());
+			builder.addDbFlushInfoList(flushBuilder.build());
+		}
+		for (CapsuleCacheInfo capsuleCacheInfo : getCapsuleCacheInfoList()) {
+			Protocol.NodeInfo.CapsuleCacheInfo.Builder cacheBuilder = Protocol.NodeInfo.CapsuleCacheInfo
+				.newBuilder();
+			cacheBuilder.setName(capsuleCacheInfo.getName());
+			cacheBuilder.setSize(capsuleCacheInfo.getSize());
+			cacheBuilder.setHitCount(capsuleCacheInfo.getHitCount());
+			cacheBuilder.setMissCount(capsuleCacheInfo.getMissCount());
+			cacheBuilder.setEvictionCount(capsuleCacheInfo.getEvictionCount());
+			builder.addCapsuleCacheInfoList(cacheBuilder.build());
+		}
+		for (WorkQueueInfo workQueueInfo : getWorkQueueInfoList()) {
+			Protocol.NodeInfo.WorkQueueInfo.Builder queueBuilder = Protocol.NodeInfo.WorkQueueInfo
+				.newBuilder();
+			queueBuilder.setName(workQueueInfo.getName());
+			queueBuilder.setSize(workQueueInfo.getSize());
+			queueBuilder.setCapacity(workQueueInfo.getCapacity());
+			queueBuilder.setOfferedCount(workQueueInfo.getOfferedCount());
+			queueBuilder.setDroppedCount(workQueueInfo.getDroppedCount());
+			queueBuilder.setDrainedCount(workQueueInfo.getDrainedCount());
+			queueBuilder.setLastWait(workQueueInfo.getLastWait());
+			queueBuilder.setAverageWait(workQueueInfo.getAverageWait());
+			builder.addWorkQueueInfoList(queueBuilder.build());
+		}
 
 		return builder.build();
 	}
@@ -714,4 +780,206 @@ public class NodeInfo {
 		}
 
 	}
+
+	public static class DbFlushInfo {
+
+		private String name;
+		private long flushCount;
+		private long lastCost;
+		private long totalCost;
+		private long lastBytes;
+		private long totalBytes;
+
+		public String getName() {
+			return name;
+		}
+
+		public DbFlushInfo setName(String name) {
+			this.name = name;
+			return this;
+		}
+
+		public long getFlushCount() {
+			return flushCount;
+		}
+
+		public DbFlushInfo setFlushCount(long flushCount) {
+			this.flushCount = flushCount;
+			return this;
+		}
+
+		public long getLastCost() {
+			return lastCost;
+		}
+
+		public DbFlushInfo setLastCost(long lastCost) {
+			this.lastCost = lastCost;
+			return this;
+		}
+
+		public long getTotalCost() {
+			return totalCost;
+		}
+
+		public DbFlushInfo setTotalCost(long totalCost) {
+			this.totalCost = totalCost;
+			return this;
+		}
+
+		public long getLastBytes() {
+			return lastBytes;
+		}
+
+		public DbFlushInfo setLastBytes(long lastBytes) {
+			this.lastBytes = lastBytes;
+			return this;
+		}
+
+		public long getTotalBytes() {
+			return totalBytes;
+		}
+
+		public DbFlushInfo setTotalBytes(long totalBytes) {
+			this.totalBytes = totalBytes;
+			return this;
+		}
+	}
+
+	public static class CapsuleCacheInfo {
+
+		private String name;
+		private long size;
+		private long hitCount;
+		private long missCount;
+		private long evictionCount;
+
+		public String getName() {
+			return name;
+		}
+
+		public CapsuleCacheInfo setName(String name) {
+			this.name = name;
+			return this;
+		}
+
+		public long getSize() {
+			return size;
+		}
+
+		public CapsuleCacheInfo setSize(long size) {
+			this.size = size;
+			return this;
+		}
+
+		public long getHitCount() {
+			return hitCount;
+		}
+
+		public CapsuleCacheInfo setHitCount(long hitCount) {
+			this.hitCount = hitCount;
+			return this;
+		}
+
+		public long getMissCount() {
+			return missCount;
+		}
+
+		public CapsuleCacheInfo setMissCount(long missCount) {
+			this.missCount = missCount;
+			return this;
+		}
+
+		public long getEvictionCount() {
+			return evictionCount;
+		}
+
+		public CapsuleCacheInfo setEvictionCount(long evictionCount) {
+			this.evictionCount = evictionCount;
+			return this;
+		}
+	}
+
+	public static class WorkQueueInfo {
+
+		private String name;
+		private long size;
+		private long capacity;
+		private long offeredCount;
+		private long droppedCount;
+		private long drainedCount;
+		private long lastWait;
+		private long averageWait;
+
+		public String getName() {
+			return name;
+		}
+
+		public WorkQueueInfo setName(String name) {
+			this.name = name;
+			return this;
+		}
+
+		public long getSize() {
+			return size;
+		}
+
+		public WorkQueueInfo setSize(long size) {
+			this.size = size;
+			return this;
+		}
+
+		public long getCapacity() {
+			return capacity;
+		}
+
+		public WorkQueueInfo setCapacity(long capacity) {
+			this.capacity = capacity;
+			return this;
+		}
+
+		public long getOfferedCount() {
+			return offeredCount;
+		}
+
+		public WorkQueueInfo setOfferedCount(long offeredCount) {
+			this.offeredCount = offeredCount;
+			return this;
+		}
+
+		public long getDroppedCount() {
+			return droppedCount;
+		}
+
+		public WorkQueueInfo setDroppedCount(long droppedCount) {
+			this.droppedCount = droppedCount;
+			return this;
+		}
+
+		public long getDrainedCount() {
+			return drainedCount;
+		}
+
+		public WorkQueueInfo setDrainedCount(long drainedCount) {
+			this.drainedCount = drainedCount;
+			return this;
+		}
+
+		public long getLastWait() {
+			return lastWait;
+		}
+
+		public WorkQueueInfo setLastWait(long lastWait) {
+			this.lastWait = lastWait;
+			return this;
+		}
+
+		public long getAverageWait() {
+			return averageWait;
+		}
+
+		public WorkQueueInfo setAverageWait(long averageWait) {
+			this.averageWait = averageWait;
+			return this;
+		}
+	}
 }
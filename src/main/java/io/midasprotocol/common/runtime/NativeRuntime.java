@@ -0,0 +1,69 @@
+package io.midasprotocol.common.runtime;
+
+import io.midasprotocol.common.runtime.vm.program.InternalTransaction.TrxType;
+import io.midasprotocol.common.runtime.vm.program.ProgramResult;
+import io.midasprotocol.core.actuator.Actuator;
+import io.midasprotocol.core.actuator.ActuatorFactory;
+import io.midasprotocol.core.capsule.TransactionCapsule;
+import io.midasprotocol.core.db.Manager;
+import io.midasprotocol.core.exception.ContractExeException;
+import io.midasprotocol.core.exception.ContractValidateException;
+
+/**
+ * Runs the system contracts, those an actuator carries out without the vm.
+ *
+ * <p>Actuators write to the stores themselves, so unlike {@link RuntimeImpl} there is no deposit
+ * to stage changes in and commit, no vm configuration to load, and no program whose energy,
+ * logs or deleted accounts have to be settled afterwards.
+ */
+public class NativeRuntime implements Runtime {
+
+	private final TransactionCapsule trx;
+	private final Manager dbManager;
+	private final ProgramResult result = new ProgramResult();
+
+	public NativeRuntime(TransactionCapsule trx, Manager dbManager) {
+		this.trx = trx;
+		this.dbManager = dbManager;
+	}
+
+	@Override
+	public boolean isCallConstant() {
+		return false;
+	}
+
+	@Override
+	public void execute() throws ContractValidateException, ContractExeException {
+		for (Actuator act : ActuatorFactory.createActuator(trx, dbManager)) {
+			act.validate();
+			act.execute(result.getRet());
+		}
+	}
+
+	@Override
+	public void go() {
+	}
+
+	@Override
+	public TrxType getTrxType() {
+		return TrxType.TRX_PRECOMPILED_TYPE;
+	}
+
+	@Override
+	public void finalization() {
+	}
+
+	@Override
+	public ProgramResult getResult() {
+		return result;
+	}
+
+	@Override
+	public String getRuntimeError() {
+		return null;
+	}
+
+	@Override
+	public void setEnableEventLinstener(boolean enableEventLinstener) {
+	}
+}
@@ -689,9 +689,9 @@ public class RuntimeImpl implements Runtime {
 
 	public boolean isCallConstant() throws ContractValidateException {
 
-		TriggerSmartContract triggerContractFromTransaction = ContractCapsule
-			.getTriggerContractFromTransaction(trx);
 		if (TrxType.TRX_CONTRACT_CALL_TYPE == trxType) {
+			TriggerSmartContract triggerContractFromTransaction = ContractCapsule
+				.getTriggerContractFromTransaction(trx);
 
 			ContractCapsule contract = deposit
 				.getContract(triggerContractFromTransaction.getContractAddress().toByteArray());
@@ -44,6 +44,8 @@ public class VMConfig {
 //  private static boolean VERSION_3_5_HARD_FORK = false;
 	private boolean vmTraceCompressed = false;
 	private boolean vmTrace = Args.getInstance().isVmTrace();
+	@Setter
+	private boolean vmPredecoded = Args.getInstance().isVmPredecoded();
 
 	private VMConfig() {
 	}
@@ -81,6 +83,10 @@ public class VMConfig {
 		return vmTrace;
 	}
 
+	public boolean vmPredecoded() {
+		return vmPredecoded;
+	}
+
 	public boolean vmTraceCompressed() {
 		return vmTraceCompressed;
 	}
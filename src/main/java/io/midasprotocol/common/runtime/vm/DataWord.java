@@ -46,6 +46,12 @@ public class DataWord implements Comparable<DataWord> {
 	public static final DataWord ZERO_EMPTY_ARRAY = new DataWord(
 		new byte[0]);      // don't push it in to the stack
 
+	// add, sub, mul, div, sDiv, mod, sMod, exp, addmod and mulmod work on the word as eight 32
+	// bits limbs rather than through BigInteger
+	private static final int LIMBS = 8;
+	private static final long LIMB_MASK = 0xFFFFFFFFL;
+	private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
 	private byte[] data = new byte[32];
 
 	public DataWord() {
@@ -268,33 +274,30 @@ public class DataWord implements Comparable<DataWord> {
 		this.data = ByteUtil.copyToArray(MAX_VALUE.subtract(this.value()));
 	}
 
-	// By   : Holger
-	// From : http://stackoverflow.com/a/24023466/459349
 	public void add(DataWord word) {
 		byte[] result = new byte[32];
-		for (int i = 31, overflow = 0; i >= 0; i--) {
-			int v = (this.data[i] & 0xff) + (word.data[i] & 0xff) + overflow;
-			result[i] = (byte) v;
-			overflow = v >>> 8;
+		long carry = 0;
+		for (int i = 0; i < LIMBS; ++i) {
+			long sum = (limb(this.data, i) & LIMB_MASK) + (limb(word.data, i) & LIMB_MASK) + carry;
+			setLimb(result, i, (int) sum);
+			carry = sum >>> 32;
 		}
 		this.data = result;
 	}
 
-	// old add-method with BigInteger quick hack
+	// same as add, which no longer goes through BigInteger either
 	public void add2(DataWord word) {
-		BigInteger result = value().add(word.value());
-		this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+		add(word);
 	}
 
-	// TODO: mul can be done in more efficient way
-	// TODO:     with shift left shift right trick
-	// TODO      without BigInteger quick hack
 	public void mul(DataWord word) {
-		BigInteger result = value().multiply(word.value());
-		this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+		Scratch scratch = SCRATCH.get();
+		load(this.data, scratch.a, false);
+		load(word.data, scratch.b, false);
+		multiplyLow(scratch.a, scratch.b, scratch.c);
+		this.data = toBytes(scratch.c, LIMBS, false);
 	}
 
-	// TODO: improve with no BigInteger
 	public void div(DataWord word) {
 
 		if (word.isZero()) {
@@ -302,11 +305,17 @@ public class DataWord implements Comparable<DataWord> {
 			return;
 		}
 
-		BigInteger result = value().divide(word.value());
-		this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+		Scratch scratch = SCRATCH.get();
+		int m = load(this.data, scratch.a, false);
+		int n = load(word.data, scratch.b, false);
+		if (m < n) {
+			this.data = new byte[32];
+			return;
+		}
+		divide(scratch.a, m, scratch.b, n, scratch);
+		this.data = toBytes(scratch.quotient, m - n + 1, false);
 	}
 
-	// TODO: improve with no BigInteger
 	public void sDiv(DataWord word) {
 
 		if (word.isZero()) {
@@ -314,23 +323,58 @@ public class DataWord implements Comparable<DataWord> {
 			return;
 		}
 
-		BigInteger result = sValue().divide(word.sValue());
-		this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+		// the quotient of the magnitudes, negated when the signs differ, truncates toward zero
+		Scratch scratch = SCRATCH.get();
+		boolean negative = this.isNegative() != word.isNegative();
+		int m = load(this.data, scratch.a, true);
+		int n = load(word.data, scratch.b, true);
+		if (m < n) {
+			this.data = new byte[32];
+			return;
+		}
+		divide(scratch.a, m, scratch.b, n, scratch);
+		this.data = toBytes(scratch.quotient, m - n + 1, negative);
 	}
 
-	// TODO: improve with no BigInteger
 	public void sub(DataWord word) {
-		BigInteger result = value().subtract(word.value());
-		this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+		byte[] result = new byte[32];
+		long borrow = 0;
+		for (int i = 0; i < LIMBS; ++i) {
+			long difference = (limb(this.data, i) & LIMB_MASK) - (limb(word.data, i) & LIMB_MASK)
+				- borrow;
+			setLimb(result, i, (int) difference);
+			borrow = difference >>> 63;
+		}
+		this.data = result;
 	}
 
-	// TODO: improve with no BigInteger
 	public void exp(DataWord word) {
-		BigInteger result = value().modPow(word.value(), _2_256);
-		this.data = ByteUtil.copyToArray(result);
+		Scratch scratch = SCRATCH.get();
+		load(this.data, scratch.a, false);
+
+		// square and multiply from the most significant bit of the exponent, modulo 2^256 as
+		// products drop their upper half
+		int[] result = scratch.b;
+		int[] product = scratch.c;
+		result[0] = 1;
+		for (int i = 1; i < LIMBS; ++i) {
+			result[i] = 0;
+		}
+		for (int bit = bitLength(word.data) - 1; bit >= 0; --bit) {
+			multiplyLow(result, result, product);
+			int[] swap = result;
+			result = product;
+			product = swap;
+			if ((word.data[31 - (bit >>> 3)] & (1 << (bit & 7))) != 0) {
+				multiplyLow(result, scratch.a, product);
+				swap = result;
+				result = product;
+				product = swap;
+			}
+		}
+		this.data = toBytes(result, LIMBS, false);
 	}
 
-	// TODO: improve with no BigInteger
 	public void mod(DataWord word) {
 
 		if (word.isZero()) {
@@ -338,8 +382,15 @@ public class DataWord implements Comparable<DataWord> {
 			return;
 		}
 
-		BigInteger result = value().mod(word.value());
-		this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+		Scratch scratch = SCRATCH.get();
+		int m = load(this.data, scratch.a, false);
+		int n = load(word.data, scratch.b, false);
+		if (m < n) {
+			this.data = toBytes(scratch.a, m, false);
+			return;
+		}
+		divide(scratch.a, m, scratch.b, n, scratch);
+		this.data = toBytes(scratch.remainder, n, false);
 	}
 
 	public void sMod(DataWord word) {
@@ -349,10 +400,17 @@ public class DataWord implements Comparable<DataWord> {
 			return;
 		}
 
-		BigInteger result = sValue().abs().mod(word.sValue().abs());
-		result = (sValue().signum() == -1) ? result.negate() : result;
-
-		this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+		// the remainder of the magnitudes, with the sign of the dividend
+		Scratch scratch = SCRATCH.get();
+		boolean negative = this.isNegative();
+		int m = load(this.data, scratch.a, true);
+		int n = load(word.data, scratch.b, true);
+		if (m < n) {
+			this.data = toBytes(scratch.a, m, negative);
+			return;
+		}
+		divide(scratch.a, m, scratch.b, n, scratch);
+		this.data = toBytes(scratch.remainder, n, negative);
 	}
 
 	public void addmod(DataWord word1, DataWord word2) {
@@ -361,8 +419,18 @@ public class DataWord implements Comparable<DataWord> {
 			return;
 		}
 
-		BigInteger result = value().add(word1.value()).mod(word2.value());
-		this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+		// the sum takes up to 257 bits, reduced without wrapping around 2^256 first
+		Scratch scratch = SCRATCH.get();
+		load(this.data, scratch.a, false);
+		load(word1.data, scratch.b, false);
+		long carry = 0;
+		for (int i = 0; i < LIMBS; ++i) {
+			long sum = (scratch.a[i] & LIMB_MASK) + (scratch.b[i] & LIMB_MASK) + carry;
+			scratch.wide[i] = (int) sum;
+			carry = sum >>> 32;
+		}
+		scratch.wide[LIMBS] = (int) carry;
+		reduce(scratch, LIMBS + 1, word2);
 	}
 
 	public void mulmod(DataWord word1, DataWord word2) {
@@ -372,8 +440,42 @@ public class DataWord implements Comparable<DataWord> {
 			return;
 		}
 
-		BigInteger result = value().multiply(word1.value()).mod(word2.value());
-		this.data = ByteUtil.copyToArray(result.and(MAX_VALUE));
+		// the product takes up to 512 bits, reduced without wrapping around 2^256 first
+		Scratch scratch = SCRATCH.get();
+		load(this.data, scratch.a, false);
+		load(word1.data, scratch.b, false);
+		int[] wide = scratch.wide;
+		for (int i = 0; i < 2 * LIMBS; ++i) {
+			wide[i] = 0;
+		}
+		for (int i = 0; i < LIMBS; ++i) {
+			long a = scratch.a[i] & LIMB_MASK;
+			long carry = 0;
+			for (int j = 0; j < LIMBS; ++j) {
+				long t = a * (scratch.b[j] & LIMB_MASK) + (wide[i + j] & LIMB_MASK) + carry;
+				wide[i + j] = (int) t;
+				carry = t >>> 32;
+			}
+			wide[i + LIMBS] = (int) carry;
+		}
+		reduce(scratch, 2 * LIMBS, word2);
+	}
+
+	/**
+	 * set this word to the first length limbs of scratch.wide modulo word, which is not zero.
+	 */
+	private void reduce(Scratch scratch, int length, DataWord word) {
+		int m = length;
+		while (m > 0 && scratch.wide[m - 1] == 0) {
+			--m;
+		}
+		int n = load(word.data, scratch.b, false);
+		if (m < n) {
+			this.data = toBytes(scratch.wide, m, false);
+			return;
+		}
+		divide(scratch.wide, m, scratch.b, n, scratch);
+		this.data = toBytes(scratch.remainder, n, false);
 	}
 
 	@JsonValue
@@ -467,4 +569,191 @@ public class DataWord implements Comparable<DataWord> {
 	public String toHexString() {
 		return Hex.toHexString(data);
 	}
+
+	/**
+	 * @return the i-th 32 bits limb of a word, the least significant first.
+	 */
+	private static int limb(byte[] data, int i) {
+		int offset = 28 - (i << 2);
+		return (data[offset] & 0xff) << 24 | (data[offset + 1] & 0xff) << 16
+			| (data[offset + 2] & 0xff) << 8 | data[offset + 3] & 0xff;
+	}
+
+	private static void setLimb(byte[] data, int i, int value) {
+		int offset = 28 - (i << 2);
+		data[offset] = (byte) (value >>> 24);
+		data[offset + 1] = (byte) (value >>> 16);
+		data[offset + 2] = (byte) (value >>> 8);
+		data[offset + 3] = (byte) value;
+	}
+
+	/**
+	 * split a word into limbs, taking its absolute value as a signed word if magnitude is set.
+	 *
+	 * @return the number of limbs up to the most significant non zero one.
+	 */
+	private static int load(byte[] data, int[] limbs, boolean magnitude) {
+		boolean negate = magnitude && (data[0] & 0x80) != 0;
+		long carry = 1;
+		int length = 0;
+		for (int i = 0; i < LIMBS; ++i) {
+			long limb = limb(data, i) & LIMB_MASK;
+			if (negate) {
+				limb = (~limb & LIMB_MASK) + carry;
+				carry = limb >>> 32;
+			}
+			limbs[i] = (int) limb;
+			if (limbs[i] != 0) {
+				length = i + 1;
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * join the first length limbs into a new word, the others being zero, and negate it in two's
+	 * complement if negate is set.
+	 */
+	private static byte[] toBytes(int[] limbs, int length, boolean negate) {
+		byte[] data = new byte[32];
+		long carry = 1;
+		for (int i = 0; i < LIMBS; ++i) {
+			long limb = i < length ? limbs[i] & LIMB_MASK : 0;
+			if (negate) {
+				limb = (~limb & LIMB_MASK) + carry;
+				carry = limb >>> 32;
+			}
+			setLimb(data, i, (int) limb);
+		}
+		return data;
+	}
+
+	private static int bitLength(byte[] data) {
+		for (int i = 0; i < data.length; ++i) {
+			if (data[i] != 0) {
+				return (data.length - i) * 8 - Integer.numberOfLeadingZeros(data[i] & 0xff) + 24;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * the lower 256 bits of a times b, product being neither of them.
+	 */
+	private static void multiplyLow(int[] a, int[] b, int[] product) {
+		for (int i = 0; i < LIMBS; ++i) {
+			product[i] = 0;
+		}
+		for (int i = 0; i < LIMBS; ++i) {
+			long ai = a[i] & LIMB_MASK;
+			if (ai == 0) {
+				continue;
+			}
+			long carry = 0;
+			for (int j = 0; i + j < LIMBS; ++j) {
+				long t = ai * (b[j] & LIMB_MASK) + (product[i + j] & LIMB_MASK) + carry;
+				product[i + j] = (int) t;
+				carry = t >>> 32;
+			}
+		}
+	}
+
+	/**
+	 * divide the m limbs of u by the n limbs of v, m >= n and v[n - 1] != 0, into
+	 * scratch.quotient and scratch.remainder, as in Knuth's algorithm D (TAOCP 4.3.1) and its
+	 * rendition in Hacker's Delight.
+	 */
+	private static void divide(int[] u, int m, int[] v, int n, Scratch scratch) {
+		int[] quotient = scratch.quotient;
+		int[] remainder = scratch.remainder;
+
+		if (n == 1) {
+			long divisor = v[0] & LIMB_MASK;
+			long rest = 0;
+			for (int j = m - 1; j >= 0; --j) {
+				long dividend = rest << 32 | u[j] & LIMB_MASK;
+				quotient[j] = (int) Long.divideUnsigned(dividend, divisor);
+				rest = Long.remainderUnsigned(dividend, divisor);
+			}
+			remainder[0] = (int) rest;
+			return;
+		}
+
+		// shift both so that the top limb of the divisor has its top bit set, which keeps each
+		// estimate of a quotient limb at most two above the actual one
+		int shift = Integer.numberOfLeadingZeros(v[n - 1]);
+		int[] un = scratch.un;
+		int[] vn = scratch.vn;
+		for (int i = n - 1; i > 0; --i) {
+			vn[i] = v[i] << shift | (int) ((v[i - 1] & LIMB_MASK) >>> (32 - shift));
+		}
+		vn[0] = v[0] << shift;
+		un[m] = (int) ((u[m - 1] & LIMB_MASK) >>> (32 - shift));
+		for (int i = m - 1; i > 0; --i) {
+			un[i] = u[i] << shift | (int) ((u[i - 1] & LIMB_MASK) >>> (32 - shift));
+		}
+		un[0] = u[0] << shift;
+
+		long top = vn[n - 1] & LIMB_MASK;
+		long next = vn[n - 2] & LIMB_MASK;
+		for (int j = m - n; j >= 0; --j) {
+			long dividend = (un[j + n] & LIMB_MASK) << 32 | un[j + n - 1] & LIMB_MASK;
+			long estimate = Long.divideUnsigned(dividend, top);
+			long rest = Long.remainderUnsigned(dividend, top);
+			while (estimate > LIMB_MASK || Long.compareUnsigned(estimate * next,
+				rest << 32 | un[j + n - 2] & LIMB_MASK) > 0) {
+				--estimate;
+				rest += top;
+				if (rest > LIMB_MASK) {
+					break;
+				}
+			}
+
+			// multiply and subtract
+			long borrow = 0;
+			long t;
+			for (int i = 0; i < n; ++i) {
+				long product = estimate * (vn[i] & LIMB_MASK);
+				t = (un[i + j] & LIMB_MASK) - borrow - (product & LIMB_MASK);
+				un[i + j] = (int) t;
+				borrow = (product >>> 32) - (t >> 32);
+			}
+			t = (un[j + n] & LIMB_MASK) - borrow;
+			un[j + n] = (int) t;
+
+			quotient[j] = (int) estimate;
+			if (t < 0) {
+				// the estimate was one too many, add the divisor back
+				--quotient[j];
+				long carry = 0;
+				for (int i = 0; i < n; ++i) {
+					t = (un[i + j] & LIMB_MASK) + (vn[i] & LIMB_MASK) + carry;
+					un[i + j] = (int) t;
+					carry = t >>> 32;
+				}
+				un[j + n] += (int) carry;
+			}
+		}
+
+		for (int i = 0; i < n - 1; ++i) {
+			remainder[i] = un[i] >>> shift | (int) ((un[i + 1] & LIMB_MASK) << (32 - shift));
+		}
+		remainder[n - 1] = un[n - 1] >>> shift;
+	}
+
+	/**
+	 * the limbs an arithmetic operation works on, kept per thread so that only its result is
+	 * allocated.
+	 */
+	private static final class Scratch {
+
+		private final int[] a = new int[LIMBS];
+		private final int[] b = new int[LIMBS];
+		private final int[] c = new int[LIMBS];
+		private final int[] wide = new int[2 * LIMBS];
+		private final int[] quotient = new int[2 * LIMBS];
+		private final int[] remainder = new int[LIMBS];
+		private final int[] un = new int[2 * LIMBS + 1];
+		private final int[] vn = new int[LIMBS];
+	}
 }
@@ -5,6 +5,7 @@ import io.midasprotocol.common.runtime.vm.program.Program;
 import io.midasprotocol.common.runtime.vm.program.Program.JVMStackOverFlowException;
 import io.midasprotocol.common.runtime.vm.program.Program.OutOfEnergyException;
 import io.midasprotocol.common.runtime.vm.program.Program.OutOfTimeException;
+import io.midasprotocol.common.runtime.vm.program.ProgramPrecompile;
 import io.midasprotocol.common.runtime.vm.program.Stack;
 import lombok.extern.slf4j.Slf4j;
 import org.spongycastle.util.encoders.Hex;
@@ -80,6 +81,14 @@ public class VM {
 	}
 
 	public void step(Program program) {
+		step(program, config.vmPredecoded() ? program.getProgramPrecompile() : null);
+	}
+
+	/**
+	 * @param decoded the decoded code of program, to take PUSH data and jump destinations from,
+	 *                or null to read them from the code at each step.
+	 */
+	private void step(Program program, ProgramPrecompile decoded) {
 		if (config.vmTrace()) {
 			program.saveOpTrace();
 		}
@@ -758,13 +767,13 @@ public class VM {
 					DataWord dataOffsetData = program.stackPop();
 					DataWord lengthData = program.stackPop();
 
-					byte[] msgData = program.getDataCopy(dataOffsetData, lengthData);
+					program.memorySaveDataCopy(memOffsetData.intValueSafe(), dataOffsetData, lengthData);
 
 					if (logger.isDebugEnabled()) {
-						hint = "data: " + Hex.toHexString(msgData);
+						hint = "data: " + Hex.toHexString(
+							program.memoryChunk(memOffsetData.intValueSafe(), lengthData.intValueSafe()));
 					}
 
-					program.memorySave(memOffsetData.intValueSafe(), msgData);
 					program.step();
 				}
 				break;
@@ -784,18 +793,14 @@ public class VM {
 					DataWord dataOffsetData = program.stackPop();
 					DataWord lengthData = program.stackPop();
 
-					byte[] msgData = program.getReturnDataBufferData(dataOffsetData, lengthData);
-
-					if (msgData == null) {
-						throw new Program.ReturnDataCopyIllegalBoundsException(dataOffsetData, lengthData,
-							program.getReturnDataBufferSize().longValueSafe());
-					}
+					program.memorySaveReturnDataCopy(memOffsetData.intValueSafe(), dataOffsetData,
+						lengthData);
 
 					if (logger.isDebugEnabled()) {
-						hint = "data: " + Hex.toHexString(msgData);
+						hint = "data: " + Hex.toHexString(
+							program.memoryChunk(memOffsetData.intValueSafe(), lengthData.intValueSafe()));
 					}
 
-					program.memorySave(memOffsetData.intValueSafe(), msgData);
 					program.step();
 				}
 				break;
@@ -836,22 +841,12 @@ public class VM {
 					int codeOffset = program.stackPop().intValueSafe();
 					int lengthData = program.stackPop().intValueSafe();
 
-					int sizeToBeCopied =
-						(long) codeOffset + lengthData > fullCode.length
-							? (fullCode.length < codeOffset ? 0 : fullCode.length - codeOffset)
-							: lengthData;
-
-					byte[] codeCopy = new byte[lengthData];
-
-					if (codeOffset < fullCode.length) {
-						System.arraycopy(fullCode, codeOffset, codeCopy, 0, sizeToBeCopied);
-					}
+					program.memoryCopy(memOffset, fullCode, codeOffset, lengthData);
 
 					if (logger.isDebugEnabled()) {
-						hint = "code: " + Hex.toHexString(codeCopy);
+						hint = "code: " + Hex.toHexString(program.memoryChunk(memOffset, lengthData));
 					}
 
-					program.memorySave(memOffset, codeCopy);
 					program.step();
 				}
 				break;
@@ -1094,7 +1089,10 @@ public class VM {
 				break;
 				case JUMP: {
 					DataWord pos = program.stackPop();
-					int nextPC = program.verifyJumpDest(pos);
+					int nextPC = decoded == null ? -1 : decoded.getJumpTarget(program.getPC());
+					if (nextPC < 0) {
+						nextPC = program.verifyJumpDest(pos);
+					}
 
 					if (logger.isDebugEnabled()) {
 						hint = "~> " + nextPC;
@@ -1109,7 +1107,10 @@ public class VM {
 					DataWord cond = program.stackPop();
 
 					if (!cond.isZero()) {
-						int nextPC = program.verifyJumpDest(pos);
+						int nextPC = decoded == null ? -1 : decoded.getJumpTarget(program.getPC());
+						if (nextPC < 0) {
+							nextPC = program.verifyJumpDest(pos);
+						}
 
 						if (logger.isDebugEnabled()) {
 							hint = "~> " + nextPC;
@@ -1189,8 +1190,19 @@ public class VM {
 				case PUSH30:
 				case PUSH31:
 				case PUSH32: {
-					program.step();
 					int nPush = op.val() - PUSH1.val() + 1;
+					if (decoded != null) {
+						DataWord data = decoded.getPushWord(program.getPC());
+						program.setPC(program.getPC() + 1 + nPush);
+
+						if (logger.isDebugEnabled()) {
+							hint = "" + data.toHexString();
+						}
+
+						program.stackPush(data);
+						break;
+					}
+					program.step();
 
 					byte[] data = program.sweep(nPush);
 
@@ -1357,8 +1369,10 @@ public class VM {
 				return;
 			}
 
+			// the choice of interpreter is made once per program, not at every step
+			ProgramPrecompile decoded = config.vmPredecoded() ? program.getProgramPrecompile() : null;
 			while (!program.isStopped()) {
-				this.step(program);
+				this.step(program, decoded);
 			}
 
 		} catch (JVMStackOverFlowException | OutOfTimeException e) {
@@ -1375,6 +1389,8 @@ public class VM {
 			logger
 				.info("\n !!! StackOverflowError: update your java run command with -Xss !!!\n", soe);
 			throw new JVMStackOverFlowException();
+		} finally {
+			program.release();
 		}
 	}
 
@@ -21,7 +21,10 @@ import io.midasprotocol.common.runtime.vm.DataWord;
 import io.midasprotocol.common.runtime.vm.program.listener.ProgramListener;
 import io.midasprotocol.common.runtime.vm.program.listener.ProgramListenerAware;
 
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 
 import static io.midasprotocol.common.utils.ByteUtil.EMPTY_BYTE_ARRAY;
@@ -30,15 +33,51 @@ import static java.lang.Math.ceil;
 import static java.lang.Math.min;
 import static java.lang.String.format;
 
+/**
+ * The memory of a program, in one array grown a chunk at a time.
+ *
+ * <p>The memories of the programs a thread ran are kept for the next ones to take, see
+ * {@link #pooled} and {@link #release}, unless they grew large.
+ */
 public class Memory implements ProgramListenerAware {
 
 	private static final int CHUNK_SIZE = 1024;
 	private static final int WORD_SIZE = 32;
 
-	private List<byte[]> chunks = new LinkedList<>();
+	private static final int POOL_SIZE = 16;
+	private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+	private static final ThreadLocal<Deque<Memory>> POOL = ThreadLocal.withInitial(ArrayDeque::new);
+
+	// zero from internalSize on, capacity may be more than the chunks allocated
+	private byte[] data = EMPTY_BYTE_ARRAY;
+	private int internalSize;
 	private int softSize;
 	private ProgramListener programListener;
 
+	/**
+	 * @return an empty memory, one released on this thread if there is any.
+	 */
+	public static Memory pooled() {
+		Memory memory = POOL.get().pollLast();
+		return memory == null ? new Memory() : memory;
+	}
+
+	/**
+	 * clear the memory and keep it for the next program of this thread. The memory is not to be
+	 * used afterwards.
+	 */
+	public void release() {
+		Deque<Memory> pool = POOL.get();
+		if (data.length > MAX_POOLED_CAPACITY || pool.size() >= POOL_SIZE) {
+			return;
+		}
+		Arrays.fill(data, 0, internalSize, (byte) 0);
+		internalSize = 0;
+		softSize = 0;
+		programListener = null;
+		pool.addLast(this);
+	}
+
 	@Override
 	public void setProgramListener(ProgramListener traceListener) {
 		this.programListener = traceListener;
@@ -50,27 +89,7 @@ public class Memory implements ProgramListenerAware {
 		}
 
 		extend(address, size);
-		byte[] data = new byte[size];
-
-		int chunkIndex = address / CHUNK_SIZE;
-		int chunkOffset = address % CHUNK_SIZE;
-
-		int toGrab = data.length;
-		int start = 0;
-
-		while (toGrab > 0) {
-			int copied = grabMax(chunkIndex, chunkOffset, toGrab, data, start);
-
-			// read next chunk from the start
-			++chunkIndex;
-			chunkOffset = 0;
-
-			// mark remind
-			toGrab -= copied;
-			start += copied;
-		}
-
-		return data;
+		return Arrays.copyOfRange(data, address, address + size);
 	}
 
 	public void write(int address, byte[] data, int dataSize, boolean limited) {
@@ -83,9 +102,6 @@ public class Memory implements ProgramListenerAware {
 			extend(address, dataSize);
 		}
 
-		int chunkIndex = address / CHUNK_SIZE;
-		int chunkOffset = address % CHUNK_SIZE;
-
 		int toCapture = 0;
 		if (limited) {
 			toCapture = (address + dataSize > softSize) ? softSize - address : dataSize;
@@ -93,17 +109,8 @@ public class Memory implements ProgramListenerAware {
 			toCapture = dataSize;
 		}
 
-		int start = 0;
-		while (toCapture > 0) {
-			int captured = captureMax(chunkIndex, chunkOffset, toCapture, data, start);
-
-			// capture next chunk
-			++chunkIndex;
-			chunkOffset = 0;
-
-			// mark remind
-			toCapture -= captured;
-			start += captured;
+		if (toCapture > 0) {
+			System.arraycopy(data, 0, this.data, address, toCapture);
 		}
 
 		if (programListener != null) {
@@ -111,6 +118,25 @@ public class Memory implements ProgramListenerAware {
 		}
 	}
 
+	/**
+	 * write length bytes of src from srcOffset on, zeros past its end, without copying them to
+	 * an array of their own first.
+	 */
+	public void copy(int address, byte[] src, int srcOffset, int length) {
+		if (length > 0) {
+			extend(address, length);
+			int available = src == null || srcOffset >= src.length ? 0
+				: min(length, src.length - srcOffset);
+			if (available > 0) {
+				System.arraycopy(src, srcOffset, data, address, available);
+			}
+			Arrays.fill(data, address + available, address + length, (byte) 0);
+		}
+
+		if (programListener != null) {
+			programListener.onMemoryWrite(address, read(address, length), length);
+		}
+	}
 
 	public void extendAndWrite(int address, int allocSize, byte[] data) {
 		extend(address, allocSize);
@@ -123,7 +149,7 @@ public class Memory implements ProgramListenerAware {
 		}
 
 		final int newSize = Math.addExact(address, size);
-		int toAllocate = newSize - internalSize();
+		int toAllocate = newSize - internalSize;
 		if (toAllocate > 0) {
 			addChunks((int) ceil((double) toAllocate / CHUNK_SIZE));
 		}
@@ -145,13 +171,7 @@ public class Memory implements ProgramListenerAware {
 
 	// just access expecting all data valid
 	public byte readByte(int address) {
-
-		int chunkIndex = address / CHUNK_SIZE;
-		int chunkOffset = address % CHUNK_SIZE;
-
-		byte[] chunk = chunks.get(chunkIndex);
-
-		return chunk[chunkOffset];
+		return data[address];
 	}
 
 	@Override
@@ -192,35 +212,28 @@ public class Memory implements ProgramListenerAware {
 	}
 
 	public int internalSize() {
-		return chunks.size() * CHUNK_SIZE;
+		return internalSize;
 	}
 
+	/**
+	 * @return copies of the chunks allocated.
+	 */
 	public List<byte[]> getChunks() {
-		return new LinkedList<>(chunks);
-	}
-
-	private int captureMax(int chunkIndex, int chunkOffset, int size, byte[] src, int srcPos) {
-
-		byte[] chunk = chunks.get(chunkIndex);
-		int toCapture = min(size, chunk.length - chunkOffset);
-
-		System.arraycopy(src, srcPos, chunk, chunkOffset, toCapture);
-		return toCapture;
-	}
-
-	private int grabMax(int chunkIndex, int chunkOffset, int size, byte[] dest, int destPos) {
-
-		byte[] chunk = chunks.get(chunkIndex);
-		int toGrab = min(size, chunk.length - chunkOffset);
-
-		System.arraycopy(chunk, chunkOffset, dest, destPos, toGrab);
-
-		return toGrab;
+		List<byte[]> chunks = new ArrayList<>(internalSize / CHUNK_SIZE);
+		for (int i = 0; i < internalSize; i += CHUNK_SIZE) {
+			chunks.add(Arrays.copyOfRange(data, i, i + CHUNK_SIZE));
+		}
+		return chunks;
 	}
 
 	private void addChunks(int num) {
-		for (int i = 0; i < num; ++i) {
-			chunks.add(new byte[CHUNK_SIZE]);
+		internalSize = Math.addExact(internalSize, Math.multiplyExact(num, CHUNK_SIZE));
+		if (internalSize > data.length) {
+			// grow by half at least, so that a memory extended a word at a time is not copied
+			// at every chunk
+			int capacity = (int) Math.min(Integer.MAX_VALUE - 8,
+				Math.max(internalSize, data.length + (data.length >> 1)));
+			data = Arrays.copyOf(data, capacity);
 		}
 	}
 }
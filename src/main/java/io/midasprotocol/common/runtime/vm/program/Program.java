@@ -113,8 +113,13 @@ public class Program {
 		this.ops = nullToEmpty(ops);
 
 		traceListener = new ProgramTraceListener(config.vmTrace());
-		this.memory = setupProgramListener(new Memory());
-		this.stack = setupProgramListener(new Stack());
+		this.memory = Memory.pooled();
+		this.stack = Stack.pooled();
+		// only the trace listens to the memory and the stack
+		if (config.vmTrace()) {
+			setupProgramListener(memory);
+			setupProgramListener(stack);
+		}
 		this.contractState = setupProgramListener(new ContractState(programInvoke));
 		this.trace = new ProgramTrace(config, programInvoke);
 		this.nonce = internalTransaction.getNonce();
@@ -284,7 +289,7 @@ public class Program {
 
 	public ProgramPrecompile getProgramPrecompile() {
 		if (programPrecompile == null) {
-			programPrecompile = ProgramPrecompile.compile(ops);
+			programPrecompile = ProgramPrecompile.of(ops);
 		}
 		return programPrecompile;
 	}
@@ -377,6 +382,19 @@ public class Program {
 		return this.stack;
 	}
 
+	/**
+	 * hand the stack and memory over to the next program of this thread, once this one ran.
+	 * What it returned or logged was copied out of them already.
+	 */
+	public void release() {
+		if (stack != null) {
+			stack.release();
+			memory.release();
+			stack = null;
+			memory = null;
+		}
+	}
+
 	public int getPC() {
 		return pc;
 	}
@@ -463,6 +481,13 @@ public class Program {
 		memory.write(addr, value, value.length, false);
 	}
 
+	/**
+	 * write length bytes of src from srcOffset on to memory, zeros past the end of src.
+	 */
+	public void memoryCopy(int addr, byte[] src, int srcOffset, int length) {
+		memory.copy(addr, src, srcOffset, length);
+	}
+
 	public void memoryExpand(DataWord outDataOffs, DataWord outDataSize) {
 		if (!outDataSize.isZero()) {
 			memory.extend(outDataOffs.intValue(), outDataSize.intValue());
@@ -1019,6 +1044,13 @@ public class Program {
 		return invoke.getDataCopy(offset, length);
 	}
 
+	/**
+	 * CALLDATACOPY, straight from the call data to memory.
+	 */
+	public void memorySaveDataCopy(int addr, DataWord offset, DataWord length) {
+		memory.copy(addr, invoke.getData(), offset.intValueSafe(), length.intValueSafe());
+	}
+
 	public DataWord getReturnDataBufferSize() {
 		return new DataWord(getReturnDataBufferSizeI());
 	}
@@ -1027,6 +1059,16 @@ public class Program {
 		return returnDataBuffer == null ? 0 : returnDataBuffer.length;
 	}
 
+	/**
+	 * RETURNDATACOPY, straight from the return data buffer to memory.
+	 */
+	public void memorySaveReturnDataCopy(int addr, DataWord off, DataWord size) {
+		if ((long) off.intValueSafe() + size.intValueSafe() > getReturnDataBufferSizeI()) {
+			throw new ReturnDataCopyIllegalBoundsException(off, size, getReturnDataBufferSizeI());
+		}
+		memory.copy(addr, returnDataBuffer, off.intValueSafe(), size.intValueSafe());
+	}
+
 	public byte[] getReturnDataBufferData(DataWord off, DataWord size) {
 		if ((long) off.intValueSafe() + size.intValueSafe() > getReturnDataBufferSizeI()) {
 			return null;
@@ -17,12 +17,16 @@
  */
 package io.midasprotocol.common.runtime.vm.program;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import io.midasprotocol.common.runtime.vm.DataWord;
 import io.midasprotocol.common.runtime.vm.OpCode;
+import io.midasprotocol.core.db.common.WrappedByteArray;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.BitSet;
 
 
 @Slf4j(topic = "VM")
@@ -31,24 +35,95 @@ import java.util.Set;
  */
 public class ProgramPrecompile {
 
-	private Set<Integer> jumpdest = new HashSet<>();
+	// bytes the kept analyses take, roughly, some hundreds of contracts
+	private static final long MAX_WEIGHT = 64L * 1024 * 1024;
+
+	/*
+	 * Analyses of the code run lately, shared by all programs and threads. The analysis only
+	 * depends on the code, which is the key, so an entry never goes stale when contracts change
+	 * or blocks are switched; code no longer run is evicted.
+	 */
+	private static final Cache<WrappedByteArray, ProgramPrecompile> CACHE = CacheBuilder.newBuilder()
+		.maximumWeight(MAX_WEIGHT)
+		.weigher((WrappedByteArray code, ProgramPrecompile precompile) -> precompile.weight)
+		.recordStats().build();
+
+	private final BitSet jumpdest = new BitSet();
+	// the word each PUSH pushes, by the pc of the PUSH, zero padded past the end of the code
+	private final byte[][] pushWords;
+	// the destination of each JUMP and JUMPI right after a PUSH of a JUMPDEST, -1 elsewhere
+	private final int[] jumpTargets;
+	// a reference and an int per byte of code, and an array per PUSH
+	private int weight;
+
+	private ProgramPrecompile(int length) {
+		pushWords = new byte[length][];
+		jumpTargets = new int[length];
+		Arrays.fill(jumpTargets, -1);
+		weight = length * 13;
+	}
+
+	/**
+	 * @return the analysis of ops, from the cache if the same code was analysed before.
+	 */
+	public static ProgramPrecompile of(byte[] ops) {
+		ProgramPrecompile ret = CACHE.getIfPresent(WrappedByteArray.of(ops));
+		if (ret == null) {
+			ret = compile(ops);
+			CACHE.put(WrappedByteArray.copyOf(ops), ret);
+		}
+		return ret;
+	}
+
+	public static CacheStats stats() {
+		return CACHE.stats();
+	}
+
+	public static void invalidateAll() {
+		CACHE.invalidateAll();
+	}
 
 	public static ProgramPrecompile compile(byte[] ops) {
-		ProgramPrecompile ret = new ProgramPrecompile();
+		ProgramPrecompile ret = new ProgramPrecompile(ops.length);
+		int lastPush = -1;
 		for (int i = 0; i < ops.length; ++i) {
 
 			OpCode op = OpCode.code(ops[i]);
 			if (op == null) {
+				lastPush = -1;
 				continue;
 			}
 
 			if (op.equals(OpCode.JUMPDEST)) {
 				logger.debug("JUMPDEST:" + i);
-				ret.jumpdest.add(i);
+				ret.jumpdest.set(i);
+			}
+
+			// only the PUSH right before can have put the destination on the stack, as a jump
+			// never lands on a JUMP or JUMPI
+			if ((op.equals(OpCode.JUMP) || op.equals(OpCode.JUMPI)) && lastPush >= 0) {
+				DataWord pos = new DataWord(ret.pushWords[lastPush]);
+				if (pos.bytesOccupied() <= 4) {
+					ret.jumpTargets[i] = pos.intValue();
+				}
 			}
+			lastPush = -1;
 
 			if (op.asInt() >= OpCode.PUSH1.asInt() && op.asInt() <= OpCode.PUSH32.asInt()) {
-				i += op.asInt() - OpCode.PUSH1.asInt() + 1;
+				int n = op.asInt() - OpCode.PUSH1.asInt() + 1;
+				byte[] word = new byte[32];
+				System.arraycopy(ops, i + 1, word, 32 - n, Math.max(0, Math.min(n, ops.length - i - 1)));
+				ret.pushWords[i] = word;
+				ret.weight += 48;
+				lastPush = i;
+				i += n;
+			}
+		}
+
+		// a destination known ahead is one that is valid, the others are left to fail at run time
+		for (int i = 0; i < ops.length; ++i) {
+			if (ret.jumpTargets[i] >= 0 && !ret.hasJumpDest(ret.jumpTargets[i])) {
+				ret.jumpTargets[i] = -1;
 			}
 		}
 		return ret;
@@ -84,6 +159,21 @@ public class ProgramPrecompile {
 	}
 
 	public boolean hasJumpDest(int pc) {
-		return jumpdest.contains(pc);
+		return pc >= 0 && jumpdest.get(pc);
+	}
+
+	/**
+	 * @return a new word holding what the PUSH at pc pushes.
+	 */
+	public DataWord getPushWord(int pc) {
+		return new DataWord(pushWords[pc].clone());
+	}
+
+	/**
+	 * @return the valid destination of the JUMP or JUMPI at pc, or -1 if it is only known at
+	 * run time.
+	 */
+	public int getJumpTarget(int pc) {
+		return jumpTargets[pc];
 	}
 }
@@ -21,33 +21,101 @@ import io.midasprotocol.common.runtime.vm.DataWord;
 import io.midasprotocol.common.runtime.vm.program.listener.ProgramListener;
 import io.midasprotocol.common.runtime.vm.program.listener.ProgramListenerAware;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EmptyStackException;
 import java.util.Objects;
 
-public class Stack extends java.util.Stack<DataWord> implements ProgramListenerAware {
+/**
+ * The operand stack of a program, its 1024 slots allocated up front and not synchronized, as a
+ * program only runs on one thread.
+ *
+ * <p>The stacks of the programs a thread ran are kept for the next ones to take, see
+ * {@link #pooled} and {@link #release}.
+ */
+public class Stack implements ProgramListenerAware {
 
-	private static final long serialVersionUID = 1;
+	public static final int MAX_SIZE = 1024;
 
-	private transient ProgramListener programListener;
+	// stacks kept per thread, one for each level of calls that is usually reached
+	private static final int POOL_SIZE = 16;
+	private static final ThreadLocal<Deque<Stack>> POOL = ThreadLocal.withInitial(ArrayDeque::new);
+
+	private final DataWord[] items = new DataWord[MAX_SIZE];
+	private int size;
+	private ProgramListener programListener;
+
+	/**
+	 * @return an empty stack, one released on this thread if there is any.
+	 */
+	public static Stack pooled() {
+		Stack stack = POOL.get().pollLast();
+		return stack == null ? new Stack() : stack;
+	}
+
+	/**
+	 * empty the stack and keep it for the next program of this thread. The stack is not to be
+	 * used afterwards.
+	 */
+	public void release() {
+		Arrays.fill(items, 0, size, null);
+		size = 0;
+		programListener = null;
+		Deque<Stack> pool = POOL.get();
+		if (pool.size() < POOL_SIZE) {
+			pool.addLast(this);
+		}
+	}
 
 	@Override
 	public void setProgramListener(ProgramListener listener) {
 		this.programListener = listener;
 	}
 
-	@Override
-	public synchronized DataWord pop() {
+	public DataWord pop() {
 		if (programListener != null) {
 			programListener.onStackPop();
 		}
-		return super.pop();
+		if (size == 0) {
+			throw new EmptyStackException();
+		}
+		DataWord item = items[--size];
+		items[size] = null;
+		return item;
 	}
 
-	@Override
 	public DataWord push(DataWord item) {
 		if (programListener != null) {
 			programListener.onStackPush(item);
 		}
-		return super.push(item);
+		items[size++] = item;
+		return item;
+	}
+
+	public DataWord peek() {
+		if (size == 0) {
+			throw new EmptyStackException();
+		}
+		return items[size - 1];
+	}
+
+	/**
+	 * @param index from the bottom of the stack.
+	 */
+	public DataWord get(int index) {
+		if (index >= size) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		return items[index];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
 	}
 
 	public void swap(int from, int to) {
@@ -55,8 +123,9 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
 			if (programListener != null) {
 				programListener.onStackSwap(from, to);
 			}
-			DataWord tmp = get(from);
-			set(from, set(to, tmp));
+			DataWord tmp = items[from];
+			items[from] = items[to];
+			items[to] = tmp;
 		}
 	}
 
@@ -64,6 +133,11 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
 		return from >= 0 && from < size();
 	}
 
+	@Override
+	public String toString() {
+		return Arrays.toString(Arrays.copyOf(items, size));
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (o == null) {
@@ -75,16 +149,15 @@ public class Stack extends java.util.Stack<DataWord> implements ProgramListenerA
 		if (o.getClass() != this.getClass()) {
 			return false;
 		}
-		if (!super.equals(o)) {
-			return false;
-		}
 		Stack dataWords = (Stack) o;
-		return Objects.equals(programListener, dataWords.programListener);
+		return size == dataWords.size
+			&& Arrays.equals(Arrays.copyOf(items, size), Arrays.copyOf(dataWords.items, size))
+			&& Objects.equals(programListener, dataWords.programListener);
 	}
 
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(super.hashCode(), programListener);
+		return Objects.hash(Arrays.hashCode(Arrays.copyOf(items, size)), programListener);
 	}
 }
@@ -47,6 +47,11 @@ public interface ProgramInvoke {
 
 	byte[] getDataCopy(DataWord offsetData, DataWord lengthData);
 
+	/**
+	 * @return the call data itself, not to be modified, or null if there is none.
+	 */
+	byte[] getData();
+
 	DataWord getPrevHash();
 
 	DataWord getCoinbase();
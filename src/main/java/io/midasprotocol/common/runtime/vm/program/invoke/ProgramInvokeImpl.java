@@ -223,6 +223,10 @@ public class ProgramInvokeImpl implements ProgramInvoke {
 	}
 
 
+	public byte[] getData() {
+		return msgData;
+	}
+
 	/*     PREVHASH op    */
 	public DataWord getPrevHash() {
 		return prevHash;
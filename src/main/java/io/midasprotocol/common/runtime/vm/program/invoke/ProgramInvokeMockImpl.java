@@ -178,6 +178,11 @@ public class ProgramInvokeMockImpl implements ProgramInvoke {
 		return data;
 	}
 
+	@Override
+	public byte[] getData() {
+		return msgData;
+	}
+
 	@Override
 	public DataWord getPrevHash() {
 		byte[] prevHash = Hex
@@ -0,0 +1,129 @@
+package io.midasprotocol.common.storage;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Guards a database handle that is rarely closed or reopened against the reads and writes
+ * running on it, without a shared counter on the hot path.
+ *
+ * <p>Callers of {@link #enter()} count themselves in a stripe picked by their thread id, each
+ * on its own cache line, so concurrent reads do not bounce one lock word between cores. A
+ * thread calling {@link #block()} turns new callers away and waits for the stripes to drain.
+ * Both entering and blocking are reentrant, and the blocking thread may itself enter: a thread
+ * already inside goes on without counting itself again, so it never waits for a blocker that
+ * waits for it.
+ */
+public final class AccessGuard {
+
+	// longs per cache line pair, keeps two stripes from sharing a line
+	private static final int PADDING = 16;
+	private static final int STRIPES = stripes();
+
+	private final AtomicLongArray active = new AtomicLongArray(STRIPES * PADDING);
+	// how many times each thread entered without exiting yet
+	private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+	private volatile Thread owner;
+	// only touched by the owner
+	private int holds;
+
+	private static int stripes() {
+		int n = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1;
+		return Math.min(Math.max(n, 2), 64);
+	}
+
+	private static int stripe() {
+		return ((int) Thread.currentThread().getId() & (STRIPES - 1)) * PADDING;
+	}
+
+	public void enter() {
+		int[] entered = depth.get();
+		if (entered[0] > 0) {
+			++entered[0];
+			return;
+		}
+
+		int stripe = stripe();
+		for (; ; ) {
+			active.incrementAndGet(stripe);
+			Thread blocker = owner;
+			if (blocker == null || blocker == Thread.currentThread()) {
+				entered[0] = 1;
+				return;
+			}
+			active.decrementAndGet(stripe);
+			awaitUnblocked();
+		}
+	}
+
+	public void exit() {
+		int[] entered = depth.get();
+		if (--entered[0] == 0) {
+			active.decrementAndGet(stripe());
+		}
+	}
+
+	/**
+	 * turn away new callers of {@link #enter()} and wait for the running ones to exit.
+	 */
+	public void block() {
+		Thread current = Thread.currentThread();
+		if (owner == current) {
+			++holds;
+			return;
+		}
+
+		boolean interrupted = false;
+		synchronized (this) {
+			while (owner != null) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			owner = current;
+			holds = 1;
+		}
+
+		while (activeCount() != 0) {
+			Thread.yield();
+		}
+		if (interrupted) {
+			current.interrupt();
+		}
+	}
+
+	public void unblock() {
+		if (owner != Thread.currentThread()) {
+			throw new IllegalMonitorStateException();
+		}
+		if (--holds == 0) {
+			synchronized (this) {
+				owner = null;
+				notifyAll();
+			}
+		}
+	}
+
+	private synchronized void awaitUnblocked() {
+		boolean interrupted = false;
+		while (owner != null) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private long activeCount() {
+		long count = 0;
+		for (int i = 0; i < STRIPES; ++i) {
+			count += active.get(i * PADDING);
+		}
+		return count;
+	}
+}
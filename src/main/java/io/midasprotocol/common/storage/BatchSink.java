@@ -0,0 +1,9 @@
+package io.midasprotocol.common.storage;
+
+/**
+ * Receives rows of one write batch, a null value deletes the key.
+ */
+public interface BatchSink<K, V> {
+
+	void put(K key, V value);
+}
@@ -19,6 +19,7 @@
 package io.midasprotocol.common.storage;
 
 import java.util.Map;
+import java.util.function.Consumer;
 
 
 public interface BatchSourceInter<K, V> extends SourceInter<K, V> {
@@ -27,4 +28,12 @@ public interface BatchSourceInter<K, V> extends SourceInter<K, V> {
 	void updateByBatch(Map<K, V> rows);
 
 	void updateByBatch(Map<K, V> rows, WriteOptionsWrapper writeOptions);
+
+	/**
+	 * stream rows straight into one engine write batch. rows are applied in order, so a later
+	 * row overrides an earlier one with the same key.
+	 *
+	 * @return the number of key and value bytes written.
+	 */
+	long updateByBatch(Consumer<BatchSink<K, V>> rows, WriteOptionsWrapper writeOptions);
 }
@@ -17,6 +17,7 @@
  */
 package io.midasprotocol.common.storage;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -45,4 +46,11 @@ public interface DbSourceInter<V> extends BatchSourceInter<byte[], V>,
 
 	long getTotal() throws RuntimeException;
 
+	/**
+	 * read many keys at once, cheaper than one getData per key.
+	 *
+	 * @return the values in the order of keys, null for a missing key.
+	 */
+	List<V> getAll(List<byte[]> keys);
+
 }
@@ -28,6 +28,12 @@ public class RocksDbSettings {
 	private int targetFileSizeMultiplier;
 	@Getter
 	private boolean enableStatistics;
+	@Getter
+	private boolean columnFamilies;
+	@Getter
+	private long blockCacheSize;
+	@Getter
+	private long rateLimit;
 
 	private RocksDbSettings() {
 
@@ -38,7 +44,8 @@ public class RocksDbSettings {
 		return defaultSettings.withLevelNumber(7).withBlockSize(64).withCompactThreads(32)
 			.withTargetFileSizeBase(256).withMaxBytesForLevelMultiplier(10)
 			.withTargetFileSizeMultiplier(1)
-			.withMaxBytesForLevelBase(256).withMaxOpenFiles(-1).withEnableStatistics(false);
+			.withMaxBytesForLevelBase(256).withMaxOpenFiles(-1).withEnableStatistics(false)
+			.withColumnFamilies(false).withBlockCacheSize(32).withRateLimit(0);
 	}
 
 	public static RocksDbSettings getSettings() {
@@ -63,7 +70,10 @@ public class RocksDbSettings {
 			.withMaxBytesForLevelMultiplier(maxBytesForLevelMultiplier)
 			.withLevel0FileNumCompactionTrigger(level0FileNumCompactionTrigger)
 			.withTargetFileSizeBase(targetFileSizeBase)
-			.withTargetFileSizeMultiplier(targetFileSizeMultiplier);
+			.withTargetFileSizeMultiplier(targetFileSizeMultiplier)
+			.withColumnFamilies(false)
+			.withBlockCacheSize(32)
+			.withRateLimit(0);
 		return settings;
 	}
 
@@ -71,11 +81,13 @@ public class RocksDbSettings {
 		logger.info(String.format(
 			"level number: %d, CompactThreads: %d, Blocksize: %d, maxBytesForLevelBase: %d,"
 				+ " withMaxBytesForLevelMultiplier: %f, level0FileNumCompactionTrigger: %d, "
-				+ "withTargetFileSizeBase: %d, withTargetFileSizeMultiplier: %d",
+				+ "withTargetFileSizeBase: %d, withTargetFileSizeMultiplier: %d, columnFamilies: %b, "
+				+ "blockCacheSize: %d, rateLimit: %d",
 			settings.getLevelNumber(),
 			settings.getCompactThreads(), settings.getBlockSize(), settings.getMaxBytesForLevelBase(),
 			settings.getMaxBytesForLevelMultiplier(), settings.getLevel0FileNumCompactionTrigger(),
-			settings.getTargetFileSizeBase(), settings.getTargetFileSizeMultiplier()));
+			settings.getTargetFileSizeBase(), settings.getTargetFileSizeMultiplier(),
+			settings.isColumnFamilies(), settings.getBlockCacheSize(), settings.getRateLimit()));
 	}
 
 	public RocksDbSettings withMaxOpenFiles(int maxOpenFiles) {
@@ -127,4 +139,22 @@ public class RocksDbSettings {
 		this.targetFileSizeMultiplier = targetFileSizeMultiplier;
 		return this;
 	}
+
+	/**
+	 * keep all stores as column families of one database instead of one database per store.
+	 */
+	public RocksDbSettings withColumnFamilies(boolean columnFamilies) {
+		this.columnFamilies = columnFamilies;
+		return this;
+	}
+
+	public RocksDbSettings withBlockCacheSize(long blockCacheSize) {
+		this.blockCacheSize = blockCacheSize * 1024 * 1024;
+		return this;
+	}
+
+	public RocksDbSettings withRateLimit(long rateLimit) {
+		this.rateLimit = rateLimit * 1024 * 1024;
+		return this;
+	}
 }
@@ -16,6 +16,9 @@
 package io.midasprotocol.common.storage.leveldb;
 
 import com.google.common.collect.Sets;
+import com.google.common.primitives.UnsignedBytes;
+import io.midasprotocol.common.storage.AccessGuard;
+import io.midasprotocol.common.storage.BatchSink;
 import io.midasprotocol.common.storage.DbSourceInter;
 import io.midasprotocol.common.storage.WriteOptionsWrapper;
 import io.midasprotocol.common.utils.FileUtil;
@@ -33,8 +36,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.Map.Entry;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -49,7 +51,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 	DB database;
 	boolean alive;
 	private String parentName;
-	private ReadWriteLock resetDbLock = new ReentrantReadWriteLock();
+	private AccessGuard resetDbGuard = new AccessGuard();
 
 	/**
 	 * constructor.
@@ -92,7 +94,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 			logger.error("database engine do not match");
 			throw new RuntimeException("Failed to initialize database");
 		}
-		resetDbLock.writeLock().lock();
+		resetDbGuard.block();
 		try {
 			logger.debug("~> LevelDbDataSourceImpl.initDB(): " + dataBaseName);
 
@@ -113,7 +115,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 				throw new RuntimeException("Can't initialize database", ioe);
 			}
 		} finally {
-			resetDbLock.writeLock().unlock();
+			resetDbGuard.unblock();
 		}
 	}
 
@@ -162,12 +164,12 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 	}
 
 	public void reOpen() {
-		resetDbLock.writeLock().lock();
+		resetDbGuard.block();
 		try {
 			closeDB();
 			initDB();
 		} finally {
-			resetDbLock.writeLock().unlock();
+			resetDbGuard.unblock();
 		}
 	}
 
@@ -180,7 +182,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 	 * destroy database.
 	 */
 	public void destroyDb(File fileLocation) {
-		resetDbLock.writeLock().lock();
+		resetDbGuard.block();
 		try {
 			logger.debug("Destroying existing database: " + fileLocation);
 			Options options = new Options();
@@ -190,7 +192,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 				logger.error(e.getMessage(), e);
 			}
 		} finally {
-			resetDbLock.writeLock().unlock();
+			resetDbGuard.unblock();
 		}
 	}
 
@@ -206,61 +208,95 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 
 	@Override
 	public byte[] getData(byte[] key) {
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try {
 			return database.get(key);
 		} catch (DBException e) {
 			logger.debug(e.getMessage(), e);
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 		return null;
 	}
 
+	/**
+	 * seek one iterator through the keys in ascending order, so the reads share a snapshot
+	 * and walk the table files forward.
+	 */
+	@Override
+	public List<byte[]> getAll(List<byte[]> keys) {
+		Integer[] order = new Integer[keys.size()];
+		for (int i = 0; i < order.length; ++i) {
+			order[i] = i;
+		}
+		Comparator<byte[]> comparator = UnsignedBytes.lexicographicalComparator();
+		Arrays.sort(order, (a, b) -> comparator.compare(keys.get(a), keys.get(b)));
+
+		byte[][] values = new byte[order.length][];
+		resetDbGuard.enter();
+		try (DBIterator iterator = database.iterator()) {
+			for (int i : order) {
+				byte[] key = keys.get(i);
+				iterator.seek(key);
+				if (iterator.hasNext()) {
+					Entry<byte[], byte[]> entry = iterator.peekNext();
+					if (Arrays.equals(entry.getKey(), key)) {
+						values[i] = entry.getValue();
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		} finally {
+			resetDbGuard.exit();
+		}
+		return Arrays.asList(values);
+	}
+
 	@Override
 	public void putData(byte[] key, byte[] value) {
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try {
 			database.put(key, value);
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
 	@Override
 	public void putData(byte[] key, byte[] value, WriteOptionsWrapper options) {
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try {
 			database.put(key, value, options.level);
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
 	@Override
 	public void deleteData(byte[] key) {
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try {
 			database.delete(key);
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
 	@Override
 	public void deleteData(byte[] key, WriteOptionsWrapper options) {
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try {
 			database.delete(key, options.level);
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
 	@Deprecated
 	@Override
 	public Set<byte[]> allKeys() {
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try (DBIterator iterator = database.iterator()) {
 			Set<byte[]> result = Sets.newHashSet();
 			for (iterator.seekToFirst(); iterator.hasNext(); iterator.next()) {
@@ -270,14 +306,14 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
 	@Deprecated
 	@Override
 	public Set<byte[]> allValues() {
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try (DBIterator iterator = database.iterator()) {
 			Set<byte[]> result = Sets.newHashSet();
 			for (iterator.seekToFirst(); iterator.hasNext(); iterator.next()) {
@@ -287,7 +323,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
@@ -295,7 +331,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 		if (limit <= 0) {
 			return Sets.newHashSet();
 		}
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try (DBIterator iterator = database.iterator()) {
 			Set<byte[]> result = Sets.newHashSet();
 			long i = 0;
@@ -311,7 +347,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
@@ -319,7 +355,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 		if (limit <= 0) {
 			return Sets.newHashSet();
 		}
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try (DBIterator iterator = database.iterator()) {
 			Set<byte[]> result = Sets.newHashSet();
 			long i = 0;
@@ -330,7 +366,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
@@ -338,7 +374,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 		if (limit <= 0) {
 			return Collections.emptyMap();
 		}
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try (DBIterator iterator = database.iterator()) {
 			Map<byte[], byte[]> result = new HashMap<>();
 			long i = 0;
@@ -350,7 +386,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
@@ -358,7 +394,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 		if (limit <= 0) {
 			return Sets.newHashSet();
 		}
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try (DBIterator iterator = database.iterator()) {
 			Set<byte[]> result = Sets.newHashSet();
 			long i = 0;
@@ -374,13 +410,13 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
 	@Override
 	public long getTotal() throws RuntimeException {
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try (DBIterator iterator = database.iterator()) {
 			long total = 0;
 			for (iterator.seekToFirst(); iterator.hasNext(); iterator.next()) {
@@ -390,7 +426,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
@@ -422,7 +458,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 
 	@Override
 	public void updateByBatch(Map<byte[], byte[]> rows) {
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try {
 			updateByBatchInner(rows);
 		} catch (Exception e) {
@@ -432,13 +468,13 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 				throw new RuntimeException(e);
 			}
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
 	@Override
 	public void updateByBatch(Map<byte[], byte[]> rows, WriteOptionsWrapper options) {
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try {
 			updateByBatchInner(rows, options.level);
 		} catch (Exception e) {
@@ -448,7 +484,42 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 				throw new RuntimeException(e);
 			}
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
+		}
+	}
+
+	private long updateByBatchInner(Consumer<BatchSink<byte[], byte[]>> rows, WriteOptions options)
+		throws Exception {
+		try (WriteBatch batch = database.createWriteBatch()) {
+			long[] bytes = new long[1];
+			rows.accept((key, value) -> {
+				if (value == null) {
+					batch.delete(key);
+					bytes[0] += key.length;
+				} else {
+					batch.put(key, value);
+					bytes[0] += key.length + value.length;
+				}
+			});
+			database.write(batch, options);
+			return bytes[0];
+		}
+	}
+
+	@Override
+	public long updateByBatch(Consumer<BatchSink<byte[], byte[]>> rows,
+		WriteOptionsWrapper options) {
+		resetDbGuard.enter();
+		try {
+			return updateByBatchInner(rows, options.level);
+		} catch (Exception e) {
+			try {
+				return updateByBatchInner(rows, options.level);
+			} catch (Exception e1) {
+				throw new RuntimeException(e);
+			}
+		} finally {
+			resetDbGuard.exit();
 		}
 	}
 
@@ -459,7 +530,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 
 	@Override
 	public void closeDB() {
-		resetDbLock.writeLock().lock();
+		resetDbGuard.block();
 		try {
 			if (!isAlive()) {
 				return;
@@ -469,7 +540,7 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
 		} catch (IOException e) {
 			logger.error("Failed to find the dbStore file on the closeDB: {} ", dataBaseName);
 		} finally {
-			resetDbLock.writeLock().unlock();
+			resetDbGuard.unblock();
 		}
 	}
 
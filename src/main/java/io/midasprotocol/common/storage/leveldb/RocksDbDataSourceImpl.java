@@ -1,12 +1,15 @@
 package io.midasprotocol.common.storage.leveldb;
 
 import com.google.common.collect.Sets;
+import io.midasprotocol.common.storage.AccessGuard;
+import io.midasprotocol.common.storage.BatchSink;
 import io.midasprotocol.common.storage.DbSourceInter;
 import io.midasprotocol.common.storage.RocksDbSettings;
 import io.midasprotocol.common.storage.WriteOptionsWrapper;
 import io.midasprotocol.common.utils.FileUtil;
 import io.midasprotocol.common.utils.PropUtil;
 import io.midasprotocol.core.db.common.iterator.RockStoreIterator;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.rocksdb.*;
@@ -17,8 +20,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 @Slf4j
 @NoArgsConstructor
@@ -30,7 +32,11 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 	private RocksDB database;
 	private boolean alive;
 	private String parentName;
-	private ReadWriteLock resetDbLock = new ReentrantReadWriteLock();
+	private AccessGuard resetDbGuard = new AccessGuard();
+	// the default column family of a database of its own, or the store's one of a shared database
+	private ColumnFamilyHandle handle;
+	@Getter
+	private SharedRocksDb shared;
 
 	public RocksDbDataSourceImpl(String parentName, String name) {
 		this.dataBaseName = name;
@@ -51,21 +57,38 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 
 	@Override
 	public void closeDB() {
-		resetDbLock.writeLock().lock();
+		resetDbGuard.block();
 		try {
 			if (!isAlive()) {
 				return;
 			}
-			database.close();
+			if (shared != null) {
+				SharedRocksDb.release(shared);
+				shared = null;
+			} else {
+				database.close();
+			}
 			alive = false;
 		} catch (Exception e) {
 		} finally {
-			resetDbLock.writeLock().unlock();
+			resetDbGuard.unblock();
 		}
 	}
 
 	@Override
 	public void resetDb() {
+		if (shared != null) {
+			resetDbGuard.block();
+			try {
+				handle = shared.resetColumnFamily(dataBaseName);
+			} catch (RocksDBException e) {
+				throw new RuntimeException("Failed to reset database", e);
+			} finally {
+				resetDbGuard.unblock();
+			}
+			return;
+		}
+
 		closeDB();
 		FileUtil.recursiveDelete(getDbPath().toString());
 		initDB();
@@ -83,15 +106,15 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 		if (quitIfNotAlive()) {
 			return null;
 		}
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		Set<byte[]> result = Sets.newHashSet();
-		try (final RocksIterator iter = database.newIterator()) {
+		try (final RocksIterator iter = database.newIterator(handle)) {
 			for (iter.seekToFirst(); iter.isValid(); iter.next()) {
 				result.add(iter.key());
 			}
 			return result;
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
@@ -105,15 +128,15 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 		if (quitIfNotAlive()) {
 			return 0;
 		}
-		resetDbLock.readLock().lock();
-		try (RocksIterator iterator = database.newIterator()) {
+		resetDbGuard.enter();
+		try (RocksIterator iterator = database.newIterator(handle)) {
 			long total = 0;
 			for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
 				total++;
 			}
 			return total;
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
@@ -127,7 +150,8 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 	}
 
 	public boolean checkOrInitEngine() {
-		String dir = getDbPath().toString();
+		String dir = RocksDbSettings.getSettings().isColumnFamilies()
+			? SharedRocksDb.getPath(parentName).toString() : getDbPath().toString();
 		String enginePath = dir + File.separator + "engine.properties";
 
 		if (FileUtil.createDirIfNotExists(dir)) {
@@ -158,7 +182,7 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 	}
 
 	public void initDB(RocksDbSettings settings) {
-		resetDbLock.writeLock().lock();
+		resetDbGuard.block();
 		try {
 			if (isAlive()) {
 				return;
@@ -167,6 +191,11 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 				throw new NullPointerException("no name set to the dbStore");
 			}
 
+			if (settings.isColumnFamilies()) {
+				initColumnFamily(settings);
+				return;
+			}
+
 			try (Options options = new Options()) {
 
 				// most of these options are suggested by https://github.com/facebook/rocksdb/wiki/Set-Up-Options
@@ -213,6 +242,7 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 
 					try {
 						database = RocksDB.open(options, dbPath.toString());
+						handle = database.getDefaultColumnFamily();
 					} catch (RocksDBException e) {
 						logger.error(e.getMessage(), e);
 						throw new RuntimeException("Failed to initialize database", e);
@@ -228,22 +258,38 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 				logger.debug("<~ RocksDbDataSource.initDB(): " + dataBaseName);
 			}
 		} finally {
-			resetDbLock.writeLock().unlock();
+			resetDbGuard.unblock();
 		}
 	}
 
+	private void initColumnFamily(RocksDbSettings settings) {
+		readOpts = new ReadOptions().setPrefixSameAsStart(true).setVerifyChecksums(false);
+		shared = SharedRocksDb.acquire(parentName, settings);
+		try {
+			handle = shared.getColumnFamily(dataBaseName);
+		} catch (RocksDBException e) {
+			SharedRocksDb.release(shared);
+			shared = null;
+			logger.error(e.getMessage(), e);
+			throw new RuntimeException("Failed to initialize database", e);
+		}
+		database = shared.getDatabase();
+		alive = true;
+		logger.debug("<~ RocksDbDataSource.initColumnFamily(): " + dataBaseName);
+	}
+
 	@Override
 	public void putData(byte[] key, byte[] value) {
 		if (quitIfNotAlive()) {
 			return;
 		}
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try {
-			database.put(key, value);
+			database.put(handle, key, value);
 		} catch (RocksDBException e) {
 			logger.error("RocksDBException:{}", e);
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
@@ -252,13 +298,13 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 		if (quitIfNotAlive()) {
 			return;
 		}
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try {
-			database.put(optionsWrapper.rocks, key, value);
+			database.put(handle, optionsWrapper.rocks, key, value);
 		} catch (RocksDBException e) {
 			logger.error("RocksDBException:{}", e);
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
@@ -267,29 +313,51 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 		if (quitIfNotAlive()) {
 			return null;
 		}
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try {
-			return database.get(key);
+			return database.get(handle, key);
 		} catch (RocksDBException e) {
 			logger.error("RocksDBException: {}", e);
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 		return null;
 	}
 
+	@Override
+	public List<byte[]> getAll(List<byte[]> keys) {
+		List<byte[]> result = new ArrayList<>(Collections.nCopies(keys.size(), null));
+		if (quitIfNotAlive() || keys.isEmpty()) {
+			return result;
+		}
+		resetDbGuard.enter();
+		try {
+			// keyed by the very arrays passed in
+			Map<byte[], byte[]> values = database.multiGet(readOpts,
+				Collections.nCopies(keys.size(), handle), keys);
+			for (int i = 0; i < keys.size(); ++i) {
+				result.set(i, values.get(keys.get(i)));
+			}
+		} catch (RocksDBException e) {
+			logger.error("RocksDBException: {}", e);
+		} finally {
+			resetDbGuard.exit();
+		}
+		return result;
+	}
+
 	@Override
 	public void deleteData(byte[] key) {
 		if (quitIfNotAlive()) {
 			return;
 		}
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try {
-			database.delete(key);
+			database.delete(handle, key);
 		} catch (RocksDBException e) {
 			logger.error("RocksDBException:{}", e);
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
@@ -298,13 +366,13 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 		if (quitIfNotAlive()) {
 			return;
 		}
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try {
-			database.delete(optionsWrapper.rocks, key);
+			database.delete(handle, optionsWrapper.rocks, key);
 		} catch (RocksDBException e) {
 			logger.error("RocksDBException:{}", e);
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
@@ -315,7 +383,7 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 
 	@Override
 	public io.midasprotocol.core.db.common.iterator.DBIterator iterator() {
-		return new RockStoreIterator(database.newIterator());
+		return new RockStoreIterator(database.newIterator(handle));
 	}
 
 	private void updateByBatchInner(Map<byte[], byte[]> rows) throws Exception {
@@ -325,9 +393,9 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 		try (WriteBatch batch = new WriteBatch()) {
 			for (Map.Entry<byte[], byte[]> entry : rows.entrySet()) {
 				if (entry.getValue() == null) {
-					batch.delete(entry.getKey());
+					batch.delete(handle, entry.getKey());
 				} else {
-					batch.put(entry.getKey(), entry.getValue());
+					batch.put(handle, entry.getKey(), entry.getValue());
 				}
 			}
 			database.write(new WriteOptions(), batch);
@@ -342,9 +410,9 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 		try (WriteBatch batch = new WriteBatch()) {
 			for (Map.Entry<byte[], byte[]> entry : rows.entrySet()) {
 				if (entry.getValue() == null) {
-					batch.delete(entry.getKey());
+					batch.delete(handle, entry.getKey());
 				} else {
-					batch.put(entry.getKey(), entry.getValue());
+					batch.put(handle, entry.getKey(), entry.getValue());
 				}
 			}
 			database.write(new WriteOptions(), batch);
@@ -356,7 +424,7 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 		if (quitIfNotAlive()) {
 			return;
 		}
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try {
 			updateByBatchInner(rows);
 		} catch (Exception e) {
@@ -366,7 +434,7 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 				throw new RuntimeException(e);
 			}
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
@@ -375,7 +443,7 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 		if (quitIfNotAlive()) {
 			return;
 		}
-		resetDbLock.readLock().lock();
+		resetDbGuard.enter();
 		try {
 			updateByBatchInner(rows, optionsWrapper.rocks);
 		} catch (Exception e) {
@@ -385,10 +453,70 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 				throw new RuntimeException(e);
 			}
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
+	private long updateByBatchInner(Consumer<BatchSink<byte[], byte[]>> rows, WriteOptions options)
+		throws Exception {
+		try (WriteBatch batch = new WriteBatch()) {
+			long[] bytes = new long[1];
+			rows.accept((key, value) -> {
+				try {
+					if (value == null) {
+						batch.delete(handle, key);
+						bytes[0] += key.length;
+					} else {
+						batch.put(handle, key, value);
+						bytes[0] += key.length + value.length;
+					}
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			});
+			database.write(options, batch);
+			return bytes[0];
+		}
+	}
+
+	@Override
+	public long updateByBatch(Consumer<BatchSink<byte[], byte[]>> rows,
+		WriteOptionsWrapper optionsWrapper) {
+		if (quitIfNotAlive()) {
+			return 0;
+		}
+		resetDbGuard.enter();
+		try {
+			return updateByBatchInner(rows, optionsWrapper.rocks);
+		} catch (Exception e) {
+			try {
+				return updateByBatchInner(rows, optionsWrapper.rocks);
+			} catch (Exception e1) {
+				throw new RuntimeException(e);
+			}
+		} finally {
+			resetDbGuard.exit();
+		}
+	}
+
+	/**
+	 * a sink staging rows of this store into batch, which may also carry rows of the other
+	 * column families of a shared database.
+	 */
+	public BatchSink<byte[], byte[]> stage(WriteBatch batch) {
+		return (key, value) -> {
+			try {
+				if (value == null) {
+					batch.delete(handle, key);
+				} else {
+					batch.put(handle, key, value);
+				}
+			} catch (RocksDBException e) {
+				throw new RuntimeException(e);
+			}
+		};
+	}
+
 	public Map<byte[], byte[]> getNext(byte[] key, long limit) {
 		if (quitIfNotAlive()) {
 			return null;
@@ -396,8 +524,8 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 		if (limit <= 0) {
 			return Collections.emptyMap();
 		}
-		resetDbLock.readLock().lock();
-		try (RocksIterator iter = database.newIterator()) {
+		resetDbGuard.enter();
+		try (RocksIterator iter = database.newIterator(handle)) {
 			Map<byte[], byte[]> result = new HashMap<>();
 			long i = 0;
 			for (iter.seek(key); iter.isValid() && i < limit; iter.next(), i++) {
@@ -405,7 +533,7 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 			}
 			return result;
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
@@ -416,8 +544,8 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 		if (limit <= 0) {
 			return Sets.newHashSet();
 		}
-		resetDbLock.readLock().lock();
-		try (RocksIterator iter = database.newIterator()) {
+		resetDbGuard.enter();
+		try (RocksIterator iter = database.newIterator(handle)) {
 			Set<byte[]> result = Sets.newHashSet();
 			long i = 0;
 			for (iter.seekToLast(); iter.isValid() && i < limit; iter.prev(), i++) {
@@ -425,7 +553,7 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 			}
 			return result;
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
@@ -436,8 +564,8 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 		if (limit <= 0) {
 			return Sets.newHashSet();
 		}
-		resetDbLock.readLock().lock();
-		try (RocksIterator iter = database.newIterator()) {
+		resetDbGuard.enter();
+		try (RocksIterator iter = database.newIterator(handle)) {
 			Set<byte[]> result = Sets.newHashSet();
 			long i = 0;
 			byte[] data = getData(key);
@@ -450,7 +578,7 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 			}
 			return result;
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
@@ -461,8 +589,8 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 		if (limit <= 0) {
 			return Sets.newHashSet();
 		}
-		resetDbLock.readLock().lock();
-		try (RocksIterator iter = database.newIterator()) {
+		resetDbGuard.enter();
+		try (RocksIterator iter = database.newIterator(handle)) {
 			Set<byte[]> result = Sets.newHashSet();
 			long i = 0;
 			for (iter.seek(key); iter.isValid() && i < limit; iter.next(), i++) {
@@ -470,16 +598,23 @@ public class RocksDbDataSourceImpl implements DbSourceInter<byte[]>,
 			}
 			return result;
 		} finally {
-			resetDbLock.readLock().unlock();
+			resetDbGuard.exit();
 		}
 	}
 
 	public void backup(String dir) throws RocksDBException {
+		if (shared != null) {
+			shared.backup(dir);
+			return;
+		}
 		Checkpoint cp = Checkpoint.create(database);
 		cp.createCheckpoint(dir + this.getDBName());
 	}
 
 	public boolean deleteDbBakPath(String dir) {
+		if (shared != null) {
+			return shared.deleteBackup(dir);
+		}
 		return FileUtil.deleteDir(new File(dir + this.getDBName()));
 	}
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package io.midasprotocol.common.storage.leveldb;
+
+import io.midasprotocol.common.storage.RocksDbSettings;
+import io.midasprotocol.common.utils.FileUtil;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * One RocksDB instance holding every store under a directory as a column family.
+ *
+ * <p>The stores share one WAL, one block cache, one rate limiter and one set of compaction
+ * threads, and a {@link WriteBatch} may span several of them, so a flush touching many stores
+ * is a single atomic write. Instances are reference counted per parent directory.
+ */
+@Slf4j(topic = "DB")
+public final class SharedRocksDb {
+
+	public static final String DIRECTORY = "column-families";
+	private static final Map<String, SharedRocksDb> INSTANCES = new HashMap<>();
+
+	@Getter
+	private final Path path;
+	@Getter
+	private final RocksDB database;
+	private final DBOptions dbOptions;
+	private final ColumnFamilyOptions columnFamilyOptions;
+	private final Cache blockCache;
+	private final RateLimiter rateLimiter;
+	private final Map<String, ColumnFamilyHandle> handles = new HashMap<>();
+	private int references = 0;
+
+	private SharedRocksDb(Path path, RocksDbSettings settings) {
+		this.path = path;
+
+		blockCache = new LRUCache(settings.getBlockCacheSize());
+		rateLimiter = settings.getRateLimit() > 0 ? new RateLimiter(settings.getRateLimit()) : null;
+
+		dbOptions = new DBOptions();
+		if (settings.isEnableStatistics()) {
+			dbOptions.setStatistics(new Statistics());
+			dbOptions.setStatsDumpPeriodSec(60);
+		}
+		dbOptions.setCreateIfMissing(true);
+		dbOptions.setCreateMissingColumnFamilies(true);
+		dbOptions.setIncreaseParallelism(Math.max(settings.getCompactThreads(), 1));
+		dbOptions.setMaxOpenFiles(settings.getMaxOpenFiles());
+		dbOptions.setMaxBackgroundCompactions(settings.getCompactThreads());
+		if (rateLimiter != null) {
+			dbOptions.setRateLimiter(rateLimiter);
+		}
+
+		columnFamilyOptions = new ColumnFamilyOptions();
+		columnFamilyOptions.setLevelCompactionDynamicLevelBytes(true);
+		columnFamilyOptions.setNumLevels(settings.getLevelNumber());
+		columnFamilyOptions.setMaxBytesForLevelMultiplier(settings.getMaxBytesForLevelMultiplier());
+		columnFamilyOptions.setMaxBytesForLevelBase(settings.getMaxBytesForLevelBase());
+		columnFamilyOptions.setLevel0FileNumCompactionTrigger(
+			settings.getLevel0FileNumCompactionTrigger());
+		columnFamilyOptions.setTargetFileSizeMultiplier(settings.getTargetFileSizeMultiplier());
+		columnFamilyOptions.setTargetFileSizeBase(settings.getTargetFileSizeBase());
+
+		BlockBasedTableConfig tableCfg = new BlockBasedTableConfig();
+		tableCfg.setBlockSize(settings.getBlockSize());
+		tableCfg.setBlockCache(blockCache);
+		tableCfg.setCacheIndexAndFilterBlocks(true);
+		tableCfg.setPinL0FilterAndIndexBlocksInCache(true);
+		tableCfg.setFilter(new BloomFilter(10, false));
+		columnFamilyOptions.setTableFormatConfig(tableCfg);
+
+		try {
+			if (!Files.isSymbolicLink(path.getParent())) {
+				Files.createDirectories(path.getParent());
+			}
+
+			List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+			for (byte[] name : listColumnFamilies(path)) {
+				descriptors.add(new ColumnFamilyDescriptor(name, columnFamilyOptions));
+			}
+			List<ColumnFamilyHandle> opened = new ArrayList<>(descriptors.size());
+			database = RocksDB.open(dbOptions, path.toString(), descriptors, opened);
+			for (int i = 0; i < opened.size(); ++i) {
+				handles.put(new String(descriptors.get(i).columnFamilyName(), StandardCharsets.UTF_8),
+					opened.get(i));
+			}
+		} catch (IOException | RocksDBException e) {
+			logger.error(e.getMessage(), e);
+			throw new RuntimeException("Failed to initialize database", e);
+		}
+
+		logger.info("open {} with column families {}.", path, handles.keySet());
+	}
+
+	public static Path getPath(String parentName) {
+		return Paths.get(parentName, DIRECTORY);
+	}
+
+	public static synchronized SharedRocksDb acquire(String parentName, RocksDbSettings settings) {
+		SharedRocksDb shared = INSTANCES.computeIfAbsent(parentName,
+			p -> new SharedRocksDb(getPath(p), settings));
+		++shared.references;
+		return shared;
+	}
+
+	public static synchronized void release(SharedRocksDb shared) {
+		if (--shared.references == 0) {
+			INSTANCES.values().remove(shared);
+			shared.close();
+		}
+	}
+
+	private static List<byte[]> listColumnFamilies(Path path) throws RocksDBException {
+		List<byte[]> names = new ArrayList<>();
+		if (Files.exists(path.resolve("CURRENT"))) {
+			try (Options options = new Options()) {
+				names.addAll(RocksDB.listColumnFamilies(options, path.toString()));
+			}
+		}
+		if (names.stream().noneMatch(n -> Arrays.equals(n, RocksDB.DEFAULT_COLUMN_FAMILY))) {
+			names.add(RocksDB.DEFAULT_COLUMN_FAMILY);
+		}
+		return names;
+	}
+
+	/**
+	 * the column family of a store, created on first use.
+	 */
+	public synchronized ColumnFamilyHandle getColumnFamily(String name) throws RocksDBException {
+		ColumnFamilyHandle handle = handles.get(name);
+		if (handle == null) {
+			handle = database.createColumnFamily(
+				new ColumnFamilyDescriptor(name.getBytes(StandardCharsets.UTF_8), columnFamilyOptions));
+			handles.put(name, handle);
+		}
+		return handle;
+	}
+
+	/**
+	 * drop every key of a store and hand back its new, empty column family.
+	 */
+	public synchronized ColumnFamilyHandle resetColumnFamily(String name) throws RocksDBException {
+		ColumnFamilyHandle handle = handles.remove(name);
+		if (handle != null) {
+			database.dropColumnFamily(handle);
+			handle.close();
+		}
+		return getColumnFamily(name);
+	}
+
+	public void write(WriteBatch batch, WriteOptions options) throws RocksDBException {
+		database.write(options, batch);
+	}
+
+	/**
+	 * checkpoint the whole instance once into dir, however many stores ask for it.
+	 */
+	public synchronized void backup(String dir) throws RocksDBException {
+		File target = new File(dir + DIRECTORY);
+		if (target.exists()) {
+			return;
+		}
+		Checkpoint.create(database).createCheckpoint(target.getPath());
+	}
+
+	public boolean deleteBackup(String dir) {
+		return FileUtil.deleteDir(new File(dir + DIRECTORY));
+	}
+
+	private synchronized void close() {
+		handles.values().forEach(ColumnFamilyHandle::close);
+		handles.clear();
+		database.close();
+		dbOptions.close();
+		columnFamilyOptions.close();
+		blockCache.close();
+		if (rateLimiter != null) {
+			rateLimiter.close();
+		}
+	}
+}
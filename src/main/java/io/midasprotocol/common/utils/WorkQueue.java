@@ -0,0 +1,169 @@
+package io.midasprotocol.common.utils;
+
+import com.google.common.collect.Iterators;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded queue handing work from producers to a consumer thread, which drains it in
+ * batches.
+ *
+ * <p>A producer that can afford to wait offers with a timeout, and so slows down to the pace
+ * of the consumer; one that cannot offers without waiting. Either way, what does not fit when
+ * the queue is full is dropped according to the {@link DropPolicy} and counted. The time
+ * items spend queued is measured from their offer to their drain.
+ */
+public class WorkQueue<T> implements Iterable<T> {
+
+	public enum DropPolicy {
+		// the item offered is refused
+		REJECT_NEW,
+		// the item queued the longest makes room for the one offered
+		DROP_OLDEST
+	}
+
+	@Getter
+	private final String name;
+	@Getter
+	private final int capacity;
+	private final DropPolicy dropPolicy;
+	private final BlockingQueue<Item<T>> queue;
+	private final AtomicLong offered = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong drained = new AtomicLong();
+	private final AtomicLong totalWaitNanos = new AtomicLong();
+	private volatile long lastWaitNanos;
+
+	public WorkQueue(String name, int capacity, DropPolicy dropPolicy) {
+		this.name = name;
+		this.capacity = capacity;
+		this.dropPolicy = dropPolicy;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+	}
+
+	/**
+	 * queue an item without waiting.
+	 *
+	 * @return false if the item was dropped.
+	 */
+	public boolean offer(T item) {
+		offered.incrementAndGet();
+		Item<T> entry = new Item<>(item);
+		while (!queue.offer(entry)) {
+			if (dropPolicy == DropPolicy.REJECT_NEW) {
+				dropped.incrementAndGet();
+				return false;
+			}
+			if (queue.poll() != null) {
+				dropped.incrementAndGet();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * queue an item, waiting up to timeout for room before falling back to the drop policy.
+	 *
+	 * @return false if the item was dropped.
+	 */
+	public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+		if (queue.offer(new Item<>(item), timeout, unit)) {
+			offered.incrementAndGet();
+			return true;
+		}
+		return offer(item);
+	}
+
+	/**
+	 * @return the oldest item, or null if there is none.
+	 */
+	public T poll() {
+		Item<T> entry = queue.poll();
+		if (entry == null) {
+			return null;
+		}
+		record(entry, System.nanoTime());
+		return entry.item;
+	}
+
+	/**
+	 * wait up to timeout for an item, then take it together with whatever else is queued, up to
+	 * max items.
+	 *
+	 * @return the items taken, oldest first, empty if none came in time.
+	 */
+	public List<T> drain(int max, long timeout, TimeUnit unit) throws InterruptedException {
+		Item<T> first = queue.poll(timeout, unit);
+		if (first == null) {
+			return new ArrayList<>();
+		}
+
+		List<Item<T>> entries = new ArrayList<>(Math.min(max, queue.size() + 1));
+		entries.add(first);
+		queue.drainTo(entries, max - 1);
+		long now = System.nanoTime();
+		List<T> items = new ArrayList<>(entries.size());
+		for (Item<T> entry : entries) {
+			record(entry, now);
+			items.add(entry.item);
+		}
+		return items;
+	}
+
+	private void record(Item<T> entry, long now) {
+		long wait = now - entry.queuedAt;
+		drained.incrementAndGet();
+		totalWaitNanos.addAndGet(wait);
+		lastWaitNanos = wait;
+	}
+
+	public int size() {
+		return queue.size();
+	}
+
+	public long getOfferedCount() {
+		return offered.get();
+	}
+
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	public long getDrainedCount() {
+		return drained.get();
+	}
+
+	public long getLastWaitMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(lastWaitNanos);
+	}
+
+	public long getAverageWaitMillis() {
+		long count = drained.get();
+		return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / count);
+	}
+
+	/**
+	 * the queued items, oldest first, as of the call.
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return Iterators.transform(queue.iterator(), entry -> entry.item);
+	}
+
+	private static final class Item<T> {
+
+		private final T item;
+		private final long queuedAt = System.nanoTime();
+
+		private Item(T item) {
+			this.item = item;
+		}
+	}
+}
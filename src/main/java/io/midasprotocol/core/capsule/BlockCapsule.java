@@ -24,6 +24,7 @@ import io.midasprotocol.common.utils.ByteUtil;
 import io.midasprotocol.common.utils.Sha256Hash;
 import io.midasprotocol.common.utils.Time;
 import io.midasprotocol.core.capsule.utils.MerkleTree;
+import io.midasprotocol.core.capsule.utils.SignatureCache;
 import io.midasprotocol.core.config.Parameter.ChainConstant;
 import io.midasprotocol.core.db.Manager;
 import io.midasprotocol.core.exception.BadItemException;
@@ -45,9 +46,14 @@ import java.util.stream.Collectors;
 public class BlockCapsule implements ProtoCapsule<Block> {
 
 	public boolean generatedByMyself = false;
+	private volatile boolean merkleRootVerified = false;
 	private BlockId blockId = new BlockId(Sha256Hash.ZERO_HASH, 0);
 
 	private Block block;
+	// computed on first use and reset by the methods changing what they cover
+	private volatile Sha256Hash rawHash;
+	private volatile Sha256Hash merkleRoot;
+	private volatile byte[] data;
 	private List<TransactionCapsule> transactions = new ArrayList<>();
 	private StringBuffer toStringBuff = new StringBuffer();
 
@@ -111,6 +117,26 @@ public class BlockCapsule implements ProtoCapsule<Block> {
 	public void addTransaction(TransactionCapsule pendingTrx) {
 		this.block = this.block.toBuilder().addTransactions(pendingTrx.getInstance()).build();
 		getTransactions().add(pendingTrx);
+		this.merkleRoot = null;
+		this.merkleRootVerified = false;
+		this.data = null;
+	}
+
+	/**
+	 * add many transactions rebuilding the block once, rather than once per transaction.
+	 */
+	public void addTransactions(List<TransactionCapsule> pendingTrxs) {
+		if (pendingTrxs.isEmpty()) {
+			return;
+		}
+
+		Block.Builder builder = this.block.toBuilder();
+		pendingTrxs.forEach(trx -> builder.addTransactions(trx.getInstance()));
+		this.block = builder.build();
+		getTransactions().addAll(pendingTrxs);
+		this.merkleRoot = null;
+		this.merkleRootVerified = false;
+		this.data = null;
 	}
 
 	public List<TransactionCapsule> getTransactions() {
@@ -133,16 +159,31 @@ public class BlockCapsule implements ProtoCapsule<Block> {
 			.build();
 
 		this.block = this.block.toBuilder().setBlockHeader(blockHeader).build();
+		this.data = null;
+	}
+
+	private void setHeaderRawData(BlockHeader.Raw blockHeaderRaw) {
+		this.block = this.block.toBuilder().setBlockHeader(
+			this.block.getBlockHeader().toBuilder().setRawData(blockHeaderRaw)).build();
+		this.rawHash = null;
+		this.blockId = new BlockId(Sha256Hash.ZERO_HASH, 0);
+		this.merkleRootVerified = false;
+		this.data = null;
 	}
 
 	private Sha256Hash getRawHash() {
-		return Sha256Hash.of(this.block.getBlockHeader().getRawData().toByteArray());
+		Sha256Hash hash = rawHash;
+		if (hash == null) {
+			hash = Sha256Hash.of(this.block.getBlockHeader().getRawData().toByteArray());
+			rawHash = hash;
+		}
+		return hash;
 	}
 
 	public boolean validateSignature(Manager dbManager) throws ValidateSignatureException {
 		try {
-			byte[] sigAddress = ECKey.signatureToAddress(getRawHash().getBytes(),
-				TransactionCapsule.getBase64FromByteString(block.getBlockHeader().getWitnessSignature()));
+			byte[] sigAddress = SignatureCache.signatureToAddress(getRawHash().getBytes(),
+				block.getBlockHeader().getWitnessSignature());
 			byte[] witnessAccountAddress = block.getBlockHeader().getRawData().getWitnessAddress()
 				.toByteArray();
 
@@ -161,25 +202,33 @@ public class BlockCapsule implements ProtoCapsule<Block> {
 
 	public BlockId getBlockId() {
 		if (blockId.equals(Sha256Hash.ZERO_HASH)) {
-			blockId = new BlockId(Sha256Hash.of(this.block.getBlockHeader().getRawData().toByteArray()),
-				getNum());
+			blockId = new BlockId(getRawHash(), getNum());
 		}
 		return blockId;
 	}
 
+	/**
+	 * the merkle root of the transactions as serialized in the block, not as their capsules may
+	 * have changed since, computed once.
+	 */
 	public Sha256Hash calcMerkleRoot() {
-		List<Transaction> transactionsList = this.block.getTransactionsList();
+		Sha256Hash root = merkleRoot;
+		if (root != null) {
+			return root;
+		}
 
+		List<Transaction> transactionsList = this.block.getTransactionsList();
 		if (CollectionUtils.isEmpty(transactionsList)) {
-			return Sha256Hash.ZERO_HASH;
+			root = Sha256Hash.ZERO_HASH;
+		} else {
+			Vector<Sha256Hash> ids = transactionsList.stream()
+				.map(TransactionCapsule::new)
+				.map(TransactionCapsule::getMerkleHash)
+				.collect(Collectors.toCollection(Vector::new));
+			root = MerkleTree.getInstance().createTree(ids).getRoot().getHash();
 		}
-
-		Vector<Sha256Hash> ids = transactionsList.stream()
-			.map(TransactionCapsule::new)
-			.map(TransactionCapsule::getMerkleHash)
-			.collect(Collectors.toCollection(Vector::new));
-
-		return MerkleTree.getInstance().createTree(ids).getRoot().getHash();
+		merkleRoot = root;
+		return root;
 	}
 
 	public void setMerkleRoot() {
@@ -187,8 +236,7 @@ public class BlockCapsule implements ProtoCapsule<Block> {
 			this.block.getBlockHeader().getRawData().toBuilder()
 				.setTxTrieRoot(calcMerkleRoot().getByteString()).build();
 
-		this.block = this.block.toBuilder().setBlockHeader(
-			this.block.getBlockHeader().toBuilder().setRawData(blockHeaderRaw)).build();
+		setHeaderRawData(blockHeaderRaw);
 	}
 
 	/* only for genesis */
@@ -197,8 +245,33 @@ public class BlockCapsule implements ProtoCapsule<Block> {
 			this.block.getBlockHeader().getRawData().toBuilder().setWitnessAddress(
 				ByteString.copyFrom(witness.getBytes())).build();
 
-		this.block = this.block.toBuilder().setBlockHeader(
-			this.block.getBlockHeader().toBuilder().setRawData(blockHeaderRaw)).build();
+		setHeaderRawData(blockHeaderRaw);
+	}
+
+	/**
+	 * check the merkle root of the header against the transactions, only the first time it
+	 * matches; safe to call from a thread verifying ahead of import.
+	 */
+	public boolean verifyMerkleRoot() {
+		if (!merkleRootVerified) {
+			merkleRootVerified = calcMerkleRoot().equals(getMerkleRoot());
+		}
+		return merkleRootVerified;
+	}
+
+	/**
+	 * recover the witness and transaction signers into the {@link SignatureCache}, which needs no
+	 * state, so that the signature checks of the import only weigh them against account
+	 * permissions; safe to call from a thread verifying ahead of import.
+	 */
+	public void preloadSignatures() {
+		try {
+			SignatureCache.signatureToAddress(getRawHash().getBytes(),
+				block.getBlockHeader().getWitnessSignature());
+		} catch (SignatureException e) {
+			// left for validateSignature to report
+		}
+		SignatureCache.preload(transactions);
 	}
 
 	public Sha256Hash getMerkleRoot() {
@@ -209,9 +282,17 @@ public class BlockCapsule implements ProtoCapsule<Block> {
 		return this.block.getBlockHeader().getRawData().getWitnessAddress();
 	}
 
+	/**
+	 * the serialized block, shared between callers: it must not be modified.
+	 */
 	@Override
 	public byte[] getData() {
-		return this.block.toByteArray();
+		byte[] bytes = data;
+		if (bytes == null) {
+			bytes = this.block.toByteArray();
+			data = bytes;
+		}
+		return bytes;
 	}
 
 	@Override
@@ -25,6 +25,7 @@ import io.midasprotocol.common.runtime.vm.program.Program.*;
 import io.midasprotocol.common.utils.ByteArray;
 import io.midasprotocol.common.utils.Sha256Hash;
 import io.midasprotocol.core.Wallet;
+import io.midasprotocol.core.capsule.utils.SignatureCache;
 import io.midasprotocol.core.db.AccountStore;
 import io.midasprotocol.core.db.Manager;
 import io.midasprotocol.core.db.TransactionTrace;
@@ -59,8 +60,17 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class TransactionCapsule implements ProtoCapsule<Transaction> {
 
 	private Transaction transaction;
+	// computed on first use; the raw hash is reset when the raw data changes, the others on any
+	// change, see update and updateRaw
+	private volatile Sha256Hash rawHash;
+	private volatile byte[] data;
+	private volatile Sha256Hash merkleHash;
 	@Setter
 	private boolean isVerified = false;
+	// tapos, expiration, size and dup checked ahead of execution, once
+	@Getter
+	@Setter
+	private boolean prechecked = false;
 
 	@Setter
 	@Getter
@@ -191,7 +201,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
 					"Signature size is " + sig.size());
 			}
 			String base64 = TransactionCapsule.getBase64FromByteString(sig);
-			byte[] address = ECKey.signatureToAddress(hash, base64);
+			byte[] address = SignatureCache.signatureToAddress(hash, sig);
 			long weight = getWeight(permission, address);
 			if (weight == 0) {
 				throw new PermissionException(
@@ -453,13 +463,13 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
 
 	public void resetResult() {
 		if (this.getInstance().getRetCount() > 0) {
-			this.transaction = this.getInstance().toBuilder().clearRet().build();
+			update(this.getInstance().toBuilder().clearRet().build());
 		}
 	}
 
 	public void setResult(TransactionResultCapsule transactionResultCapsule) {
-		this.transaction = this.getInstance().toBuilder().addRet(transactionResultCapsule.getInstance())
-			.build();
+		update(this.getInstance().toBuilder().addRet(transactionResultCapsule.getInstance())
+			.build());
 	}
 
 	public void setReference(long blockNum, byte[] blockHash) {
@@ -468,7 +478,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
 			.setRefBlockHash(ByteString.copyFrom(ByteArray.subArray(blockHash, 8, 16)))
 			.setRefBlockBytes(ByteString.copyFrom(ByteArray.subArray(refBlockNum, 6, 8)))
 			.build();
-		this.transaction = this.transaction.toBuilder().setRawData(rawData).build();
+		updateRaw(this.transaction.toBuilder().setRawData(rawData).build());
 	}
 
 	public long getExpiration() {
@@ -481,14 +491,14 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
 	public void setExpiration(long expiration) {
 		Transaction.Raw rawData = this.transaction.getRawData().toBuilder().setExpiration(expiration)
 			.build();
-		this.transaction = this.transaction.toBuilder().setRawData(rawData).build();
+		updateRaw(this.transaction.toBuilder().setRawData(rawData).build());
 	}
 
 	public void setTimestamp() {
 		Transaction.Raw rawData = this.transaction.getRawData().toBuilder()
 			.setTimestamp(System.currentTimeMillis())
 			.build();
-		this.transaction = this.transaction.toBuilder().setRawData(rawData).build();
+		updateRaw(this.transaction.toBuilder().setRawData(rawData).build());
 	}
 
 	public long getTimestamp() {
@@ -500,23 +510,47 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
 		Transaction.Raw.Builder transactionBuilder = Transaction.Raw.newBuilder().addContract(
 			Transaction.Contract.newBuilder().setType(contractType).setParameter(
 				Any.pack(message)).build());
-		transaction = Transaction.newBuilder().setRawData(transactionBuilder.build()).build();
+		updateRaw(Transaction.newBuilder().setRawData(transactionBuilder.build()).build());
+	}
+
+	/**
+	 * replace the transaction by one with the same raw data, e.g. with a signature or a result
+	 * added.
+	 */
+	private void update(Transaction transaction) {
+		this.transaction = transaction;
+		this.data = null;
+		this.merkleHash = null;
+	}
+
+	private void updateRaw(Transaction transaction) {
+		update(transaction);
+		this.rawHash = null;
 	}
 
 	public Sha256Hash getMerkleHash() {
-		byte[] transBytes = this.transaction.toByteArray();
-		return Sha256Hash.of(transBytes);
+		Sha256Hash hash = merkleHash;
+		if (hash == null) {
+			hash = Sha256Hash.of(getData());
+			merkleHash = hash;
+		}
+		return hash;
 	}
 
 	private Sha256Hash getRawHash() {
-		return Sha256Hash.of(this.transaction.getRawData().toByteArray());
+		Sha256Hash hash = rawHash;
+		if (hash == null) {
+			hash = Sha256Hash.of(this.transaction.getRawData().toByteArray());
+			rawHash = hash;
+		}
+		return hash;
 	}
 
 	public void sign(byte[] privateKey) {
 		ECKey ecKey = ECKey.fromPrivate(privateKey);
 		ECDSASignature signature = ecKey.sign(getRawHash().getBytes());
 		ByteString sig = ByteString.copyFrom(signature.toByteArray());
-		this.transaction = this.transaction.toBuilder().addSignature(sig).build();
+		update(this.transaction.toBuilder().addSignature(sig).build());
 	}
 
 	public void addSign(byte[] privateKey, AccountStore accountStore)
@@ -560,7 +594,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
 		}
 		ECDSASignature signature = ecKey.sign(getRawHash().getBytes());
 		ByteString sig = ByteString.copyFrom(signature.toByteArray());
-		this.transaction = this.transaction.toBuilder().addSignature(sig).build();
+		update(this.transaction.toBuilder().addSignature(sig).build());
 	}
 
 	/**
@@ -604,9 +638,17 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
 		return getRawHash();
 	}
 
+	/**
+	 * the serialized transaction, shared between callers: it must not be modified.
+	 */
 	@Override
 	public byte[] getData() {
-		return this.transaction.toByteArray();
+		byte[] bytes = data;
+		if (bytes == null) {
+			bytes = this.transaction.toByteArray();
+			data = bytes;
+		}
+		return bytes;
 	}
 
 	public long getSerializedSize() {
@@ -734,10 +776,10 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
 		if (this.transaction.getRetCount() > 0) {
 			ret = this.transaction.getRet(0).toBuilder().setContractResult(code).build();
 
-			this.transaction = transaction.toBuilder().setRet(0, ret).build();
+			update(transaction.toBuilder().setRet(0, ret).build());
 			return;
 		}
-		this.transaction = transaction.toBuilder().addRet(ret).build();
+		update(transaction.toBuilder().addRet(ret).build());
 	}
 
 	public ContractResult getContractRet() {
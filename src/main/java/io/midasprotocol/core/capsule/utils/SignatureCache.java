@@ -0,0 +1,89 @@
+package io.midasprotocol.core.capsule.utils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.primitives.Bytes;
+import com.google.protobuf.ByteString;
+import io.midasprotocol.common.crypto.Secp256k1;
+import io.midasprotocol.core.capsule.TransactionCapsule;
+import io.midasprotocol.core.db.common.WrappedByteArray;
+
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Addresses recovered from transaction and block signatures, shared by every path verifying
+ * them, so a transaction recovered when it entered the pool is not recovered again when a block
+ * brings it back, and a block recovered ahead of import is not recovered again by the import.
+ *
+ * <p>Only the recovery is cached, keyed by the signed hash and the signature. Which addresses
+ * may sign, and with what weight, depends on account state and is checked by the caller every
+ * time.
+ */
+public final class SignatureCache {
+
+	// a few blocks' worth of transactions, plus the pool
+	private static final int MAX_SIZE = 100_000;
+
+	private static final Cache<WrappedByteArray, byte[]> ADDRESSES = CacheBuilder.newBuilder()
+		.maximumSize(MAX_SIZE).recordStats().build();
+
+	private SignatureCache() {
+	}
+
+	private static WrappedByteArray key(byte[] hash, byte[] sig) {
+		return WrappedByteArray.of(Bytes.concat(hash, sig));
+	}
+
+	public static byte[] signatureToAddress(byte[] hash, ByteString sig)
+		throws SignatureException {
+		byte[] sigBytes = sig.toByteArray();
+		WrappedByteArray key = key(hash, sigBytes);
+		byte[] address = ADDRESSES.getIfPresent(key);
+		if (address == null) {
+			address = Secp256k1.signatureToAddress(hash, sigBytes);
+			ADDRESSES.put(key, address);
+		}
+		return address;
+	}
+
+	/**
+	 * recover in one batch the signatures of transactions not cached yet, so their checks that
+	 * follow only look them up. Signatures the batch cannot recover are left for those checks to
+	 * report.
+	 */
+	public static void preload(List<TransactionCapsule> transactions) {
+		List<byte[]> hashes = new ArrayList<>();
+		List<byte[]> sigs = new ArrayList<>();
+		for (TransactionCapsule trx : transactions) {
+			byte[] hash = trx.getTransactionId().getBytes();
+			for (ByteString sig : trx.getInstance().getSignatureList()) {
+				byte[] sigBytes = sig.toByteArray();
+				if (ADDRESSES.getIfPresent(key(hash, sigBytes)) == null) {
+					hashes.add(hash);
+					sigs.add(sigBytes);
+				}
+			}
+		}
+		if (hashes.isEmpty()) {
+			return;
+		}
+
+		byte[][] addresses = Secp256k1.signaturesToAddresses(hashes, sigs);
+		for (int i = 0; i < addresses.length; ++i) {
+			if (addresses[i] != null) {
+				ADDRESSES.put(key(hashes.get(i), sigs.get(i)), addresses[i]);
+			}
+		}
+	}
+
+	public static CacheStats stats() {
+		return ADDRESSES.stats();
+	}
+
+	public static void invalidateAll() {
+		ADDRESSES.invalidateAll();
+	}
+}
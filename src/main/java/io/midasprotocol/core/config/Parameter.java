@@ -80,8 +80,12 @@ public interface Parameter {
 		long MAX_BLOCKS_IN_PROCESS = 400;
 		long MAX_BLOCKS_ALREADY_FETCHED = 800;
 		long MAX_BLOCKS_SYNC_FROM_ONE_PEER = 1000;
+		int MAX_BLOCKS_VERIFY_AHEAD = 200;
 		long SYNC_CHAIN_LIMIT_NUM = 500;
 		int MAX_TRANSACTION_PENDING = 2000;
+		long MAX_TRANSACTION_PENDING_BYTES = 4_000_000;
+		int MAX_REPUSH_TRANSACTIONS = 10_000;
+		int MAX_PENDING_TRIGGERS = 50_000;
 
 		float PENALTY_RATE = 0.5f;
 		long MINOR_PENALTY_EPOCH = 6;
@@ -400,6 +400,10 @@ public class Args {
 	@Setter
 	private boolean vmTrace;
 
+	@Getter
+	@Setter
+	private boolean vmPredecoded;
+
 	@Getter
 	@Setter
 	private String trxReferenceBlock;
@@ -872,6 +876,9 @@ public class Args {
 
 		INSTANCE.vmTrace = config.hasPath("vm.vmTrace") ? config.getBoolean("vm.vmTrace") : false;
 
+		INSTANCE.vmPredecoded =
+			config.hasPath("vm.predecoded") && config.getBoolean("vm.predecoded");
+
 		INSTANCE.saveInternalTx =
 			config.hasPath("vm.saveInternalTx") && config.getBoolean("vm.saveInternalTx");
 
@@ -1151,11 +1158,20 @@ public class Args {
 			.getLong(prefix + "targetFileSizeBase") : 64;
 		int targetFileSizeMultiplier = config.hasPath(prefix + "targetFileSizeMultiplier") ? config
 			.getInt(prefix + "targetFileSizeMultiplier") : 1;
+		boolean columnFamilies = config.hasPath(prefix + "columnFamilies")
+			&& config.getBoolean(prefix + "columnFamilies");
+		long blockCacheSize = config.hasPath(prefix + "blockCacheSize")
+			? config.getLong(prefix + "blockCacheSize") : 32;
+		long rateLimit = config.hasPath(prefix + "rateLimit")
+			? config.getLong(prefix + "rateLimit") : 0;
 
 		INSTANCE.rocksDBCustomSettings = RocksDbSettings
 			.initCustomSettings(levelNumber, compactThreads, blocksize, maxBytesForLevelBase,
 				maxBytesForLevelMultiplier, level0FileNumCompactionTrigger,
-				targetFileSizeBase, targetFileSizeMultiplier);
+				targetFileSizeBase, targetFileSizeMultiplier)
+			.withColumnFamilies(columnFamilies)
+			.withBlockCacheSize(blockCacheSize)
+			.withRateLimit(rateLimit);
 		RocksDbSettings.loggingSettings();
 	}
 
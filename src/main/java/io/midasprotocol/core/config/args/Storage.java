@@ -61,6 +61,7 @@ public class Storage {
 	private static final String WRITE_BUFFER_SIZE_CONFIG_KEY = "writeBufferSize";
 	private static final String CACHE_SIZE_CONFIG_KEY = "cacheSize";
 	private static final String MAX_OPEN_FILES_CONFIG_KEY = "maxOpenFiles";
+	private static final String CAPSULE_CACHE_SIZE_CONFIG_KEY = "capsuleCacheSize";
 
 	/**
 	 * Default values of directory
@@ -84,6 +85,18 @@ public class Storage {
 	private static final long DEFAULT_CACHE_SIZE = 10 * 1024 * 1024L;
 	private static final int DEFAULT_MAX_OPEN_FILES = 100;
 
+	/**
+	 * Decoded capsules kept in memory by the store of a database, 0 disables the cache
+	 */
+	private static final int DEFAULT_CAPSULE_CACHE_SIZE = 0;
+
+	/**
+	 * Contract storage rows are cached unless configured otherwise, contracts read the same slots
+	 * transaction after transaction and block after block
+	 */
+	private static final String STORAGE_ROW_DB_NAME = "storage-row";
+	private static final int DEFAULT_STORAGE_ROW_CACHE_SIZE = 100_000;
+
 	/**
 	 * Database storage directory: /path/to/{dbDirectory}
 	 */
@@ -167,6 +180,7 @@ public class Storage {
 			throw new IllegalArgumentException("[storage.properties] database name must be set.");
 		}
 		property.setName(conf.get(NAME_CONFIG_KEY).unwrapped().toString());
+		property.setCapsuleCacheSize(defaultCapsuleCacheSize(property.getName()));
 
 		// Check writable permission of path
 		if (conf.containsKey(PATH_CONFIG_KEY)) {
@@ -279,6 +293,20 @@ public class Storage {
 		}
 
 		property.setDbOptions(dbOptions);
+
+		if (conf.containsKey(CAPSULE_CACHE_SIZE_CONFIG_KEY)) {
+			try {
+				property.setCapsuleCacheSize(
+					Integer.parseInt(
+						conf.get(CAPSULE_CACHE_SIZE_CONFIG_KEY).unwrapped().toString()
+					)
+				);
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException(
+					"[storage.properties] capsuleCacheSize must be Integer type.");
+			}
+		}
+
 		return property;
 	}
 
@@ -337,6 +365,24 @@ public class Storage {
 		return createDefaultDbOptions();
 	}
 
+	/**
+	 * Get the size of the decoded capsule cache by name of database
+	 *
+	 * @param dbName name of database
+	 * @return max number of cached capsules, 0 if the cache is disabled
+	 */
+	public int getCapsuleCacheSizeByDbName(String dbName) {
+		if (hasProperty(dbName)) {
+			return getProperty(dbName).getCapsuleCacheSize();
+		}
+		return defaultCapsuleCacheSize(dbName);
+	}
+
+	private static int defaultCapsuleCacheSize(String dbName) {
+		return STORAGE_ROW_DB_NAME.equals(dbName)
+			? DEFAULT_STORAGE_ROW_CACHE_SIZE : DEFAULT_CAPSULE_CACHE_SIZE;
+	}
+
 	/**
 	 * Only for unit test on db
 	 */
@@ -374,6 +420,7 @@ public class Storage {
 		private String name;
 		private String path;
 		private Options dbOptions;
+		private int capsuleCacheSize = DEFAULT_CAPSULE_CACHE_SIZE;
 	}
 
 }
@@ -9,6 +9,7 @@ import io.midasprotocol.common.utils.Utils;
 import io.midasprotocol.core.config.args.Args;
 import io.midasprotocol.core.db2.common.IRevokingDB;
 import io.midasprotocol.core.db2.core.ISession;
+import io.midasprotocol.core.db2.core.ReadView;
 import io.midasprotocol.core.db2.core.RevokingDBWithCachingOldValue;
 import io.midasprotocol.core.exception.RevokingStoreIllegalStateException;
 import lombok.AllArgsConstructor;
@@ -67,6 +68,17 @@ public abstract class AbstractRevokingStore implements RevokingDatabase {
 
 	}
 
+	// the whole state is one stack here, there are no layers to pin
+	@Override
+	public void pinReadView() {
+
+	}
+
+	@Override
+	public ReadView getReadView() {
+		return null;
+	}
+
 	@Override
 	public synchronized void check() {
 		LevelDbDataSourceImpl check =
@@ -40,16 +40,16 @@ public class BlockStore extends TronStoreWithRevoking<BlockCapsule> {
 
 	public List<BlockCapsule> getLimitNumber(long startNumber, long limit) {
 		BlockId startBlockId = new BlockId(Sha256Hash.ZERO_HASH, startNumber);
-		return revokingDB.getValuesNext(startBlockId.getBytes(), limit).stream()
-			.map(bytes -> {
+		// block ids start with the block number, so key order is block order
+		return revokingDB.getRange(startBlockId.getBytes(), null, limit).stream()
+			.map(e -> {
 				try {
-					return new BlockCapsule(bytes);
+					return new BlockCapsule(e.getValue());
 				} catch (BadItemException ignored) {
 				}
 				return null;
 			})
 			.filter(Objects::nonNull)
-			.sorted(Comparator.comparing(BlockCapsule::getNum))
 			.collect(Collectors.toList());
 	}
 
@@ -0,0 +1,76 @@
+package io.midasprotocol.core.db;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.midasprotocol.core.db.common.WrappedByteArray;
+
+/**
+ * Bounded cache of the decoded protobuf instances of one store.
+ *
+ * <p>Protobuf messages are immutable, so the store wraps a cached instance in a new capsule on
+ * every read and callers may modify the capsule freely. Entries are dropped whenever the revoking
+ * db reports their key as changed, and a load that raced with such a change is not kept.
+ *
+ * <p>Keys the store does not hold are remembered as well, until they are written, so that a key
+ * read again and again while absent, as unset contract storage slots are, is looked up once.
+ */
+public final class CapsuleCache {
+
+	// stands for a key the store does not hold
+	private static final Object ABSENT = new Object();
+
+	private final Cache<WrappedByteArray, Object> cache;
+	private long version;
+
+	CapsuleCache(long maximumSize) {
+		cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+	}
+
+	Object get(byte[] key) {
+		Object instance = cache.getIfPresent(WrappedByteArray.of(key));
+		return instance == ABSENT ? null : instance;
+	}
+
+	/**
+	 * @return true if key was found absent and not written since.
+	 */
+	boolean isAbsent(byte[] key) {
+		return cache.asMap().get(WrappedByteArray.of(key)) == ABSENT;
+	}
+
+	/**
+	 * read before loading a key, then hand it back to {@link #put(byte[], Object, long)}.
+	 */
+	synchronized long version() {
+		return version;
+	}
+
+	synchronized void put(byte[] key, Object instance, long version) {
+		if (this.version == version) {
+			cache.put(WrappedByteArray.copyOf(key), instance);
+		}
+	}
+
+	void putAbsent(byte[] key, long version) {
+		put(key, ABSENT, version);
+	}
+
+	synchronized void invalidate(byte[] key) {
+		++version;
+		cache.invalidate(WrappedByteArray.of(key));
+	}
+
+	synchronized void invalidateAll() {
+		++version;
+		cache.invalidateAll();
+	}
+
+	public long size() {
+		return cache.size();
+	}
+
+	public CacheStats stats() {
+		return cache.stats();
+	}
+}
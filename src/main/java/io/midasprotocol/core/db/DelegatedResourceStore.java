@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -25,10 +26,14 @@ public class DelegatedResourceStore extends TronStoreWithRevoking<DelegatedResou
 		return ArrayUtils.isEmpty(value) ? null : new DelegatedResourceCapsule(value);
 	}
 
+	/**
+	 * @return the resources delegated by an address, keys being the sender then the receiver.
+	 * Only keys starting with the given one match; keys of later senders are not returned.
+	 */
 	@Deprecated
 	public List<DelegatedResourceCapsule> getByFrom(byte[] key) {
-		return revokingDB.getValuesNext(key, Long.MAX_VALUE).stream()
-			.map(DelegatedResourceCapsule::new)
+		return getPrefix(key, Long.MAX_VALUE).stream()
+			.map(Map.Entry::getValue)
 			.filter(Objects::nonNull)
 			.collect(Collectors.toList());
 	}
@@ -0,0 +1,58 @@
+package io.midasprotocol.core.db;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.midasprotocol.core.capsule.ContractCapsule;
+import io.midasprotocol.core.capsule.TransactionCapsule;
+import io.midasprotocol.core.db.common.WrappedByteArray;
+import io.midasprotocol.protos.Contract.TriggerSmartContract;
+import io.midasprotocol.protos.Protocol.Transaction.Contract;
+import io.midasprotocol.protos.Protocol.Transaction.Contract.ContractType;
+
+/**
+ * Expected time to process a transaction, learned from the time transactions of the same kind
+ * took before. A kind is a contract type, or the called contract for smart contract triggers,
+ * whose cost depends on the code they run.
+ */
+public class ExecutionTimeEstimator {
+
+	// for a kind never seen, about a system contract
+	static final long DEFAULT_NANOS = 200_000;
+	private static final int MAX_KINDS = 10_000;
+	// each sample moves the estimate by 1 / 2^SHIFT of the difference
+	private static final int SHIFT = 3;
+
+	private final Cache<Object, Long> estimates = CacheBuilder.newBuilder()
+		.maximumSize(MAX_KINDS).build();
+
+	private static Object kind(TransactionCapsule trx) {
+		Contract contract = trx.getInstance().getRawData().getContract(0);
+		if (contract.getType() == ContractType.TriggerSmartContract) {
+			TriggerSmartContract trigger = ContractCapsule
+				.getTriggerContractFromTransaction(trx.getInstance());
+			if (trigger != null) {
+				return WrappedByteArray.of(trigger.getContractAddress().toByteArray());
+			}
+		}
+		return contract.getType();
+	}
+
+	public long estimate(TransactionCapsule trx) {
+		if (trx.getInstance().getRawData().getContractCount() == 0) {
+			return DEFAULT_NANOS;
+		}
+
+		Long estimate = estimates.getIfPresent(kind(trx));
+		return estimate == null ? DEFAULT_NANOS : estimate;
+	}
+
+	public void record(TransactionCapsule trx, long nanos) {
+		if (trx.getInstance().getRawData().getContractCount() == 0) {
+			return;
+		}
+
+		Object kind = kind(trx);
+		Long estimate = estimates.getIfPresent(kind);
+		estimates.put(kind, estimate == null ? nanos : estimate + ((nanos - estimate) >> SHIFT));
+	}
+}
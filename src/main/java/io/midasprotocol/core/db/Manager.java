@@ -19,18 +19,22 @@ import io.midasprotocol.common.overlay.discover.node.Node;
 import io.midasprotocol.common.runtime.config.VMConfig;
 import io.midasprotocol.common.runtime.vm.LogEventWrapper;
 import io.midasprotocol.common.utils.*;
+import io.midasprotocol.common.utils.WorkQueue.DropPolicy;
 import io.midasprotocol.core.Constant;
 import io.midasprotocol.core.capsule.*;
 import io.midasprotocol.core.capsule.BlockCapsule.BlockId;
 import io.midasprotocol.core.capsule.utils.BlockUtil;
+import io.midasprotocol.core.capsule.utils.SignatureCache;
 import io.midasprotocol.core.config.Parameter;
 import io.midasprotocol.core.config.Parameter.ChainConstant;
 import io.midasprotocol.core.config.args.Args;
 import io.midasprotocol.core.config.args.GenesisBlock;
 import io.midasprotocol.core.controller.StakeAccountController;
 import io.midasprotocol.core.db.KhaosDatabase.KhaosBlock;
+import io.midasprotocol.core.db.common.WrappedByteArray;
 import io.midasprotocol.core.db2.core.ISession;
 import io.midasprotocol.core.db2.core.ITronChainBase;
+import io.midasprotocol.core.db2.core.ReadView;
 import io.midasprotocol.core.db2.core.SnapshotManager;
 import io.midasprotocol.core.exception.*;
 import io.midasprotocol.core.services.WitnessService;
@@ -59,7 +63,10 @@ import java.util.stream.Collectors;
 import java.util.stream.LongStream;
 
 import static io.midasprotocol.core.config.Parameter.ChainConstant.SOLIDIFIED_THRESHOLD;
+import static io.midasprotocol.core.config.Parameter.NodeConstant.MAX_PENDING_TRIGGERS;
+import static io.midasprotocol.core.config.Parameter.NodeConstant.MAX_REPUSH_TRANSACTIONS;
 import static io.midasprotocol.core.config.Parameter.NodeConstant.MAX_TRANSACTION_PENDING;
+import static io.midasprotocol.core.config.Parameter.NodeConstant.MAX_TRANSACTION_PENDING_BYTES;
 
 
 @Slf4j(topic = "DB")
@@ -168,39 +175,51 @@ public class Manager {
 
 	private Set<String> ownerAddressSet = new HashSet<>();
 	// transactions cache
-	private List<TransactionCapsule> pendingTransactions;
+	@Getter
+	private TransactionPool transactionPool;
+	@Getter
+	private ExecutionTimeEstimator executionTimeEstimator = new ExecutionTimeEstimator();
+	@Getter
+	private volatile PackingStat lastPackingStat;
 	// transactions popped
 	private List<TransactionCapsule> popedTransactions =
 		Collections.synchronizedList(Lists.newArrayList());
-	// the capacity is equal to Integer.MAX_VALUE default
-	private BlockingQueue<TransactionCapsule> repushTransactions;
-	private BlockingQueue<TriggerCapsule> triggerCapsuleQueue;
+	private static final int TRIGGER_BATCH = 1000;
+	// how long the application of a block may wait in all for the event plugin to take triggers
+	private static final long TRIGGER_OFFER_BUDGET_MS = 100;
+	// when full, the repushed transactions nearest to expire make room first
+	private WorkQueue<TransactionCapsule> repushTransactions;
+	private static final int REPUSH_BATCH = 100;
+	// drained from repushTransactions and not pushed yet, generateBlock may still take them
+	private final Queue<TransactionCapsule> repushInFlight = new ConcurrentLinkedQueue<>();
+	private WorkQueue<TriggerCapsule> triggerCapsuleQueue;
+	// past it, triggers that find the queue full are dropped without waiting
+	private long triggerOfferDeadline;
 	/**
-	 * Cycle thread to repush Transactions
+	 * Cycle thread to repush Transactions, a batch at a time. The batch waits in repushInFlight,
+	 * where generateBlock and isTooManyPending still see it; the Manager lock keeps the pushes
+	 * from running into a block being generated
 	 */
 	private Runnable repushLoop =
 		() -> {
 			while (isRunRepushThread) {
-				TransactionCapsule tx = null;
 				try {
-					if (isGeneratingBlock()) {
-						TimeUnit.MILLISECONDS.sleep(10L);
-						continue;
+					if (repushInFlight.isEmpty()) {
+						repushInFlight.addAll(
+							repushTransactions.drain(REPUSH_BATCH, 50, TimeUnit.MILLISECONDS));
 					}
-					tx = getRepushTransactions().peek();
+					TransactionCapsule tx = repushInFlight.poll();
 					if (tx != null) {
 						this.rePush(tx);
-					} else {
-						TimeUnit.MILLISECONDS.sleep(50L);
 					}
+				} catch (InterruptedException ex) {
+					logger.info(ex.getMessage());
+					Thread.currentThread().interrupt();
+					return;
 				} catch (Exception ex) {
 					logger.error("unknown exception happened in repush loop", ex);
 				} catch (Throwable throwable) {
 					logger.error("unknown throwable happened in repush loop", throwable);
-				} finally {
-					if (tx != null) {
-						getRepushTransactions().remove(tx);
-					}
 				}
 			}
 		};
@@ -208,8 +227,8 @@ public class Manager {
 		() -> {
 			while (isRunTriggerCapsuleProcessThread) {
 				try {
-					TriggerCapsule tiggerCapsule = triggerCapsuleQueue.poll(1, TimeUnit.SECONDS);
-					if (tiggerCapsule != null) {
+					for (TriggerCapsule tiggerCapsule : triggerCapsuleQueue
+						.drain(TRIGGER_BATCH, 1, TimeUnit.SECONDS)) {
 						tiggerCapsule.processTrigger();
 					}
 				} catch (InterruptedException ex) {
@@ -275,18 +294,18 @@ public class Manager {
 		getExchangeStore().put(exchangeCapsule.createDbKey(), exchangeCapsule);
 	}
 
-	public List<TransactionCapsule> getPendingTransactions() {
-		return this.pendingTransactions;
-	}
-
 	public List<TransactionCapsule> getPoppedTransactions() {
 		return this.popedTransactions;
 	}
 
-	public BlockingQueue<TransactionCapsule> getRepushTransactions() {
+	public WorkQueue<TransactionCapsule> getRepushTransactions() {
 		return repushTransactions;
 	}
 
+	public WorkQueue<TriggerCapsule> getTriggerCapsuleQueue() {
+		return triggerCapsuleQueue;
+	}
+
 	// for test only
 	public List<ByteString> getWitnesses() {
 		return witnessController.getActiveWitnesses();
@@ -346,9 +365,12 @@ public class Manager {
 		this.setWitnessController(WitnessController.createInstance(this));
 		this.setProposalController(ProposalController.createInstance(this));
 		this.setStakeAccountController(StakeAccountController.createInstance(this));
-		this.pendingTransactions = Collections.synchronizedList(Lists.newArrayList());
-		this.repushTransactions = new LinkedBlockingQueue<>();
-		this.triggerCapsuleQueue = new LinkedBlockingQueue<>();
+		this.transactionPool = new TransactionPool(MAX_TRANSACTION_PENDING,
+			MAX_TRANSACTION_PENDING_BYTES);
+		this.repushTransactions = new WorkQueue<>("repush", MAX_REPUSH_TRANSACTIONS,
+			DropPolicy.DROP_OLDEST);
+		this.triggerCapsuleQueue = new WorkQueue<>("trigger", MAX_PENDING_TRIGGERS,
+			DropPolicy.REJECT_NEW);
 
 		this.initGenesis();
 		try {
@@ -374,6 +396,7 @@ public class Manager {
 
 		initCacheTxs();
 		revokingStore.enable();
+		revokingStore.pinReadView();
 		validateSignService = Executors
 			.newFixedThreadPool(Args.getInstance().getValidateSignThreadNum());
 		Thread repushThread = new Thread(repushLoop);
@@ -536,6 +559,11 @@ public class Manager {
 		if (dbVersion != 2) {
 			return;
 		}
+		// the cache is persisted per block, only a database created before that needs the replay
+		if (!transactionCache.isEmpty()) {
+			logger.info("end to init txs cache, restored from disk.");
+			return;
+		}
 		long start = System.currentTimeMillis();
 		long headNum = dynamicPropertiesStore.getLatestBlockHeaderNumber();
 		long recentBlockCount = recentBlockStore.size();
@@ -694,7 +722,13 @@ public class Manager {
 			pushTransactionQueue.add(trx);
 		}
 
+		// the pending state builds on the head, an api thread pushing must read from there
+		ReadView view = ReadView.use(null);
 		try {
+			if (transactionPool.contains(trx.getTransactionId())) {
+				throw new DupTransactionException("dup trans");
+			}
+
 			if (!trx.validateSignature(this)) {
 				throw new ValidateSignatureException("trans sig validate failed");
 			}
@@ -706,12 +740,13 @@ public class Manager {
 
 				try (ISession tmpSession = revokingStore.buildSession()) {
 					processTransaction(trx, null);
-					pendingTransactions.add(trx);
+					transactionPool.add(trx);
 					tmpSession.merge();
 				}
 			}
 		} finally {
 			pushTransactionQueue.remove(trx);
+			ReadView.use(view);
 		}
 		return true;
 	}
@@ -898,7 +933,7 @@ public class Manager {
 		BadNumberBlockException, BadBlockException, NonCommonBlockException,
 		ReceiptCheckErrException, VMIllegalException {
 		long start = System.currentTimeMillis();
-		try (PendingManager pm = new PendingManager(this)) {
+		try (PendingManager pm = new PendingManager(this, block)) {
 
 			if (!block.generatedByMyself) {
 				if (!block.validateSignature(this)) {
@@ -906,7 +941,7 @@ public class Manager {
 					throw new BadBlockException("The signature is not validated");
 				}
 
-				if (!block.calcMerkleRoot().equals(block.getMerkleRoot())) {
+				if (!block.verifyMerkleRoot()) {
 					logger.warn("The merkle root doesn't match, Calc result is " + block.calcMerkleRoot()
 						+ ", the headers is " + block.getMerkleRoot());
 					throw new BadBlockException("The merkle hash is not validated");
@@ -995,6 +1030,9 @@ public class Manager {
 				for (TransactionCapsule transactionCapsule : repushTransactions) {
 					filterOwnerAddress(transactionCapsule, result);
 				}
+				for (TransactionCapsule transactionCapsule : repushInFlight) {
+					filterOwnerAddress(transactionCapsule, result);
+				}
 				for (TransactionCapsule transactionCapsule : pushTransactionQueue) {
 					filterOwnerAddress(transactionCapsule, result);
 				}
@@ -1125,15 +1163,22 @@ public class Manager {
 			return false;
 		}
 
-		validateTapos(trxCap);
-		validateCommon(trxCap);
+		long start = System.nanoTime();
+		boolean prechecked = trxCap.isPrechecked();
+		trxCap.setPrechecked(false);
+		if (!prechecked) {
+			validateTapos(trxCap);
+			validateCommon(trxCap);
+		}
 
 		if (trxCap.getInstance().getRawData().getContractList().size() != 1) {
 			throw new ContractSizeNotEqualToOneException(
 				"act size should be exactly 1, this is extend feature");
 		}
 
-		validateDup(trxCap);
+		if (!prechecked) {
+			validateDup(trxCap);
+		}
 
 		if (!trxCap.validateSignature(this)) {
 			throw new ValidateSignatureException("trans sig validate failed");
@@ -1145,9 +1190,12 @@ public class Manager {
 		consumeBandwidth(trxCap, trace);
 		consumeMultiSignFee(trxCap, trace);
 
-		VMConfig.initVmHardFork();
-		VMConfig.initAllowMultiSign(dynamicPropertiesStore.getAllowMultiSign());
-		VMConfig.initAllowTvmTransferM1(dynamicPropertiesStore.getAllowTvmTransferM1());
+		if (trace.needVM()) {
+			// system contracts run without the vm and need none of its configuration
+			VMConfig.initVmHardFork();
+			VMConfig.initAllowMultiSign(dynamicPropertiesStore.getAllowMultiSign());
+			VMConfig.initAllowTvmTransferM1(dynamicPropertiesStore.getAllowTvmTransferM1());
+		}
 		trace.init(blockCap, eventPluginLoaded);
 		trace.checkIsConstant();
 		trace.exec();
@@ -1192,6 +1240,7 @@ public class Manager {
 			ownerAddressSet.add(ByteArray.toHexString(TransactionCapsule.getOwner(contract)));
 		}
 
+		executionTimeEstimator.record(trxCap, System.nanoTime() - start);
 		return true;
 	}
 
@@ -1238,7 +1287,11 @@ public class Manager {
 			throw new IllegalArgumentException("generate block timestamp is invalid.");
 		}
 
-		long postponedTrxCount = 0;
+		int postponedTrxCount = 0;
+		int rejectedTrxCount = 0;
+		long start = System.currentTimeMillis();
+		long budget = (long) (ChainConstant.BLOCK_PRODUCED_INTERVAL * 0.5
+			* Args.getInstance().getBlockProducedTimeOut() / 100);
 
 		final BlockCapsule blockCapsule =
 			new BlockCapsule(number + 1, preHash, when, witnessCapsule.getAddress());
@@ -1252,29 +1305,58 @@ public class Manager {
 			return null;
 		}
 
+		// the block is built once packing is done, its size is tracked meanwhile
+		List<TransactionCapsule> packed = new ArrayList<>();
+		long blockSize = blockCapsule.getInstance().getSerializedSize();
+		// repushed transactions left for a later block go back to the queue
+		List<TransactionCapsule> postponedRepush = new ArrayList<>();
 		Set<String> accountSet = new HashSet<>();
-		Iterator<TransactionCapsule> iterator = pendingTransactions.iterator();
-		while (iterator.hasNext() || repushTransactions.size() > 0) {
+		// each owner's transactions in arrival order, the owner whose next one pays the most first,
+		// and among equals the quickest
+		PriorityQueue<OwnerCandidate> candidates = new PriorityQueue<>(
+			Math.max(transactionPool.size(), 1),
+			Comparator.comparingLong((OwnerCandidate candidate) -> candidate.priority).reversed()
+				.thenComparingLong(candidate -> candidate.estimate));
+		for (Deque<TransactionCapsule> queue : transactionPool.toOwnerQueues()) {
+			candidates.add(new OwnerCandidate(queue, executionTimeEstimator));
+		}
+		while (!candidates.isEmpty() || getRepushCount() > 0) {
 			boolean fromPending = false;
+			OwnerCandidate ownerCandidate = null;
 			TransactionCapsule trx;
-			if (iterator.hasNext()) {
+			long estimate;
+			if (!candidates.isEmpty()) {
 				fromPending = true;
-				trx = iterator.next();
+				ownerCandidate = candidates.poll();
+				trx = ownerCandidate.queue.pollFirst();
+				estimate = ownerCandidate.estimate;
 			} else {
-				trx = repushTransactions.poll();
+				trx = repushInFlight.poll();
+				if (trx == null) {
+					trx = repushTransactions.poll();
+				}
+				if (trx == null) {
+					break;
+				}
+				estimate = executionTimeEstimator.estimate(trx);
 			}
 
-			if (DateTime.now().getMillis() - when
-				> ChainConstant.BLOCK_PRODUCED_INTERVAL * 0.5
-				* Args.getInstance().getBlockProducedTimeOut()
-				/ 100) {
+			long elapsed = DateTime.now().getMillis() - when;
+			if (elapsed > budget) {
 				logger.warn("Processing transaction time exceeds the 50% producing time。");
+				if (!fromPending) {
+					postponedRepush.add(trx);
+				}
 				break;
 			}
-			// check the block size
-			if ((blockCapsule.getInstance().getSerializedSize() + trx.getSerializedSize() + 3)
-				> ChainConstant.BLOCK_SIZE) {
+			// check the block size, and leave what would not finish in the budget to a later block.
+			// A pooled transaction left out holds back the later ones of its owner, which stay pooled
+			if (blockSize + trx.getSerializedSize() + 3 > ChainConstant.BLOCK_SIZE
+				|| elapsed + TimeUnit.NANOSECONDS.toMillis(estimate) > budget) {
 				postponedTrxCount++;
+				if (!fromPending) {
+					postponedRepush.add(trx);
+				}
 				continue;
 			}
 			//
@@ -1291,15 +1373,16 @@ public class Manager {
 			if (ownerAddressSet.contains(ownerAddress)) {
 				trx.setVerified(false);
 			}
+			// included or found invalid, either way it leaves the pool
+			if (fromPending) {
+				transactionPool.remove(trx);
+			}
 			// apply transaction
+			boolean applied = false;
 			try (ISession tmpSession = revokingStore.buildSession()) {
 				processTransaction(trx, blockCapsule);
 				tmpSession.merge();
-				// push into block
-				blockCapsule.addTransaction(trx);
-				if (fromPending) {
-					iterator.remove();
-				}
+				applied = true;
 			} catch (ContractExeException e) {
 				logger.info("contract not processed during execute");
 				logger.debug(e.getMessage(), e);
@@ -1333,17 +1416,29 @@ public class Manager {
 			} catch (VMIllegalException e) {
 				logger.warn(e.getMessage(), e);
 			}
+			if (ownerCandidate != null && !ownerCandidate.queue.isEmpty()) {
+				ownerCandidate.rank(executionTimeEstimator);
+				candidates.add(ownerCandidate);
+			}
+			if (applied) {
+				packed.add(trx);
+				blockSize += trx.getSerializedSize() + 3;
+			} else {
+				rejectedTrxCount++;
+			}
 		}
+		blockCapsule.addTransactions(packed);
+		postponedRepush.forEach(repushTransactions::offer);
 
 		session.reset();
 
-		if (postponedTrxCount > 0) {
-			logger.info("{} transactions over the block size limit", postponedTrxCount);
-		}
+		lastPackingStat = new PackingStat(blockCapsule.getNum(), packed.size(), postponedTrxCount,
+			rejectedTrxCount, blockSize, System.currentTimeMillis() - start);
+		logger.info("Pack block {}: packed[{}], postponed[{}], rejected[{}], size[{}], cost[{}ms], "
+				+ "TrxLeft[{}], repushTrxCount[{}]", blockCapsule.getNum(), packed.size(),
+			postponedTrxCount, rejectedTrxCount, blockSize, lastPackingStat.getCost(),
+			transactionPool.size(), getRepushCount());
 
-		logger.info(
-			"postponedTrxCount[" + postponedTrxCount + "],TrxLeft[" + pendingTransactions.size()
-				+ "],repushTrxCount[" + repushTransactions.size() + "]");
 		blockCapsule.setMerkleRoot();
 		blockCapsule.sign(privateKey);
 
@@ -1419,6 +1514,8 @@ public class Manager {
 		DupTransactionException, TransactionExpirationException, ValidateScheduleException,
 		ReceiptCheckErrException, VMIllegalException, TooBigTransactionResultException {
 		// todo set revoking db max size.
+		triggerOfferDeadline = System.nanoTime()
+			+ TimeUnit.MILLISECONDS.toNanos(TRIGGER_OFFER_BUDGET_MS);
 
 		// checkWitness
 		if (!witnessController.validateWitnessSchedule(block)) {
@@ -1428,16 +1525,18 @@ public class Manager {
 		//reset BlockEnergyUsage
 		this.dynamicPropertiesStore.saveBlockEnergyUsage(0);
 
-		//parallel check sign
+		//parallel check sign, tapos, expiration and dup
 		if (!block.generatedByMyself) {
 			try {
-				preValidateTransactionSign(block);
+				preValidateTransactions(block);
 			} catch (InterruptedException e) {
-				logger.error("parallel check sign interrupted exception! block info: {}", block, e);
+				logger.error("parallel pre validate interrupted exception! block info: {}", block, e);
 				Thread.currentThread().interrupt();
 			}
 		}
 
+		prefetchAccounts(block);
+
 		for (TransactionCapsule transactionCapsule : block.getTransactions()) {
 			transactionCapsule.setBlockNum(block.getNum());
 			if (block.generatedByMyself) {
@@ -1468,6 +1567,35 @@ public class Manager {
 	}
 
 
+	/**
+	 * load the owner and receiver accounts of the block into the account capsule cache with one
+	 * batched read, rather than one read each as the transactions are applied.
+	 */
+	private void prefetchAccounts(BlockCapsule block) {
+		if (accountStore.getCapsuleCache() == null) {
+			return;
+		}
+
+		Set<WrappedByteArray> addresses = new LinkedHashSet<>();
+		for (TransactionCapsule trx : block.getTransactions()) {
+			for (Contract contract : trx.getInstance().getRawData().getContractList()) {
+				byte[] owner = TransactionCapsule.getOwner(contract);
+				if (owner != null) {
+					addresses.add(WrappedByteArray.of(owner));
+				}
+				byte[] to = TransactionCapsule.getToAddress(contract);
+				if (to != null) {
+					addresses.add(WrappedByteArray.of(to));
+				}
+			}
+		}
+		if (!addresses.isEmpty()) {
+			accountStore.getAll(addresses.stream()
+				.map(WrappedByteArray::getBytes)
+				.collect(Collectors.toList()));
+		}
+	}
+
 	private void updateTransHashCache(BlockCapsule block) {
 		for (TransactionCapsule transactionCapsule : block.getTransactions()) {
 			this.transactionIdCache.put(transactionCapsule.getTransactionId(), true);
@@ -1706,8 +1834,12 @@ public class Manager {
 	}
 
 	public boolean isTooManyPending() {
-		return getPendingTransactions().size() + getRepushTransactions().size()
-			> MAX_TRANSACTION_PENDING;
+		return transactionPool.size() + getRepushCount() > MAX_TRANSACTION_PENDING;
+	}
+
+	// queued to be pushed again, including the batch the repush thread has drained
+	private int getRepushCount() {
+		return repushTransactions.size() + repushInFlight.size();
 	}
 
 	public boolean isGeneratingBlock() {
@@ -1717,20 +1849,26 @@ public class Manager {
 		return false;
 	}
 
-	public void preValidateTransactionSign(BlockCapsule block)
+	/**
+	 * check the transactions of a block ahead of executing them, one group of transactions on
+	 * disjoint accounts per task. A check whose outcome an earlier transaction of the block could
+	 * change is left to {@link #processTransaction}, which runs it in block order.
+	 */
+	public void preValidateTransactions(BlockCapsule block)
 		throws InterruptedException, ValidateSignatureException {
-		logger.info("PreValidate Transaction Sign, size:" + block.getTransactions().size()
+		logger.info("PreValidate Transactions, size:" + block.getTransactions().size()
 			+ ",block num:" + block.getNum());
-		int transSize = block.getTransactions().size();
-		if (transSize <= 0) {
+		if (block.getTransactions().isEmpty()) {
 			return;
 		}
-		CountDownLatch countDownLatch = new CountDownLatch(transSize);
-		List<Future<Boolean>> futures = new ArrayList<>(transSize);
+		List<List<TransactionCapsule>> groups = TransactionScheduler
+			.partition(block.getTransactions());
+		CountDownLatch countDownLatch = new CountDownLatch(groups.size());
+		List<Future<Boolean>> futures = new ArrayList<>(groups.size());
 
-		for (TransactionCapsule transaction : block.getTransactions()) {
+		for (List<TransactionCapsule> group : groups) {
 			Future<Boolean> future = validateSignService
-				.submit(new ValidateSignTask(transaction, countDownLatch, this));
+				.submit(new PreValidateTask(group, countDownLatch, this));
 			futures.add(future);
 		}
 		countDownLatch.await();
@@ -1772,6 +1910,18 @@ public class Manager {
 		revokingStore.setMode(mode);
 	}
 
+	/**
+	 * @return the state as of the last applied block for api threads to read from, null if the
+	 * head must be read.
+	 */
+	public ReadView getReadView() {
+		return revokingStore.getReadView();
+	}
+
+	void pinReadView() {
+		revokingStore.pinReadView();
+	}
+
 	private void startEventSubscribing() {
 
 		try {
@@ -1792,11 +1942,26 @@ public class Manager {
 		}
 	}
 
+	// waiting slows block application down to the pace of the event plugin, up to the budget of
+	// the block; the lock is held meanwhile, so a full queue must not cost that for every trigger
+	private boolean postTrigger(TriggerCapsule trigger) {
+		long remaining = triggerOfferDeadline - System.nanoTime();
+		if (remaining <= 0) {
+			return triggerCapsuleQueue.offer(trigger);
+		}
+		try {
+			return triggerCapsuleQueue.offer(trigger, remaining, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
 	private void postBlockTrigger(final BlockCapsule newBlock) {
 		if (eventPluginLoaded && EventPluginLoader.getInstance().isBlockLogTriggerEnable()) {
 			BlockLogTriggerCapsule blockLogTriggerCapsule = new BlockLogTriggerCapsule(newBlock);
 			blockLogTriggerCapsule.setLatestSolidifiedBlockNumber(latestSolidifiedBlockNumber);
-			boolean result = triggerCapsuleQueue.offer(blockLogTriggerCapsule);
+			boolean result = postTrigger(blockLogTriggerCapsule);
 			if (!result) {
 				logger.info("too many trigger, lost block trigger: {}", newBlock.getBlockId());
 			}
@@ -1812,7 +1977,7 @@ public class Manager {
 		if (eventPluginLoaded && EventPluginLoader.getInstance().isTransactionLogTriggerEnable()) {
 			TransactionLogTriggerCapsule trx = new TransactionLogTriggerCapsule(trxCap, blockCap);
 			trx.setLatestSolidifiedBlockNumber(latestSolidifiedBlockNumber);
-			boolean result = triggerCapsuleQueue.offer(trx);
+			boolean result = postTrigger(trx);
 			if (!result) {
 				logger.info("too many trigger, lost transaction trigger: {}", trxCap.getTransactionId());
 			}
@@ -1851,14 +2016,14 @@ public class Manager {
 						(LogEventWrapper) trigger);
 					contractEventTriggerCapsule.getContractEventTrigger().setRemoved(remove);
 					contractEventTriggerCapsule.setLatestSolidifiedBlockNumber(latestSolidifiedBlockNumber);
-					result = triggerCapsuleQueue.offer(contractEventTriggerCapsule);
+					result = postTrigger(contractEventTriggerCapsule);
 				} else if (trigger instanceof ContractLogTrigger && EventPluginLoader.getInstance()
 					.isContractLogTriggerEnable()) {
 					ContractLogTriggerCapsule contractLogTriggerCapsule = new ContractLogTriggerCapsule(
 						(ContractLogTrigger) trigger);
 					contractLogTriggerCapsule.getContractLogTrigger().setRemoved(remove);
 					contractLogTriggerCapsule.setLatestSolidifiedBlockNumber(latestSolidifiedBlockNumber);
-					result = triggerCapsuleQueue.offer(contractLogTriggerCapsule);
+					result = postTrigger(contractLogTriggerCapsule);
 				}
 				if (!result) {
 					logger.info("too many triggers, lost contract log trigger: {}", trigger.getTransactionId());
@@ -1867,15 +2032,32 @@ public class Manager {
 		}
 	}
 
-	private static class ValidateSignTask implements Callable<Boolean> {
+	/**
+	 * the checks of {@link #processTransaction} reading only state that no transaction of the
+	 * block writes, against the state before the block.
+	 */
+	private boolean precheck(TransactionCapsule trx) {
+		try {
+			validateTapos(trx);
+			validateCommon(trx);
+			validateDup(trx);
+			return true;
+		} catch (TaposException | TransactionExpirationException | TooBigTransactionException
+			| DupTransactionException e) {
+			// processTransaction runs the checks again and fails the block in order
+			return false;
+		}
+	}
+
+	private static class PreValidateTask implements Callable<Boolean> {
 
-		private TransactionCapsule trx;
+		private List<TransactionCapsule> group;
 		private CountDownLatch countDownLatch;
 		private Manager manager;
 
-		ValidateSignTask(TransactionCapsule trx, CountDownLatch countDownLatch,
-						 Manager manager) {
-			this.trx = trx;
+		PreValidateTask(List<TransactionCapsule> group, CountDownLatch countDownLatch,
+						Manager manager) {
+			this.group = group;
 			this.countDownLatch = countDownLatch;
 			this.manager = manager;
 		}
@@ -1883,13 +2065,53 @@ public class Manager {
 		@Override
 		public Boolean call() throws ValidateSignatureException {
 			try {
-				trx.validateSignature(manager);
-			} catch (ValidateSignatureException e) {
-				throw e;
+				SignatureCache.preload(group);
+				Set<Sha256Hash> seen = new HashSet<>();
+				Set<WrappedByteArray> permissionUpdated = new HashSet<>();
+				for (TransactionCapsule trx : group) {
+					List<Contract> contracts = trx.getInstance().getRawData().getContractList();
+					Contract contract = contracts.isEmpty() ? null : contracts.get(0);
+					WrappedByteArray owner = WrappedByteArray.of(
+						contract == null ? null : TransactionCapsule.getOwner(contract));
+					// a repeated id is a dup of an earlier transaction of the block, and a permission
+					// updated earlier in the block changes who may sign; both are checked serially
+					if (seen.add(trx.getTransactionId()) && !permissionUpdated.contains(owner)) {
+						trx.validateSignature(manager);
+						trx.setPrechecked(manager.precheck(trx));
+					} else {
+						trx.setPrechecked(false);
+					}
+					if (contract != null
+						&& contract.getType() == Contract.ContractType.AccountPermissionUpdateContract) {
+						permissionUpdated.add(owner);
+					}
+				}
 			} finally {
 				countDownLatch.countDown();
 			}
 			return true;
 		}
 	}
+
+	/**
+	 * The pooled transactions of an owner, ranked by the first one. The rank is worked out when the
+	 * first one changes and kept meanwhile, as the estimates move while a block is packed.
+	 */
+	private static class OwnerCandidate {
+
+		private final Deque<TransactionCapsule> queue;
+		private long priority;
+		private long estimate;
+
+		OwnerCandidate(Deque<TransactionCapsule> queue, ExecutionTimeEstimator estimator) {
+			this.queue = queue;
+			rank(estimator);
+		}
+
+		void rank(ExecutionTimeEstimator estimator) {
+			TransactionCapsule first = queue.peekFirst();
+			priority = TransactionPool.priority(first);
+			estimate = estimator.estimate(first);
+		}
+	}
 }
@@ -0,0 +1,23 @@
+package io.midasprotocol.core.db;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * What packing one generated block did with the candidate transactions.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class PackingStat {
+
+	private final long blockNum;
+	private final int packed;
+	// over the block size or the time budget, left for a later block
+	private final int postponed;
+	// failed to execute, dropped
+	private final int rejected;
+	private final long size;
+	private final long cost;
+}
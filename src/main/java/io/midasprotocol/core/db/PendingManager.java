@@ -1,55 +1,61 @@
 package io.midasprotocol.core.db;
 
+import io.midasprotocol.core.capsule.BlockCapsule;
 import io.midasprotocol.core.capsule.TransactionCapsule;
 import io.midasprotocol.core.db.TransactionTrace.TimeResultType;
-import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * Brings the transaction pool up to date around a block push. The pending state is dropped
+ * first; on close, the pooled transactions the block made stale and the ones popped off a
+ * switched fork are queued to be pushed again. The others keep their place and are not executed
+ * again, so the work done here grows with the block, not with the pool.
+ */
 @Slf4j(topic = "DB")
 public class PendingManager implements AutoCloseable {
 
-	@Getter
-	static List<TransactionCapsule> tmpTransactions = new ArrayList<>();
 	Manager dbManager;
+	BlockCapsule block;
 
-	public PendingManager(Manager db) {
+	public PendingManager(Manager db, BlockCapsule block) {
 
 		this.dbManager = db;
-		tmpTransactions.addAll(db.getPendingTransactions());
-		db.getPendingTransactions().clear();
+		this.block = block;
 		db.getSession().reset();
 	}
 
 	@Override
 	public void close() {
-
-		for (TransactionCapsule tx : PendingManager.tmpTransactions) {
-			try {
-				if (tx.getTrxTrace() != null &&
-					tx.getTrxTrace().getTimeResultType().equals(TimeResultType.NORMAL)) {
-					dbManager.getRepushTransactions().put(tx);
-				}
-			} catch (InterruptedException e) {
-				logger.error(e.getMessage());
-				Thread.currentThread().interrupt();
-			}
+		// nothing is pending yet, the heads are the block just applied
+		dbManager.pinReadView();
+
+		List<TransactionCapsule> stale;
+		if (!dbManager.getPoppedTransactions().isEmpty()) {
+			// a fork switch may have undone anything, execute the whole pool again
+			stale = dbManager.getTransactionPool().clear();
+		} else if (block.getBlockId()
+			.equals(dbManager.getDynamicPropertiesStore().getLatestBlockHeaderHash())) {
+			stale = dbManager.getTransactionPool().revalidate(block,
+				dbManager.getDynamicPropertiesStore().getLatestBlockHeaderTimestamp());
+		} else {
+			stale = Collections.emptyList();
 		}
-		tmpTransactions.clear();
-
-		for (TransactionCapsule tx : dbManager.getPoppedTransactions()) {
-			try {
-				if (tx.getTrxTrace() != null &&
-					tx.getTrxTrace().getTimeResultType().equals(TimeResultType.NORMAL)) {
-					dbManager.getRepushTransactions().put(tx);
-				}
-			} catch (InterruptedException e) {
-				logger.error(e.getMessage());
-				Thread.currentThread().interrupt();
+
+		repush(stale);
+		repush(dbManager.getPoppedTransactions());
+		dbManager.getPoppedTransactions().clear();
+	}
+
+	// the block is pushed under the lock the repush thread needs, waiting for room would stall it
+	private void repush(List<TransactionCapsule> transactions) {
+		for (TransactionCapsule tx : transactions) {
+			if (tx.getTrxTrace() != null &&
+				tx.getTrxTrace().getTimeResultType().equals(TimeResultType.NORMAL)) {
+				dbManager.getRepushTransactions().offer(tx);
 			}
 		}
-		dbManager.getPoppedTransactions().clear();
 	}
 }
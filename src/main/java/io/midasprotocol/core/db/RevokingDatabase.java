@@ -2,6 +2,7 @@ package io.midasprotocol.core.db;
 
 import io.midasprotocol.core.db2.common.IRevokingDB;
 import io.midasprotocol.core.db2.core.ISession;
+import io.midasprotocol.core.db2.core.ReadView;
 import io.midasprotocol.core.exception.RevokingStoreIllegalStateException;
 
 public interface RevokingDatabase {
@@ -12,6 +13,16 @@ public interface RevokingDatabase {
 
 	void setMode(boolean mode);
 
+	/**
+	 * pin the current heads as the view api reads go through.
+	 */
+	void pinReadView();
+
+	/**
+	 * @return the last pinned view, null if there is none to read from.
+	 */
+	ReadView getReadView();
+
 	void add(IRevokingDB revokingDB);
 
 	void merge() throws RevokingStoreIllegalStateException;
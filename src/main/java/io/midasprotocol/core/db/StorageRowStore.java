@@ -6,6 +6,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * The storage slots of all contracts, keyed by contract and slot.
+ *
+ * <p>Rows, present or absent, are kept in the capsule cache of the store by default, so a slot
+ * read by many transactions is looked up once until a transaction writes it or a session holding
+ * such a write is revoked. A row read through the cache shares its value with it: a row is given
+ * a new value by {@link StorageRowCapsule#setValue}, never written to in place.
+ */
 @Slf4j(topic = "DB")
 @Component
 public class StorageRowStore extends TronStoreWithRevoking<StorageRowCapsule> {
@@ -13,4 +13,8 @@ public class TransactionCache extends TronStoreWithRevoking<BytesCapsule> {
 	public TransactionCache(@Value("trans-cache") String dbName) {
 		super(dbName, TxCacheDB.class);
 	}
+
+	public boolean isEmpty() {
+		return !iterator().hasNext();
+	}
 }
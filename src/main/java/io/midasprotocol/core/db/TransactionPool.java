@@ -0,0 +1,259 @@
+package io.midasprotocol.core.db;
+
+import io.midasprotocol.common.utils.Sha256Hash;
+import io.midasprotocol.core.capsule.BlockCapsule;
+import io.midasprotocol.core.capsule.ReceiptCapsule;
+import io.midasprotocol.core.capsule.TransactionCapsule;
+import io.midasprotocol.core.db.common.WrappedByteArray;
+import io.midasprotocol.protos.Protocol.Transaction.Contract;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Pending transactions, indexed by id and by owner and ordered by the fee they paid per byte,
+ * then by arrival.
+ *
+ * <p>The pool is bounded in count and in bytes. When it is full the lowest priority transaction
+ * is evicted, which may be the newcomer itself. After a block, {@link #revalidate} drops what
+ * the block included or what expired, and hands back only the transactions whose owner the
+ * block touched, so that those are executed again while the others keep their place.
+ */
+@Slf4j(topic = "DB")
+public class TransactionPool {
+
+	private static final Comparator<Entry> BY_PRIORITY = Comparator
+		.comparingLong((Entry e) -> -e.priority)
+		.thenComparingLong(e -> e.sequence);
+	private static final Comparator<Entry> BY_EXPIRATION = Comparator
+		.comparingLong((Entry e) -> e.expiration)
+		.thenComparingLong(e -> e.sequence);
+
+	private final int maxCount;
+	private final long maxBytes;
+	private final Map<Sha256Hash, Entry> byId = new HashMap<>();
+	private final Map<WrappedByteArray, Set<Entry>> byOwner = new HashMap<>();
+	private final NavigableSet<Entry> byPriority = new TreeSet<>(BY_PRIORITY);
+	private final NavigableSet<Entry> byExpiration = new TreeSet<>(BY_EXPIRATION);
+	@Getter
+	private long bytes;
+	@Getter
+	private long evicted;
+	private long sequence;
+
+	public TransactionPool(int maxCount, long maxBytes) {
+		this.maxCount = maxCount;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * the fee a transaction paid when it last executed, in units per thousand bytes. Transactions
+	 * paid for with frozen bandwidth rank by arrival only.
+	 */
+	static long priority(TransactionCapsule trx) {
+		if (trx.getTrxTrace() == null) {
+			return 0;
+		}
+
+		ReceiptCapsule receipt = trx.getTrxTrace().getReceipt();
+		long fee = receipt.getBandwidthFee() + receipt.getEnergyFee();
+		return fee * 1000 / Math.max(trx.getSerializedSize(), 1);
+	}
+
+	private static WrappedByteArray owner(TransactionCapsule trx) {
+		byte[] owner = TransactionCapsule.getOwner(trx.getInstance().getRawData().getContract(0));
+		return owner == null ? null : WrappedByteArray.of(owner);
+	}
+
+	/**
+	 * @return false if the transaction is already pooled or was evicted right away.
+	 */
+	public synchronized boolean add(TransactionCapsule trx) {
+		Sha256Hash id = trx.getTransactionId();
+		if (byId.containsKey(id)) {
+			return false;
+		}
+
+		Entry entry = new Entry(id, trx, owner(trx), priority(trx), ++sequence);
+		byId.put(id, entry);
+		if (entry.owner != null) {
+			byOwner.computeIfAbsent(entry.owner, k -> new HashSet<>()).add(entry);
+		}
+		byPriority.add(entry);
+		byExpiration.add(entry);
+		bytes += entry.size;
+
+		while (byId.size() > maxCount || bytes > maxBytes) {
+			Entry lowest = byPriority.last();
+			unlink(lowest);
+			++evicted;
+			logger.debug("evict pending transaction {}", lowest.id);
+			if (lowest == entry) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public synchronized boolean contains(Sha256Hash id) {
+		return byId.containsKey(id);
+	}
+
+	public synchronized boolean remove(TransactionCapsule trx) {
+		Entry entry = byId.get(trx.getTransactionId());
+		if (entry == null) {
+			return false;
+		}
+
+		unlink(entry);
+		return true;
+	}
+
+	public synchronized int size() {
+		return byId.size();
+	}
+
+	/**
+	 * the pooled transactions, highest priority first.
+	 */
+	public synchronized List<TransactionCapsule> toList() {
+		return byPriority.stream().map(e -> e.trx).collect(Collectors.toList());
+	}
+
+	/**
+	 * the pooled transactions, in arrival order.
+	 */
+	public synchronized List<TransactionCapsule> toArrivalList() {
+		return byId.values().stream()
+			.sorted(Comparator.comparingLong(e -> e.sequence))
+			.map(e -> e.trx)
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * the pooled transactions grouped by owner, each group in arrival order. A transaction
+	 * without an owner makes a group of its own.
+	 */
+	public synchronized List<Deque<TransactionCapsule>> toOwnerQueues() {
+		List<Deque<TransactionCapsule>> queues = new ArrayList<>(byOwner.size());
+		for (Set<Entry> entries : byOwner.values()) {
+			queues.add(entries.stream()
+				.sorted(Comparator.comparingLong(e -> e.sequence))
+				.map(e -> e.trx)
+				.collect(Collectors.toCollection(ArrayDeque::new)));
+		}
+		for (Entry entry : byId.values()) {
+			if (entry.owner == null) {
+				queues.add(new ArrayDeque<>(Collections.singleton(entry.trx)));
+			}
+		}
+		return queues;
+	}
+
+	/**
+	 * the pooled transactions of an owner, in arrival order.
+	 */
+	public synchronized List<TransactionCapsule> getByOwner(byte[] owner) {
+		return byOwner.getOrDefault(WrappedByteArray.of(owner), Collections.emptySet()).stream()
+			.sorted(Comparator.comparingLong(e -> e.sequence))
+			.map(e -> e.trx)
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * empty the pool.
+	 *
+	 * @return what it held, in arrival order.
+	 */
+	public synchronized List<TransactionCapsule> clear() {
+		List<TransactionCapsule> all = toArrivalList();
+		byId.clear();
+		byOwner.clear();
+		byPriority.clear();
+		byExpiration.clear();
+		bytes = 0;
+		return all;
+	}
+
+	/**
+	 * bring the pool up to date with a block that became the head: drop the transactions it
+	 * included and the ones expired at its timestamp, then take out the transactions of every
+	 * account the block sent from or to, whose earlier execution may no longer hold.
+	 *
+	 * @return the transactions taken out to be executed again, in arrival order.
+	 */
+	public synchronized List<TransactionCapsule> revalidate(BlockCapsule block, long headTimestamp) {
+		Set<WrappedByteArray> touched = new HashSet<>();
+		for (TransactionCapsule trx : block.getTransactions()) {
+			Entry entry = byId.get(trx.getTransactionId());
+			if (entry != null) {
+				unlink(entry);
+			}
+			for (Contract contract : trx.getInstance().getRawData().getContractList()) {
+				byte[] owner = TransactionCapsule.getOwner(contract);
+				if (owner != null) {
+					touched.add(WrappedByteArray.of(owner));
+				}
+				byte[] to = TransactionCapsule.getToAddress(contract);
+				if (to != null) {
+					touched.add(WrappedByteArray.of(to));
+				}
+			}
+		}
+
+		while (!byExpiration.isEmpty() && byExpiration.first().expiration <= headTimestamp) {
+			unlink(byExpiration.first());
+		}
+
+		List<Entry> stale = new ArrayList<>();
+		for (WrappedByteArray account : touched) {
+			Set<Entry> entries = byOwner.get(account);
+			if (entries != null) {
+				stale.addAll(entries);
+			}
+		}
+		stale.forEach(this::unlink);
+		return stale.stream()
+			.sorted(Comparator.comparingLong(e -> e.sequence))
+			.map(e -> e.trx)
+			.collect(Collectors.toList());
+	}
+
+	private void unlink(Entry entry) {
+		byId.remove(entry.id);
+		if (entry.owner != null) {
+			Set<Entry> entries = byOwner.get(entry.owner);
+			entries.remove(entry);
+			if (entries.isEmpty()) {
+				byOwner.remove(entry.owner);
+			}
+		}
+		byPriority.remove(entry);
+		byExpiration.remove(entry);
+		bytes -= entry.size;
+	}
+
+	private static final class Entry {
+
+		private final Sha256Hash id;
+		private final TransactionCapsule trx;
+		private final WrappedByteArray owner;
+		private final long priority;
+		private final long sequence;
+		private final long expiration;
+		private final long size;
+
+		private Entry(Sha256Hash id, TransactionCapsule trx, WrappedByteArray owner, long priority,
+			long sequence) {
+			this.id = id;
+			this.trx = trx;
+			this.owner = owner;
+			this.priority = priority;
+			this.sequence = sequence;
+			this.expiration = trx.getExpiration();
+			this.size = trx.getSerializedSize();
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package io.midasprotocol.core.db;
+
+import io.midasprotocol.core.capsule.TransactionCapsule;
+import io.midasprotocol.core.db.common.WrappedByteArray;
+import io.midasprotocol.protos.Protocol.Transaction.Contract;
+
+import java.util.*;
+
+/**
+ * Splits the transactions of a block into groups touching disjoint accounts, so the checks
+ * that run ahead of execution can take one group per thread.
+ *
+ * <p>A transaction accesses its owner and its receiver; one whose owner is unknown accesses
+ * every account. Transactions sharing an account, directly or through others, land in one
+ * group in block order, and groups are ordered by their first transaction, so the split only
+ * depends on the block.
+ */
+public final class TransactionScheduler {
+
+	private static final WrappedByteArray ANY_ACCOUNT = WrappedByteArray.of(new byte[0]);
+
+	private TransactionScheduler() {
+	}
+
+	public static Set<WrappedByteArray> accounts(TransactionCapsule trx) {
+		Set<WrappedByteArray> accounts = new HashSet<>();
+		for (Contract contract : trx.getInstance().getRawData().getContractList()) {
+			byte[] owner = TransactionCapsule.getOwner(contract);
+			accounts.add(owner == null ? ANY_ACCOUNT : WrappedByteArray.of(owner));
+			byte[] to = TransactionCapsule.getToAddress(contract);
+			if (to != null) {
+				accounts.add(WrappedByteArray.of(to));
+			}
+		}
+		return accounts;
+	}
+
+	public static List<List<TransactionCapsule>> partition(List<TransactionCapsule> transactions) {
+		int[] parent = new int[transactions.size()];
+		Map<WrappedByteArray, Integer> firstAccess = new HashMap<>();
+		for (int i = 0; i < parent.length; ++i) {
+			parent[i] = i;
+			Set<WrappedByteArray> accounts = accounts(transactions.get(i));
+			if (accounts.contains(ANY_ACCOUNT)) {
+				return Collections.singletonList(new ArrayList<>(transactions));
+			}
+			for (WrappedByteArray account : accounts) {
+				Integer first = firstAccess.putIfAbsent(account, i);
+				if (first != null) {
+					union(parent, first, i);
+				}
+			}
+		}
+
+		// roots are the smallest index of their group, so groups come out in block order
+		Map<Integer, List<TransactionCapsule>> groups = new LinkedHashMap<>();
+		for (int i = 0; i < parent.length; ++i) {
+			groups.computeIfAbsent(find(parent, i), k -> new ArrayList<>()).add(transactions.get(i));
+		}
+		return new ArrayList<>(groups.values());
+	}
+
+	private static int find(int[] parent, int i) {
+		while (parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
+	}
+
+	private static void union(int[] parent, int a, int b) {
+		int ra = find(parent, a);
+		int rb = find(parent, b);
+		if (ra < rb) {
+			parent[rb] = ra;
+		} else if (rb < ra) {
+			parent[ra] = rb;
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package io.midasprotocol.core.db;
 
 import com.google.protobuf.ByteString;
+import io.midasprotocol.common.runtime.NativeRuntime;
 import io.midasprotocol.common.runtime.Runtime;
 import io.midasprotocol.common.runtime.RuntimeImpl;
 import io.midasprotocol.common.runtime.vm.program.InternalTransaction;
@@ -66,14 +67,16 @@ public class TransactionTrace {
 		this.dbManager = dbManager;
 		this.receipt = new ReceiptCapsule(Sha256Hash.ZERO_HASH);
 
-		this.energyProcessor = new EnergyProcessor(this.dbManager);
+		if (needVM()) {
+			this.energyProcessor = new EnergyProcessor(this.dbManager);
+		}
 	}
 
 	public TransactionCapsule getTrx() {
 		return trx;
 	}
 
-	private boolean needVM() {
+	boolean needVM() {
 		return this.trxType == TRX_CONTRACT_CALL_TYPE || this.trxType == TRX_CONTRACT_CREATION_TYPE;
 	}
 
@@ -84,6 +87,10 @@ public class TransactionTrace {
 	//pre transaction check
 	public void init(BlockCapsule blockCap, boolean eventPluginLoaded) {
 		txStartTimeInMs = System.currentTimeMillis();
+		if (!needVM()) {
+			runtime = new NativeRuntime(trx, dbManager);
+			return;
+		}
 		DepositImpl deposit = DepositImpl.createRoot(dbManager);
 		runtime = new RuntimeImpl(this, blockCap, deposit, new ProgramInvokeFactoryImpl());
 		runtime.setEnableEventLinstener(eventPluginLoaded);
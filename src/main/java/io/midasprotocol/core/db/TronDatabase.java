@@ -15,6 +15,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.nio.file.Paths;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map.Entry;
 
 @Slf4j(topic = "DB")
@@ -85,4 +86,19 @@ public abstract class TronDatabase<T> implements ITronChainBase<T> {
 	public Iterator<Entry<byte[], T>> iterator() {
 		throw new UnsupportedOperationException();
 	}
+
+	@Override
+	public List<T> getAll(List<byte[]> keys) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public List<Entry<byte[], T>> getRange(byte[] from, byte[] to, long limit) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public List<Entry<byte[], T>> getPrefix(byte[] prefix, long limit) {
+		throw new UnsupportedOperationException();
+	}
 }
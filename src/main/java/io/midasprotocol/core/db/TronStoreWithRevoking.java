@@ -12,6 +12,7 @@ import io.midasprotocol.core.db2.common.IRevokingDB;
 import io.midasprotocol.core.db2.common.LevelDB;
 import io.midasprotocol.core.db2.common.RocksDB;
 import io.midasprotocol.core.db2.core.ITronChainBase;
+import io.midasprotocol.core.db2.core.RangeIterator;
 import io.midasprotocol.core.db2.core.RevokingDBWithCachingNewValue;
 import io.midasprotocol.core.db2.core.RevokingDBWithCachingOldValue;
 import io.midasprotocol.core.exception.BadItemException;
@@ -23,7 +24,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import javax.annotation.PostConstruct;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -40,6 +43,10 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
 	private RevokingDatabase revokingDatabase;
 	@Getter
 	private String dbName;
+	@Getter
+	private CapsuleCache capsuleCache;
+	private volatile Constructor bytesConstructor;
+	private Constructor instanceConstructor;
 
 	protected TronStoreWithRevoking(String dbName) {
 		this.dbName = dbName;
@@ -56,6 +63,7 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
 		} else {
 			throw new RuntimeException("db version is error.");
 		}
+		initCapsuleCache();
 	}
 
 	protected TronStoreWithRevoking(String dbName, Class<? extends DB> clz) {
@@ -66,6 +74,7 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
 		} else {
 			throw new RuntimeException("db version is only 2.(" + dbVersion + ")");
 		}
+		initCapsuleCache();
 	}
 
 	// only for test
@@ -79,6 +88,30 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
 		revokingDatabase.add(revokingDB);
 	}
 
+	private void initCapsuleCache() {
+		int cacheSize = Args.getInstance().getStorage().getCapsuleCacheSizeByDbName(dbName);
+		if (cacheSize <= 0) {
+			return;
+		}
+
+		if (!(revokingDB instanceof RevokingDBWithCachingNewValue)) {
+			logger.warn("capsule cache of {} is only supported by db version 2, disabled.", dbName);
+			return;
+		}
+
+		try {
+			Class<?> instanceType = token.getRawType().getMethod("getInstance").getReturnType();
+			instanceConstructor = token.getRawType().getConstructor(instanceType);
+		} catch (NoSuchMethodException e) {
+			logger.warn("capsule cache of {} is disabled, {} can not be built from its instance.",
+				dbName, token.getRawType().getSimpleName());
+			return;
+		}
+
+		capsuleCache = new CapsuleCache(cacheSize);
+		((RevokingDBWithCachingNewValue) revokingDB).setChangeListener(capsuleCache::invalidate);
+	}
+
 	@Override
 	public void put(byte[] key, T item) {
 		if (Objects.isNull(key) || Objects.isNull(item)) {
@@ -95,31 +128,132 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
 
 	@Override
 	public T get(byte[] key) throws ItemNotFoundException, BadItemException {
-		return of(revokingDB.get(key));
+		if (!isCacheable()) {
+			return of(revokingDB.get(key));
+		}
+
+		T t = fromCache(key);
+		if (t == null) {
+			long version = capsuleCache.version();
+			t = of(revokingDB.get(key));
+			toCache(key, t, version);
+		}
+		return t;
 	}
 
 	@Override
 	public T getUnchecked(byte[] key) {
-		byte[] value = revokingDB.getUnchecked(key);
+		boolean cacheable = isCacheable();
+		T t = cacheable ? fromCache(key) : null;
+		if (t != null) {
+			return t;
+		}
+
+		long version = cacheable ? capsuleCache.version() : 0;
+		byte[] value = null;
+		if (!cacheable || !capsuleCache.isAbsent(key)) {
+			value = revokingDB.getUnchecked(key);
+			if (value == null && cacheable) {
+				capsuleCache.putAbsent(key, version);
+			}
+		}
 
 		try {
-			return of(value);
+			t = of(value);
 		} catch (BadItemException e) {
 			return null;
 		}
+
+		if (value != null && cacheable) {
+			toCache(key, t, version);
+		}
+		return t;
+	}
+
+	// cached items are served first, the rest are read from the revoking db in one batch
+	@Override
+	public List<T> getAll(List<byte[]> keys) {
+		boolean cacheable = isCacheable();
+		List<T> result = new ArrayList<>(keys.size());
+		List<Integer> misses = new ArrayList<>();
+		for (byte[] key : keys) {
+			T t = cacheable ? fromCache(key) : null;
+			if (t == null) {
+				misses.add(result.size());
+			}
+			result.add(t);
+		}
+		if (misses.isEmpty()) {
+			return result;
+		}
+
+		long version = cacheable ? capsuleCache.version() : 0;
+		List<byte[]> missed = new ArrayList<>(misses.size());
+		misses.forEach(i -> missed.add(keys.get(i)));
+		List<byte[]> values = revokingDB.getAll(missed);
+		for (int i = 0; i < misses.size(); ++i) {
+			byte[] value = values.get(i);
+			if (value == null) {
+				continue;
+			}
+
+			T t;
+			try {
+				t = of(value);
+			} catch (BadItemException e) {
+				continue;
+			}
+			result.set(misses.get(i), t);
+			if (cacheable) {
+				toCache(missed.get(i), t, version);
+			}
+		}
+		return result;
 	}
 
 	public T of(byte[] value) throws BadItemException {
 		try {
-			Constructor constructor = token.getRawType().getConstructor(byte[].class);
+			if (bytesConstructor == null) {
+				bytesConstructor = token.getRawType().getConstructor(byte[].class);
+			}
 			@SuppressWarnings("unchecked")
-			T t = (T) constructor.newInstance((Object) value);
+			T t = (T) bytesConstructor.newInstance((Object) value);
 			return t;
 		} catch (NoSuchMethodException | IllegalAccessException | InstantiationException | InvocationTargetException e) {
 			throw new BadItemException(e.getMessage());
 		}
 	}
 
+	// solidity and read view reads see an older state than the cache, they always go to the
+	// revoking db
+	private boolean isCacheable() {
+		return capsuleCache != null
+			&& !((RevokingDBWithCachingNewValue) revokingDB).isPinnedRead();
+	}
+
+	private T fromCache(byte[] key) {
+		Object instance = capsuleCache.get(key);
+		if (instance == null) {
+			return null;
+		}
+
+		try {
+			@SuppressWarnings("unchecked")
+			T t = (T) instanceConstructor.newInstance(instance);
+			return t;
+		} catch (IllegalAccessException | InstantiationException | InvocationTargetException e) {
+			logger.warn("capsule cache of {} failed to build {}.", dbName, e.getMessage());
+			return null;
+		}
+	}
+
+	private void toCache(byte[] key, T t, long version) {
+		Object instance = t.getInstance();
+		if (instance != null) {
+			capsuleCache.put(key, instance, version);
+		}
+	}
+
 	@Override
 	public boolean has(byte[] key) {
 		return revokingDB.has(key);
@@ -138,6 +272,9 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
 	@Override
 	public void reset() {
 		revokingDB.reset();
+		if (capsuleCache != null) {
+			capsuleCache.invalidateAll();
+		}
 	}
 
 	@Override
@@ -151,6 +288,25 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> implements I
 		});
 	}
 
+	// an item that does not decode is logged and left out, as the reads by key leave it
+	@Override
+	public List<Map.Entry<byte[], T>> getRange(byte[] from, byte[] to, long limit) {
+		List<Map.Entry<byte[], T>> result = new ArrayList<>();
+		for (Map.Entry<byte[], byte[]> e : revokingDB.getRange(from, to, limit)) {
+			try {
+				result.add(Maps.immutableEntry(e.getKey(), of(e.getValue())));
+			} catch (BadItemException e1) {
+				logger.warn("skip bad item in {}: {}", dbName, e1.getMessage());
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public List<Map.Entry<byte[], T>> getPrefix(byte[] prefix, long limit) {
+		return getRange(prefix, RangeIterator.upperBound(prefix), limit);
+	}
+
 	public long size() {
 		return Streams.stream(revokingDB.iterator()).count();
 	}
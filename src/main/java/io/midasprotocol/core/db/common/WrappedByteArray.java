@@ -1,16 +1,23 @@
 package io.midasprotocol.core.db.common;
 
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 
 import java.util.Arrays;
 
-@AllArgsConstructor(access = AccessLevel.PRIVATE)
+/**
+ * Immutable view of a byte array with a cached hash code.
+ *
+ * <p>{@link #of(byte[])} does not copy, the wrapped array must not be modified afterwards.
+ */
 public final class WrappedByteArray {
 
 	@Getter
-	private byte[] bytes;
+	private final byte[] bytes;
+	private int hash;
+
+	private WrappedByteArray(byte[] bytes) {
+		this.bytes = bytes;
+	}
 
 	public static WrappedByteArray of(byte[] bytes) {
 		return new WrappedByteArray(bytes);
@@ -34,11 +41,16 @@ public final class WrappedByteArray {
 			return false;
 		}
 		WrappedByteArray byteArray = (WrappedByteArray) o;
-		return Arrays.equals(bytes, byteArray.bytes);
+		return hashCode() == byteArray.hashCode() && Arrays.equals(bytes, byteArray.bytes);
 	}
 
 	@Override
 	public int hashCode() {
-		return Arrays.hashCode(bytes);
+		int h = hash;
+		if (h == 0 && bytes != null) {
+			h = Arrays.hashCode(bytes);
+			hash = h;
+		}
+		return h;
 	}
 }
@@ -12,6 +12,7 @@ public final class RockStoreIterator implements DBIterator {
 
 	private RocksIterator dbIterator;
 	private boolean first = true;
+	private boolean closed = false;
 
 	public RockStoreIterator(RocksIterator dbIterator) {
 		this.dbIterator = dbIterator;
@@ -19,7 +20,16 @@ public final class RockStoreIterator implements DBIterator {
 
 	@Override
 	public void close() throws IOException {
-		dbIterator.close();
+		if (!closed) {
+			closed = true;
+			dbIterator.close();
+		}
+	}
+
+	@Override
+	public void seek(byte[] key) {
+		dbIterator.seek(key);
+		first = false;
 	}
 
 	@Override
@@ -31,13 +41,13 @@ public final class RockStoreIterator implements DBIterator {
 				dbIterator.seekToFirst();
 				first = false;
 			}
-			if (!(hasNext = dbIterator.isValid())) { // false is last item
-				dbIterator.close();
+			if (!(hasNext = !closed && dbIterator.isValid())) { // false is last item
+				close();
 			}
 		} catch (Exception e) {
 			System.out.println("e:" + e);
 			try {
-				dbIterator.close();
+				close();
 			} catch (Exception e1) {
 				System.out.println("e1:" + e1);
 			}
@@ -11,6 +11,7 @@ public final class StoreIterator implements io.midasprotocol.core.db.common.iter
 
 	private DBIterator dbIterator;
 	private boolean first = true;
+	private boolean closed = false;
 
 	public StoreIterator(DBIterator dbIterator) {
 		this.dbIterator = dbIterator;
@@ -18,7 +19,16 @@ public final class StoreIterator implements io.midasprotocol.core.db.common.iter
 
 	@Override
 	public void close() throws IOException {
-		dbIterator.close();
+		if (!closed) {
+			closed = true;
+			dbIterator.close();
+		}
+	}
+
+	@Override
+	public void seek(byte[] key) {
+		dbIterator.seek(key);
+		first = false;
 	}
 
 	@Override
@@ -31,8 +41,8 @@ public final class StoreIterator implements io.midasprotocol.core.db.common.iter
 				first = false;
 			}
 
-			if (!(hasNext = dbIterator.hasNext())) { // false is last item
-				dbIterator.close();
+			if (!(hasNext = !closed && dbIterator.hasNext())) { // false is last item
+				close();
 			}
 		} catch (Exception e) {
 			logger.debug(e.getMessage(), e);
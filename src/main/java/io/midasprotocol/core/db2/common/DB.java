@@ -1,11 +1,20 @@
 package io.midasprotocol.core.db2.common;
 
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 public interface DB<K, V> extends Iterable<Map.Entry<K, V>> {
 
 	V get(K k);
 
+	/**
+	 * @return the values of keys in their order, null for a missing key.
+	 */
+	default List<V> getAll(List<K> keys) {
+		return keys.stream().map(this::get).collect(Collectors.toList());
+	}
+
 	void put(K k, V v);
 
 	long size();
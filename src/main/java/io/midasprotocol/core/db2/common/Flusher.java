@@ -1,13 +1,22 @@
 package io.midasprotocol.core.db2.common;
 
+import io.midasprotocol.common.storage.BatchSink;
 import io.midasprotocol.core.db.common.WrappedByteArray;
 
 import java.util.Map;
+import java.util.function.Consumer;
 
 public interface Flusher {
 
 	void flush(Map<WrappedByteArray, WrappedByteArray> batch);
 
+	/**
+	 * write rows in order as one batch, a later row overrides an earlier one with the same key.
+	 *
+	 * @return the number of key and value bytes written.
+	 */
+	long flush(Consumer<BatchSink<byte[], byte[]>> rows);
+
 	void close();
 
 	void reset();
@@ -2,6 +2,7 @@ package io.midasprotocol.core.db2.common;
 
 import io.midasprotocol.core.exception.ItemNotFoundException;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -17,6 +18,13 @@ public interface IRevokingDB extends Iterable<Map.Entry<byte[], byte[]>> {
 
 	byte[] getUnchecked(byte[] key);
 
+	/**
+	 * read many keys in one pass over the layers and one batched read of the db below them.
+	 *
+	 * @return the values in the order of keys, null for a missing key.
+	 */
+	List<byte[]> getAll(List<byte[]> keys);
+
 	void close();
 
 	void reset();
@@ -29,4 +37,9 @@ public interface IRevokingDB extends Iterable<Map.Entry<byte[], byte[]>> {
 	// for blockstore
 	Set<byte[]> getValuesNext(byte[] key, long limit);
 
+	/**
+	 * at most limit entries with from <= key < to in key order, either bound may be null.
+	 */
+	List<Map.Entry<byte[], byte[]>> getRange(byte[] from, byte[] to, long limit);
+
 }
@@ -2,12 +2,12 @@ package io.midasprotocol.core.db2.common;
 
 import io.midasprotocol.core.db.common.WrappedByteArray;
 import lombok.EqualsAndHashCode;
-
-import java.util.Arrays;
+import lombok.Getter;
 
 @EqualsAndHashCode
 public final class Key {
 
+	@Getter
 	final private WrappedByteArray data;
 
 	private Key(WrappedByteArray data) {
@@ -22,12 +22,10 @@ public final class Key {
 		return new Key(WrappedByteArray.of(bytes));
 	}
 
+	/**
+	 * the wrapped array itself, callers must not modify it.
+	 */
 	public byte[] getBytes() {
-		byte[] key = data.getBytes();
-		if (key == null) {
-			return null;
-		}
-
-		return Arrays.copyOf(key, key.length);
+		return data.getBytes();
 	}
 }
@@ -1,6 +1,7 @@
 package io.midasprotocol.core.db2.common;
 
 import com.google.common.collect.Maps;
+import io.midasprotocol.common.storage.BatchSink;
 import io.midasprotocol.common.storage.WriteOptionsWrapper;
 import io.midasprotocol.common.storage.leveldb.LevelDbDataSourceImpl;
 import io.midasprotocol.core.config.args.Args;
@@ -9,7 +10,9 @@ import io.midasprotocol.core.db.common.iterator.DBIterator;
 import lombok.Getter;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public class LevelDB implements DB<byte[], byte[]>, Flusher {
 
@@ -28,6 +31,11 @@ public class LevelDB implements DB<byte[], byte[]>, Flusher {
 		return db.getData(key);
 	}
 
+	@Override
+	public List<byte[]> getAll(List<byte[]> keys) {
+		return db.getAll(keys);
+	}
+
 	@Override
 	public void put(byte[] key, byte[] value) {
 		db.putData(key, value);
@@ -62,6 +70,11 @@ public class LevelDB implements DB<byte[], byte[]>, Flusher {
 //    db.reOpen();
 	}
 
+	@Override
+	public long flush(Consumer<BatchSink<byte[], byte[]>> rows) {
+		return db.updateByBatch(rows, writeOptions);
+	}
+
 	@Override
 	public void close() {
 		db.closeDB();
@@ -1,6 +1,7 @@
 package io.midasprotocol.core.db2.common;
 
 import com.google.common.collect.Maps;
+import io.midasprotocol.common.storage.BatchSink;
 import io.midasprotocol.common.storage.WriteOptionsWrapper;
 import io.midasprotocol.common.storage.leveldb.RocksDbDataSourceImpl;
 import io.midasprotocol.core.config.args.Args;
@@ -10,7 +11,9 @@ import lombok.Getter;
 
 import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public class RocksDB implements DB<byte[], byte[]>, Flusher {
 
@@ -30,6 +33,11 @@ public class RocksDB implements DB<byte[], byte[]>, Flusher {
 		return db.getData(key);
 	}
 
+	@Override
+	public List<byte[]> getAll(List<byte[]> keys) {
+		return db.getAll(keys);
+	}
+
 	@Override
 	public void put(byte[] key, byte[] value) {
 		db.putData(key, value);
@@ -63,6 +71,11 @@ public class RocksDB implements DB<byte[], byte[]>, Flusher {
 		db.updateByBatch(rows, optionsWrapper);
 	}
 
+	@Override
+	public long flush(Consumer<BatchSink<byte[], byte[]>> rows) {
+		return db.updateByBatch(rows, optionsWrapper);
+	}
+
 	@Override
 	public void close() {
 		db.closeDB();
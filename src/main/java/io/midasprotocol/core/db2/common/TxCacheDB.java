@@ -1,96 +1,414 @@
 package io.midasprotocol.core.db2.common;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Iterators;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
 import com.google.common.primitives.Longs;
+import com.google.common.primitives.UnsignedBytes;
+import io.midasprotocol.common.storage.BatchSink;
+import io.midasprotocol.common.storage.DbSourceInter;
+import io.midasprotocol.common.storage.WriteOptionsWrapper;
+import io.midasprotocol.common.storage.leveldb.LevelDbDataSourceImpl;
+import io.midasprotocol.common.storage.leveldb.RocksDbDataSourceImpl;
+import io.midasprotocol.common.utils.Sha256Hash;
+import io.midasprotocol.core.config.args.Args;
 import io.midasprotocol.core.db.common.WrappedByteArray;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.Iterator;
-import java.util.Map;
-import java.util.Set;
-import java.util.WeakHashMap;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.Consumer;
 
+/**
+ * Transaction id cache kept as a ring of per-block segments.
+ *
+ * <p>Slot {@code blockNum % BLOCK_COUNT} holds the sorted ids of one block, so a newer block
+ * evicts the block that is out of the reference window in one step. Every segment is persisted
+ * under its block number, which lets a restart reload the cache without replaying blocks.
+ * Lookups go through an open addressing table of id fingerprints and never allocate.
+ */
 @Slf4j(topic = "DB")
 public class TxCacheDB implements DB<byte[], byte[]>, Flusher {
 
 	// > 65_536(= 2^16) blocks, that is the number of the reference block
-	private final int BLOCK_COUNT = 70_000;
+	private static final int BLOCK_COUNT = 70_000;
+	private static final int ID_LENGTH = Sha256Hash.LENGTH;
+	private static final int INITIAL_CAPACITY = 1 << 16;
+	private static final long EMPTY = Long.MIN_VALUE;
 
-	private Map<Key, Long> db = new WeakHashMap<>();
-	private Multimap<Long, Key> blockNumMap = ArrayListMultimap.create();
+	private DbSourceInter<byte[]> persistent;
+	private WriteOptionsWrapper writeOptions = WriteOptionsWrapper.getInstance()
+		.sync(Args.getInstance().getStorage().isDbSync());
+
+	private long[] blockNums = new long[BLOCK_COUNT];
+	private byte[][] segments = new byte[BLOCK_COUNT][];
+	private BitSet dirty = new BitSet(BLOCK_COUNT);
+	private Set<Long> evicted = new HashSet<>();
+
+	// fingerprint (first 8 bytes of the id) -> block number
+	private long[] fingerprints;
+	private long[] owners;
+	private int mask;
+	private int count;
+
+	public TxCacheDB(String parentName, String name) {
+		if ("ROCKSDB".equals(Args.getInstance().getStorage().getDbEngine().toUpperCase())) {
+			persistent = new RocksDbDataSourceImpl(
+				Paths.get(parentName, Args.getInstance().getStorage().getDbDirectory()).toString(), name);
+		} else {
+			persistent = new LevelDbDataSourceImpl(parentName, name);
+		}
+		persistent.initDB();
+		clear();
+		load();
+	}
+
+	private void load() {
+		long start = System.currentTimeMillis();
+		for (Map.Entry<byte[], byte[]> e : persistent) {
+			long blockNum = Longs.fromByteArray(e.getKey());
+			byte[] segment = e.getValue();
+			int slot = slot(blockNum);
+			if (segments[slot] != null) {
+				if (blockNums[slot] > blockNum) {
+					evicted.add(blockNum);
+					continue;
+				}
+				evict(slot);
+			}
+
+			blockNums[slot] = blockNum;
+			segments[slot] = segment;
+			for (int i = 0; i < segment.length; i += ID_LENGTH) {
+				tablePut(fingerprint(segment, i), blockNum);
+			}
+		}
+
+		persist();
+		logger.info("load txs cache. trxids:{}, cost:{}", count, System.currentTimeMillis() - start);
+	}
 
 	@Override
-	public byte[] get(byte[] key) {
-		Long v = db.get(Key.of(key));
-		return v == null ? null : Longs.toByteArray(v);
+	public synchronized byte[] get(byte[] key) {
+		long blockNum = find(key);
+		return blockNum == EMPTY ? null : Longs.toByteArray(blockNum);
+	}
+
+	public synchronized boolean has(byte[] key) {
+		return find(key) != EMPTY;
 	}
 
 	@Override
-	public void put(byte[] key, byte[] value) {
+	public synchronized void put(byte[] key, byte[] value) {
 		if (key == null || value == null) {
 			return;
 		}
 
-		Key k = Key.copyOf(key);
-		Long v = Longs.fromByteArray(value);
-		blockNumMap.put(v, k);
-		db.put(k, v);
-		removeEldest();
+		insert(Longs.fromByteArray(value), Collections.singletonList(key));
 	}
 
-	private void removeEldest() {
-		Set<Long> keys = blockNumMap.keySet();
-		if (keys.size() > BLOCK_COUNT) {
-			keys.stream()
-				.min(Long::compareTo)
-				.ifPresent(k -> {
-					blockNumMap.removeAll(k);
-					logger.debug("******removeEldest block number:{}, block count:{}", k, keys.size());
-				});
-		}
+	@Override
+	public synchronized long size() {
+		return count;
 	}
 
 	@Override
-	public long size() {
-		return db.size();
+	public synchronized boolean isEmpty() {
+		return count == 0;
 	}
 
 	@Override
-	public boolean isEmpty() {
-		return db.isEmpty();
+	public synchronized void remove(byte[] key) {
+		if (key == null) {
+			return;
+		}
+
+		long blockNum = find(key);
+		if (blockNum != EMPTY) {
+			removeId(key, blockNum);
+		}
 	}
 
 	@Override
-	public void remove(byte[] key) {
-		if (key != null) {
-			db.remove(Key.of(key));
-		}
+	public synchronized Iterator<Map.Entry<byte[], byte[]>> iterator() {
+		// segments are never modified in place, so a copy of the ring is a consistent view
+		final long[] nums = blockNums.clone();
+		final byte[][] view = segments.clone();
+		return new AbstractIterator<Map.Entry<byte[], byte[]>>() {
+			private int slot = 0;
+			private int offset = 0;
+
+			@Override
+			protected Map.Entry<byte[], byte[]> computeNext() {
+				while (slot < BLOCK_COUNT && (view[slot] == null || offset >= view[slot].length)) {
+					++slot;
+					offset = 0;
+				}
+				if (slot >= BLOCK_COUNT) {
+					return endOfData();
+				}
+
+				byte[] id = Arrays.copyOfRange(view[slot], offset, offset + ID_LENGTH);
+				offset += ID_LENGTH;
+				return Maps.immutableEntry(id, Longs.toByteArray(nums[slot]));
+			}
+		};
 	}
 
 	@Override
-	public Iterator<Map.Entry<byte[], byte[]>> iterator() {
-		return Iterators.transform(db.entrySet().iterator(),
-			e -> Maps.immutableEntry(e.getKey().getBytes(), Longs.toByteArray(e.getValue())));
+	public synchronized void flush(Map<WrappedByteArray, WrappedByteArray> batch) {
+		Map<Long, List<byte[]>> blocks = new HashMap<>();
+		batch.forEach((k, v) -> {
+			if (v.getBytes() == null) {
+				remove(k.getBytes());
+			} else {
+				blocks.computeIfAbsent(Longs.fromByteArray(v.getBytes()), n -> new ArrayList<>())
+					.add(k.getBytes());
+			}
+		});
+		blocks.forEach(this::insert);
+		persist();
 	}
 
 	@Override
-	public void flush(Map<WrappedByteArray, WrappedByteArray> batch) {
-		batch.forEach((k, v) -> this.put(k.getBytes(), v.getBytes()));
+	public synchronized long flush(Consumer<BatchSink<byte[], byte[]>> rows) {
+		Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>();
+		long[] bytes = new long[1];
+		rows.accept((key, value) -> {
+			batch.put(WrappedByteArray.of(key), WrappedByteArray.of(value));
+			bytes[0] += key.length + (value == null ? 0 : value.length);
+		});
+		flush(batch);
+		return bytes[0];
 	}
 
 	@Override
-	public void close() {
-		reset();
-		db = null;
-		blockNumMap = null;
+	public synchronized void close() {
+		persist();
+		persistent.closeDB();
 	}
 
 	@Override
-	public void reset() {
-		db.clear();
-		blockNumMap.clear();
+	public synchronized void reset() {
+		clear();
+		persistent.resetDb();
+	}
+
+	private void clear() {
+		Arrays.fill(blockNums, EMPTY);
+		Arrays.fill(segments, null);
+		dirty.clear();
+		evicted.clear();
+		fingerprints = new long[INITIAL_CAPACITY];
+		owners = new long[INITIAL_CAPACITY];
+		Arrays.fill(owners, EMPTY);
+		mask = INITIAL_CAPACITY - 1;
+		count = 0;
+	}
+
+	private void insert(long blockNum, List<byte[]> ids) {
+		int slot = slot(blockNum);
+		if (segments[slot] != null && blockNums[slot] != blockNum) {
+			if (blockNums[slot] > blockNum) {
+				return;
+			}
+			evict(slot);
+		}
+
+		Set<byte[]> unique = new TreeSet<>(UnsignedBytes.lexicographicalComparator());
+		for (byte[] id : ids) {
+			if (id.length != ID_LENGTH) {
+				throw new IllegalArgumentException("transaction id length must be " + ID_LENGTH);
+			}
+			long owner = find(id);
+			if (owner == blockNum) {
+				continue;
+			}
+			if (owner != EMPTY) {
+				removeId(id, owner);
+			}
+			unique.add(id);
+		}
+		if (unique.isEmpty()) {
+			return;
+		}
+
+		List<byte[]> added = new ArrayList<>(unique);
+		byte[] segment = segments[slot] == null ? new byte[0] : segments[slot];
+		byte[] merged = new byte[segment.length + added.size() * ID_LENGTH];
+		int i = 0;
+		int j = 0;
+		int k = 0;
+		while (i < segment.length || j < added.size()) {
+			if (j >= added.size()
+				|| (i < segment.length && compare(segment, i, added.get(j)) < 0)) {
+				System.arraycopy(segment, i, merged, k, ID_LENGTH);
+				i += ID_LENGTH;
+			} else {
+				System.arraycopy(added.get(j), 0, merged, k, ID_LENGTH);
+				++j;
+			}
+			k += ID_LENGTH;
+		}
+
+		blockNums[slot] = blockNum;
+		segments[slot] = merged;
+		dirty.set(slot);
+		for (byte[] id : added) {
+			tablePut(fingerprint(id, 0), blockNum);
+		}
+	}
+
+	private void evict(int slot) {
+		byte[] segment = segments[slot];
+		for (int i = 0; i < segment.length; i += ID_LENGTH) {
+			tableRemove(fingerprint(segment, i), blockNums[slot]);
+		}
+		logger.debug("******evict block number:{}, trxids:{}", blockNums[slot], segment.length / ID_LENGTH);
+		evicted.add(blockNums[slot]);
+		segments[slot] = null;
+		dirty.clear(slot);
+	}
+
+	private void removeId(byte[] id, long blockNum) {
+		int slot = slot(blockNum);
+		byte[] segment = segments[slot];
+		int offset = search(segment, id);
+		byte[] r = new byte[segment.length - ID_LENGTH];
+		System.arraycopy(segment, 0, r, 0, offset);
+		System.arraycopy(segment, offset + ID_LENGTH, r, offset, segment.length - offset - ID_LENGTH);
+		segments[slot] = r;
+		dirty.set(slot);
+		tableRemove(fingerprint(id, 0), blockNum);
+	}
+
+	private void persist() {
+		if (dirty.isEmpty() && evicted.isEmpty()) {
+			return;
+		}
+
+		Map<byte[], byte[]> rows = new HashMap<>();
+		evicted.forEach(blockNum -> rows.put(Longs.toByteArray(blockNum), null));
+		for (int slot = dirty.nextSetBit(0); slot >= 0; slot = dirty.nextSetBit(slot + 1)) {
+			byte[] segment = segments[slot];
+			rows.put(Longs.toByteArray(blockNums[slot]),
+				segment == null || segment.length == 0 ? null : segment);
+		}
+		persistent.updateByBatch(rows, writeOptions);
+		dirty.clear();
+		evicted.clear();
+	}
+
+	private long find(byte[] id) {
+		if (id == null || id.length != ID_LENGTH) {
+			return EMPTY;
+		}
+
+		long fp = fingerprint(id, 0);
+		for (int i = index(fp); owners[i] != EMPTY; i = (i + 1) & mask) {
+			if (fingerprints[i] == fp) {
+				int slot = slot(owners[i]);
+				if (segments[slot] != null && blockNums[slot] == owners[i]
+					&& search(segments[slot], id) >= 0) {
+					return owners[i];
+				}
+			}
+		}
+		return EMPTY;
+	}
+
+	private void tablePut(long fp, long blockNum) {
+		if ((count + 1) * 2 > owners.length) {
+			resize(owners.length << 1);
+		}
+
+		int i = index(fp);
+		while (owners[i] != EMPTY) {
+			i = (i + 1) & mask;
+		}
+		fingerprints[i] = fp;
+		owners[i] = blockNum;
+		++count;
+	}
+
+	// linear probing removal with backward shift, so no tombstones are left behind
+	private void tableRemove(long fp, long blockNum) {
+		int i = index(fp);
+		while (owners[i] != EMPTY && (fingerprints[i] != fp || owners[i] != blockNum)) {
+			i = (i + 1) & mask;
+		}
+		if (owners[i] == EMPTY) {
+			return;
+		}
+
+		owners[i] = EMPTY;
+		--count;
+		for (int j = (i + 1) & mask; owners[j] != EMPTY; j = (j + 1) & mask) {
+			int home = index(fingerprints[j]);
+			if (i <= j ? (home <= i || home > j) : (home <= i && home > j)) {
+				fingerprints[i] = fingerprints[j];
+				owners[i] = owners[j];
+				owners[j] = EMPTY;
+				i = j;
+			}
+		}
+	}
+
+	private void resize(int capacity) {
+		long[] oldFingerprints = fingerprints;
+		long[] oldOwners = owners;
+		fingerprints = new long[capacity];
+		owners = new long[capacity];
+		Arrays.fill(owners, EMPTY);
+		mask = capacity - 1;
+		count = 0;
+		for (int i = 0; i < oldOwners.length; i++) {
+			if (oldOwners[i] != EMPTY) {
+				tablePut(oldFingerprints[i], oldOwners[i]);
+			}
+		}
+	}
+
+	private int index(long fp) {
+		return (int) (fp ^ (fp >>> 32)) & mask;
+	}
+
+	private static int slot(long blockNum) {
+		return (int) Math.floorMod(blockNum, (long) BLOCK_COUNT);
+	}
+
+	private static long fingerprint(byte[] bytes, int offset) {
+		long r = 0;
+		for (int i = offset; i < offset + Long.BYTES; i++) {
+			r = (r << 8) | (bytes[i] & 0xFF);
+		}
+		return r;
+	}
+
+	// binary search of a sorted segment, returns the offset of id or -1
+	private static int search(byte[] segment, byte[] id) {
+		int low = 0;
+		int high = segment.length / ID_LENGTH - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int c = compare(segment, mid * ID_LENGTH, id);
+			if (c < 0) {
+				low = mid + 1;
+			} else if (c > 0) {
+				high = mid - 1;
+			} else {
+				return mid * ID_LENGTH;
+			}
+		}
+		return -1;
+	}
+
+	private static int compare(byte[] segment, int offset, byte[] id) {
+		for (int i = 0; i < ID_LENGTH; i++) {
+			int c = UnsignedBytes.compare(segment[offset + i], id[i]);
+			if (c != 0) {
+				return c;
+			}
+		}
+		return 0;
 	}
 }
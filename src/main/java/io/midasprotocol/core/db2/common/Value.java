@@ -11,6 +11,7 @@ public final class Value {
 
 	@Getter
 	final private Operator operator;
+	@Getter
 	final private WrappedByteArray data;
 
 	private Value(Operator operator, WrappedByteArray data) {
@@ -36,23 +37,22 @@ public final class Value {
 	}
 
 	public byte[] encode() {
-		if (data.getBytes() == null) {
+		byte[] value = data.getBytes();
+		if (value == null) {
 			return new byte[]{operator.getValue()};
 		}
 
-		byte[] r = new byte[1 + data.getBytes().length];
+		byte[] r = new byte[1 + value.length];
 		r[0] = operator.getValue();
-		System.arraycopy(data.getBytes(), 0, r, 1, data.getBytes().length);
+		System.arraycopy(value, 0, r, 1, value.length);
 		return r;
 	}
 
+	/**
+	 * the wrapped array itself, callers must not modify it.
+	 */
 	public byte[] getBytes() {
-		byte[] value = data.getBytes();
-		if (value == null) {
-			return null;
-		}
-
-		return Arrays.copyOf(value, value.length);
+		return data.getBytes();
 	}
 
 	public enum Operator {
@@ -5,6 +5,7 @@ import io.midasprotocol.common.utils.Quitable;
 import io.midasprotocol.core.exception.BadItemException;
 import io.midasprotocol.core.exception.ItemNotFoundException;
 
+import java.util.List;
 import java.util.Map.Entry;
 
 public interface ITronChainBase<T> extends Iterable<Entry<byte[], T>>, Quitable {
@@ -27,10 +28,25 @@ public interface ITronChainBase<T> extends Iterable<Entry<byte[], T>>, Quitable
 
 	T getUnchecked(byte[] key);
 
+	/**
+	 * @return the items of keys in their order, null for a missing key.
+	 */
+	List<T> getAll(List<byte[]> keys);
+
 	boolean has(byte[] key);
 
 	String getName();
 
 	String getDbName();
 
+	/**
+	 * at most limit items with from <= key < to in key order, either bound may be null.
+	 */
+	List<Entry<byte[], T>> getRange(byte[] from, byte[] to, long limit);
+
+	/**
+	 * at most limit items whose key starts with prefix, in key order.
+	 */
+	List<Entry<byte[], T>> getPrefix(byte[] prefix, long limit);
+
 }
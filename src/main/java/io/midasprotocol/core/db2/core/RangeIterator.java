@@ -0,0 +1,136 @@
+package io.midasprotocol.core.db2.core;
+
+import com.google.common.primitives.UnsignedBytes;
+import io.midasprotocol.core.db.common.iterator.DBIterator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Ordered iterator over the keys in [from, to) of a root db, overlaid with the unflushed
+ * writes of the snapshot layers above it. Either bound may be null.
+ *
+ * <p>The root is read lazily from its seek position, so a bounded query costs the size of
+ * its result plus the overlay, not the size of the store. Callers must close it.
+ */
+public final class RangeIterator implements Iterator<Map.Entry<byte[], byte[]>>, Closeable {
+
+	public static final Comparator<byte[]> COMPARATOR = UnsignedBytes.lexicographicalComparator();
+
+	private final DBIterator root;
+	// a null value marks a key deleted by a layer
+	private final Iterator<Map.Entry<byte[], byte[]>> overlay;
+	private final byte[] to;
+	private boolean rootDone;
+	private Map.Entry<byte[], byte[]> nextRoot;
+	private Map.Entry<byte[], byte[]> nextOverlay;
+	private Map.Entry<byte[], byte[]> next;
+
+	public RangeIterator(DBIterator root, NavigableMap<byte[], byte[]> overlay, byte[] from,
+		byte[] to) {
+		this.root = root;
+		this.to = to;
+		if (from != null) {
+			root.seek(from);
+			overlay = overlay.tailMap(from, true);
+		}
+		if (to != null) {
+			overlay = overlay.headMap(to, false);
+		}
+		this.overlay = overlay.entrySet().iterator();
+	}
+
+	public RangeIterator(DBIterator root, byte[] from, byte[] to) {
+		this(root, new TreeMap<>(COMPARATOR), from, to);
+	}
+
+	/**
+	 * the smallest key greater than every key starting with prefix, null if there is none.
+	 */
+	public static byte[] upperBound(byte[] prefix) {
+		byte[] bound = Arrays.copyOf(prefix, prefix.length);
+		for (int i = bound.length - 1; i >= 0; --i) {
+			if (bound[i] != (byte) 0xff) {
+				++bound[i];
+				return Arrays.copyOf(bound, i + 1);
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (next == null) {
+			if (nextRoot == null && !rootDone) {
+				if (root.hasNext()) {
+					nextRoot = root.next();
+					if (to != null && COMPARATOR.compare(nextRoot.getKey(), to) >= 0) {
+						nextRoot = null;
+						rootDone = true;
+					}
+				} else {
+					rootDone = true;
+				}
+			}
+			if (nextOverlay == null && overlay.hasNext()) {
+				nextOverlay = overlay.next();
+			}
+
+			if (nextRoot == null && nextOverlay == null) {
+				return false;
+			}
+
+			int c = nextRoot == null ? 1
+				: nextOverlay == null ? -1 : COMPARATOR.compare(nextRoot.getKey(), nextOverlay.getKey());
+			if (c < 0) {
+				next = nextRoot;
+				nextRoot = null;
+			} else {
+				if (c == 0) {
+					nextRoot = null;
+				}
+				if (nextOverlay.getValue() != null) {
+					next = nextOverlay;
+				}
+				nextOverlay = null;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public Map.Entry<byte[], byte[]> next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		Map.Entry<byte[], byte[]> r = next;
+		next = null;
+		return r;
+	}
+
+	/**
+	 * drain at most limit entries in key order, then close the iterator.
+	 */
+	public List<Map.Entry<byte[], byte[]>> take(long limit) {
+		List<Map.Entry<byte[], byte[]>> result = new ArrayList<>();
+		try {
+			while (result.size() < limit && hasNext()) {
+				result.add(next());
+			}
+		} finally {
+			try {
+				close();
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void close() throws IOException {
+		root.close();
+	}
+}
@@ -0,0 +1,58 @@
+package io.midasprotocol.core.db2.core;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The heads of every revoking db as of the last applied block, for api threads to read from
+ * while the next block or the pending transactions are applied on top of them.
+ *
+ * <p>A pinned layer is no longer written to, so reads through a view take no lock and never
+ * see a half applied block. A thread reads through a view once it {@link #use}s one. The view
+ * is only as good as the layers it holds: should the pinned block be popped, or its layers be
+ * merged down by a flush, a thread still holding the view keeps reading those layers, which may
+ * then show a block that is no longer on the chain, or fall through to a root that a later flush
+ * already wrote newer blocks into. {@link
+ * SnapshotManager} stops handing out a view whose block was popped, so a view is meant to be
+ * taken per request and let go right after, not held.
+ */
+public final class ReadView {
+
+	private static final ThreadLocal<ReadView> CURRENT = new ThreadLocal<>();
+
+	private final Map<RevokingDBWithCachingNewValue, Snapshot> heads;
+
+	ReadView(Map<RevokingDBWithCachingNewValue, Snapshot> heads) {
+		this.heads = new IdentityHashMap<>(heads);
+	}
+
+	/**
+	 * @return the view reads of this thread go through, null if they go to the heads.
+	 */
+	public static ReadView current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * make reads of this thread go through a view, or to the heads again if view is null.
+	 *
+	 * @return the view used before, for the caller to restore.
+	 */
+	public static ReadView use(ReadView view) {
+		ReadView previous = CURRENT.get();
+		if (view == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(view);
+		}
+		return previous;
+	}
+
+	Snapshot get(RevokingDBWithCachingNewValue db) {
+		return heads.get(db);
+	}
+
+	boolean pins(RevokingDBWithCachingNewValue db, Snapshot snapshot) {
+		return heads.get(db) == snapshot;
+	}
+}
@@ -8,18 +8,24 @@ import io.midasprotocol.core.db.common.WrappedByteArray;
 import io.midasprotocol.core.db2.common.*;
 import io.midasprotocol.core.exception.ItemNotFoundException;
 import lombok.Getter;
+import lombok.Setter;
+import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class RevokingDBWithCachingNewValue implements IRevokingDB {
 
 	//true:fullnode, false:soliditynode
 	private ThreadLocal<Boolean> mode = new ThreadLocal<>();
-	private Snapshot head;
+	private volatile Snapshot head;
 	@Getter
 	private String dbName;
 	private Class<? extends DB> clz;
+	// told about every key whose visible value may have changed
+	@Setter
+	private Consumer<byte[]> changeListener;
 
 	public RevokingDBWithCachingNewValue(String dbName, Class<? extends DB> clz) {
 		this.dbName = dbName;
@@ -34,11 +40,33 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
 	}
 
 	private Snapshot head() {
-		if (mode.get() == null || mode.get()) {
-			return head;
+		if (isSolidityMode()) {
+			return head.getSolidity();
 		} else {
+			return head;
+		}
+	}
+
+	public boolean isSolidityMode() {
+		return mode.get() != null && !mode.get();
+	}
+
+	/**
+	 * @return true if reads of this thread see the solidified layer or the one its read view
+	 * pins, rather than the head.
+	 */
+	public boolean isPinnedRead() {
+		return pinned() != null;
+	}
+
+	// layers below the head are no longer written to, reads from them take no lock
+	private Snapshot pinned() {
+		if (isSolidityMode()) {
 			return head.getSolidity();
 		}
+
+		ReadView view = ReadView.current();
+		return view == null ? null : view.get(this);
 	}
 
 	public synchronized Snapshot getHead() {
@@ -49,6 +77,19 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
 		this.head = head;
 	}
 
+	synchronized void retreat() {
+		if (changeListener != null && head instanceof SnapshotImpl) {
+			((SnapshotImpl) head).getDb().forEach(e -> changeListener.accept(e.getKey().getBytes()));
+		}
+		head = head.retreat();
+	}
+
+	private void changed(byte[] key) {
+		if (changeListener != null) {
+			changeListener.accept(key);
+		}
+	}
+
 	/**
 	 * close the database.
 	 */
@@ -67,15 +108,17 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
 	@Override
 	public synchronized void put(byte[] key, byte[] value) {
 		head().put(key, value);
+		changed(key);
 	}
 
 	@Override
 	public synchronized void delete(byte[] key) {
 		head().remove(key);
+		changed(key);
 	}
 
 	@Override
-	public synchronized byte[] get(byte[] key) throws ItemNotFoundException {
+	public byte[] get(byte[] key) throws ItemNotFoundException {
 		byte[] value = getUnchecked(key);
 		if (value == null) {
 			throw new ItemNotFoundException();
@@ -85,12 +128,31 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
 	}
 
 	@Override
-	public synchronized byte[] getUnchecked(byte[] key) {
-		return head().get(key);
+	public byte[] getUnchecked(byte[] key) {
+		Snapshot pinned = pinned();
+		if (pinned != null) {
+			return pinned.get(key);
+		}
+
+		synchronized (this) {
+			return head.get(key);
+		}
+	}
+
+	@Override
+	public List<byte[]> getAll(List<byte[]> keys) {
+		Snapshot pinned = pinned();
+		if (pinned != null) {
+			return pinned.getAll(keys);
+		}
+
+		synchronized (this) {
+			return head.getAll(keys);
+		}
 	}
 
 	@Override
-	public synchronized boolean has(byte[] key) {
+	public boolean has(byte[] key) {
 		return getUnchecked(key) != null;
 	}
 
@@ -120,6 +182,7 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
 				Streams.stream(((SnapshotImpl) snapshot).db)
 					.map(Map.Entry::getValue)
 					.map(Value::getBytes)
+					.map(ArrayUtils::clone)
 					.forEach(result::add);
 			}
 		}
@@ -168,6 +231,7 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
 			.limit(limit)
 			.map(Map.Entry::getValue)
 			.map(WrappedByteArray::getBytes)
+			.map(ArrayUtils::clone)
 			.collect(Collectors.toSet());
 	}
 
@@ -175,4 +239,20 @@ public class RevokingDBWithCachingNewValue implements IRevokingDB {
 	public Set<byte[]> getValuesNext(byte[] key, long limit) {
 		return getValuesNext(head(), key, limit);
 	}
+
+	@Override
+	public List<Map.Entry<byte[], byte[]>> getRange(byte[] from, byte[] to, long limit) {
+		if (limit <= 0) {
+			return Collections.emptyList();
+		}
+
+		Snapshot pinned = pinned();
+		if (pinned != null) {
+			return pinned.range(from, to).take(limit);
+		}
+
+		synchronized (this) {
+			return head.range(from, to).take(limit);
+		}
+	}
 }
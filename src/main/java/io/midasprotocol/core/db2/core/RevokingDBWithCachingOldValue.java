@@ -9,10 +9,7 @@ import io.midasprotocol.core.exception.ItemNotFoundException;
 import lombok.Getter;
 import org.apache.commons.lang3.ArrayUtils;
 
-import java.util.Iterator;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
 
 public class RevokingDBWithCachingOldValue implements IRevokingDB {
 
@@ -79,6 +76,13 @@ public class RevokingDBWithCachingOldValue implements IRevokingDB {
 		}
 	}
 
+	@Override
+	public List<byte[]> getAll(List<byte[]> keys) {
+		List<byte[]> values = new ArrayList<>(dbSource.getAll(keys));
+		values.replaceAll(value -> ArrayUtils.isEmpty(value) ? null : value);
+		return values;
+	}
+
 	@Override
 	public void close() {
 		dbSource.closeDB();
@@ -131,4 +135,13 @@ public class RevokingDBWithCachingOldValue implements IRevokingDB {
 	public Set<byte[]> getValuesNext(byte[] key, long limit) {
 		return dbSource.getValuesNext(key, limit);
 	}
+
+	@Override
+	public List<Map.Entry<byte[], byte[]>> getRange(byte[] from, byte[] to, long limit) {
+		if (limit <= 0) {
+			return Collections.emptyList();
+		}
+
+		return new RangeIterator(dbSource.iterator(), from, to).take(limit);
+	}
 }
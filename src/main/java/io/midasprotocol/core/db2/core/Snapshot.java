@@ -1,5 +1,6 @@
 package io.midasprotocol.core.db2.core;
 
+import java.util.List;
 import java.util.Map;
 
 public interface Snapshot extends Iterable<Map.Entry<byte[], byte[]>> {
@@ -14,12 +15,22 @@ public interface Snapshot extends Iterable<Map.Entry<byte[], byte[]>> {
 
 	byte[] get(byte[] key);
 
+	/**
+	 * @return the values of keys as seen from this snapshot in their order, null for a missing key.
+	 */
+	List<byte[]> getAll(List<byte[]> keys);
+
 	void put(byte[] key, byte[] value);
 
 	void remove(byte[] key);
 
 	void merge(Snapshot from);
 
+	/**
+	 * ordered entries with from <= key < to as seen from this snapshot, either bound may be null.
+	 */
+	RangeIterator range(byte[] from, byte[] to);
+
 	Snapshot advance();
 
 	Snapshot retreat();
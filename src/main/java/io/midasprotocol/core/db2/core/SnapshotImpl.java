@@ -9,6 +9,7 @@ import io.midasprotocol.core.db2.common.HashDB;
 import io.midasprotocol.core.db2.common.Key;
 import io.midasprotocol.core.db2.common.Value;
 import lombok.Getter;
+import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.*;
 
@@ -16,9 +17,14 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
 
 	@Getter
 	protected Snapshot root;
+	@Getter
+	private final long sequence;
+	private final SnapshotIndex index;
 
 	SnapshotImpl(Snapshot snapshot) {
 		root = snapshot.getRoot();
+		index = ((SnapshotRoot) root).getIndex();
+		sequence = index.nextSequence();
 		previous = snapshot;
 		snapshot.setNext(this);
 		synchronized (this) {
@@ -32,32 +38,62 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
 		return get(this, key);
 	}
 
+	// keys found in a layer resolve through the index, the rest are read from the root at once
+	@Override
+	public List<byte[]> getAll(List<byte[]> keys) {
+		List<byte[]> result = new ArrayList<>(keys.size());
+		List<Integer> misses = new ArrayList<>();
+		for (byte[] key : keys) {
+			Value value = index.get(this, Key.of(key));
+			if (value == null) {
+				misses.add(result.size());
+				result.add(null);
+			} else {
+				result.add(ArrayUtils.clone(value.getBytes()));
+			}
+		}
+
+		if (!misses.isEmpty()) {
+			List<byte[]> missed = new ArrayList<>(misses.size());
+			misses.forEach(i -> missed.add(keys.get(i)));
+			List<byte[]> values = root.getAll(missed);
+			for (int i = 0; i < misses.size(); ++i) {
+				result.set(misses.get(i), values.get(i));
+			}
+		}
+		return result;
+	}
+
+	// layers share their key and value arrays with the index, the merged layers and the flush,
+	// so bytes are copied only when they enter through put and leave through get or iterator
 	@Override
 	public void put(byte[] key, byte[] value) {
 		Preconditions.checkNotNull(key, "key in db is not null.");
 		Preconditions.checkNotNull(value, "value in db is not null.");
 
-		db.put(Key.copyOf(key), Value.copyOf(Value.Operator.PUT, value));
+		Key k = Key.copyOf(key);
+		Value v = Value.copyOf(Value.Operator.PUT, value);
+		db.put(k, v);
+		index.put(this, k, v);
 	}
 
 	@Override
 	public void remove(byte[] key) {
 		Preconditions.checkNotNull(key, "key in db is not null.");
-		db.put(Key.of(key), Value.of(Value.Operator.DELETE, null));
+		Key k = Key.of(key);
+		Value v = Value.of(Value.Operator.DELETE, null);
+		db.put(k, v);
+		index.put(this, k, v);
 	}
 
-	private byte[] get(Snapshot head, byte[] key) {
-		Snapshot snapshot = head;
-		Value value;
-		while (Snapshot.isImpl(snapshot)) {
-			if ((value = ((SnapshotImpl) snapshot).db.get(Key.of(key))) != null) {
-				return value.getBytes();
-			}
-
-			snapshot = snapshot.getPrevious();
+	// the index holds every key of the layers up to head, so a miss goes straight to the root
+	private byte[] get(SnapshotImpl head, byte[] key) {
+		Value value = index.get(head, Key.of(key));
+		if (value != null) {
+			return ArrayUtils.clone(value.getBytes());
 		}
 
-		return snapshot == null ? null : snapshot.get(key);
+		return root.get(key);
 	}
 
 	// we have a 3x3 matrix of all possibilities when merging previous snapshot and current snapshot :
@@ -76,6 +112,7 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
 	public void merge(Snapshot from) {
 		SnapshotImpl fromImpl = (SnapshotImpl) from;
 		Streams.stream(fromImpl.db).forEach(e -> db.put(e.getKey(), e.getValue()));
+		index.merge(fromImpl, this);
 	}
 
 	// we have a 4x4 matrix of all possibilities when merging previous snapshot and current snapshot :
@@ -104,7 +141,7 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
 				if (value == null) {
 					db.put(k, v);
 				} else if (value.getOperator() == Value.Operator.DELETE) {
-					db.put(k, Value.copyOf(Value.Operator.MODIFY, v.getBytes()));
+					db.put(k, Value.of(Value.Operator.MODIFY, v.getBytes()));
 				} else {
 					throw new IllegalStateException();
 				}
@@ -119,7 +156,7 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
 				if (value == null || value.getOperator() == Value.Operator.MODIFY) {
 					db.put(k, v);
 				} else if (value.getOperator() == Value.Operator.CREATE) {
-					db.put(k, Value.copyOf(Value.Operator.CREATE, v.getBytes()));
+					db.put(k, Value.of(Value.Operator.CREATE, v.getBytes()));
 				} else {
 					throw new IllegalStateException();
 				}
@@ -138,10 +175,13 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
 					throw new IllegalStateException();
 				}
 			});
+
+		index.merge(fromImpl, this);
 	}
 
 	@Override
 	public Snapshot retreat() {
+		index.remove(this);
 		return previous;
 	}
 
@@ -159,17 +199,35 @@ public class SnapshotImpl extends AbstractSnapshot<Key, Value> {
 			.removeIf(entry -> entry.getValue() == null || entry.getValue().getBytes() == null);
 		return Iterators.concat(
 			Iterators.transform(all.entrySet().iterator(),
-				e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes())),
+				e -> Maps.immutableEntry(e.getKey().getBytes().clone(), e.getValue().getBytes().clone())),
 			Iterators.filter(getRoot().iterator(),
 				e -> !keys.contains(WrappedByteArray.of(e.getKey()))));
 	}
 
+	// layers are walked newest first so the latest write of a key wins
+	@Override
+	public RangeIterator range(byte[] from, byte[] to) {
+		NavigableMap<byte[], byte[]> overlay = new TreeMap<>(RangeIterator.COMPARATOR);
+		for (Snapshot snapshot = this; Snapshot.isImpl(snapshot); snapshot = snapshot.getPrevious()) {
+			for (Map.Entry<Key, Value> e : ((SnapshotImpl) snapshot).db) {
+				byte[] key = e.getKey().getBytes();
+				if ((from != null && RangeIterator.COMPARATOR.compare(key, from) < 0)
+					|| (to != null && RangeIterator.COMPARATOR.compare(key, to) >= 0)
+					|| overlay.containsKey(key)) {
+					continue;
+				}
+				overlay.put(key.clone(), ArrayUtils.clone(e.getValue().getBytes()));
+			}
+		}
+
+		return new RangeIterator(((SnapshotRoot) getRoot()).orderedIterator(), overlay, from, to);
+	}
+
 	synchronized void collect(Map<WrappedByteArray, WrappedByteArray> all) {
 		Snapshot next = getRoot().getNext();
 		while (next != null) {
 			Streams.stream(((SnapshotImpl) next).db)
-				.forEach(e -> all.put(WrappedByteArray.of(e.getKey().getBytes()),
-					WrappedByteArray.of(e.getValue().getBytes())));
+				.forEach(e -> all.put(e.getKey().getData(), e.getValue().getData()));
 			next = next.getNext();
 		}
 	}
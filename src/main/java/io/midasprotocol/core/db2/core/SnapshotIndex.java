@@ -0,0 +1,141 @@
+package io.midasprotocol.core.db2.core;
+
+import io.midasprotocol.core.db2.common.Key;
+import io.midasprotocol.core.db2.common.Value;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Merged key index over all unflushed {@link SnapshotImpl} layers of one revoking db.
+ *
+ * <p>Every key written to a layer is recorded here together with the layer that holds it,
+ * so a read resolves in one probe instead of walking the whole stack down to the root.
+ * Entries of a key are kept ordered by layer sequence, oldest first.
+ */
+final class SnapshotIndex {
+
+	private final Map<Key, Entry[]> index = new ConcurrentHashMap<>();
+	private long sequence = 0;
+
+	synchronized long nextSequence() {
+		return ++sequence;
+	}
+
+	/**
+	 * @return the newest value visible from head, or null if no layer up to head has the key.
+	 */
+	Value get(SnapshotImpl head, Key key) {
+		Entry[] entries = index.get(key);
+		if (entries == null) {
+			return null;
+		}
+
+		for (int i = entries.length - 1; i >= 0; --i) {
+			if (entries[i].layer.getSequence() <= head.getSequence()) {
+				return entries[i].value;
+			}
+		}
+
+		return null;
+	}
+
+	void put(SnapshotImpl layer, Key key, Value value) {
+		index.compute(key, (k, entries) -> {
+			if (entries == null) {
+				return new Entry[]{new Entry(layer, value)};
+			}
+
+			int last = entries.length - 1;
+			Entry[] r;
+			if (entries[last].layer == layer) {
+				r = entries.clone();
+				r[last] = new Entry(layer, value);
+			} else {
+				r = Arrays.copyOf(entries, entries.length + 1);
+				r[entries.length] = new Entry(layer, value);
+			}
+			return r;
+		});
+	}
+
+	/**
+	 * drop every entry recorded for layer, used when the layer is revoked, popped or flushed.
+	 */
+	void remove(SnapshotImpl layer) {
+		for (Map.Entry<Key, Value> e : layer.getDb()) {
+			index.computeIfPresent(e.getKey(), (k, entries) -> without(entries, layer, null));
+		}
+	}
+
+	/**
+	 * re-attribute the keys of from to the layer it was merged into.
+	 */
+	void merge(SnapshotImpl from, SnapshotImpl to) {
+		for (Map.Entry<Key, Value> e : from.getDb()) {
+			index.computeIfPresent(e.getKey(), (k, entries) -> {
+				Entry[] r = without(entries, from, to);
+				Value value = to.getDb().get(k);
+				if (value == null) {
+					return r;
+				}
+
+				if (r == null) {
+					return new Entry[]{new Entry(to, value)};
+				}
+
+				int i = r.length;
+				while (i > 0 && r[i - 1].layer.getSequence() > to.getSequence()) {
+					--i;
+				}
+				Entry[] merged = new Entry[r.length + 1];
+				System.arraycopy(r, 0, merged, 0, i);
+				merged[i] = new Entry(to, value);
+				System.arraycopy(r, i, merged, i + 1, r.length - i);
+				return merged;
+			});
+		}
+	}
+
+	void clear() {
+		index.clear();
+	}
+
+	private static Entry[] without(Entry[] entries, SnapshotImpl a, SnapshotImpl b) {
+		int count = 0;
+		for (Entry entry : entries) {
+			if (entry.layer != a && entry.layer != b) {
+				++count;
+			}
+		}
+
+		if (count == entries.length) {
+			return entries;
+		}
+
+		if (count == 0) {
+			return null;
+		}
+
+		Entry[] r = new Entry[count];
+		int i = 0;
+		for (Entry entry : entries) {
+			if (entry.layer != a && entry.layer != b) {
+				r[i++] = entry;
+			}
+		}
+		return r;
+	}
+
+	private static final class Entry {
+
+		private final SnapshotImpl layer;
+		private final Value value;
+
+		private Entry(SnapshotImpl layer, Value value) {
+			this.layer = layer;
+			this.value = value;
+		}
+	}
+}
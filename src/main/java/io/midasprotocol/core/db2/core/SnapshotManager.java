@@ -4,12 +4,14 @@ import com.google.common.collect.Maps;
 import com.google.common.primitives.Bytes;
 import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.*;
+import io.midasprotocol.common.storage.BatchSink;
+import io.midasprotocol.common.storage.DbSourceInter;
 import io.midasprotocol.common.storage.WriteOptionsWrapper;
+import io.midasprotocol.common.storage.leveldb.RocksDbDataSourceImpl;
+import io.midasprotocol.common.storage.leveldb.SharedRocksDb;
 import io.midasprotocol.core.config.args.Args;
 import io.midasprotocol.core.db.CheckTmpStore;
 import io.midasprotocol.core.db.RevokingDatabase;
-import io.midasprotocol.core.db.common.WrappedByteArray;
-import io.midasprotocol.core.db2.common.DB;
 import io.midasprotocol.core.db2.common.IRevokingDB;
 import io.midasprotocol.core.db2.common.Key;
 import io.midasprotocol.core.db2.common.Value;
@@ -17,13 +19,16 @@ import io.midasprotocol.core.exception.RevokingStoreIllegalStateException;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
@@ -51,6 +56,19 @@ public class SnapshotManager implements RevokingDatabase {
 
 	private Map<String, ListeningExecutorService> flushServices = new HashMap<>();
 
+	private ListeningExecutorService flushPipeline = MoreExecutors.listeningDecorator(
+		Executors.newSingleThreadExecutor(
+			new ThreadFactoryBuilder().setNameFormat("snapshot-flush").build()));
+
+	// snapshots being persisted in the background, relinked once the future is done
+	private Map.Entry<Map<RevokingDBWithCachingNewValue, List<Snapshot>>, ListenableFuture<?>> pendingFlush;
+
+	@Getter
+	private Map<String, FlushStat> flushStats = new ConcurrentHashMap<>();
+
+	@Getter
+	private volatile ReadView readView;
+
 	@Autowired
 	@Setter
 	@Getter
@@ -80,6 +98,7 @@ public class SnapshotManager implements RevokingDatabase {
 			disabled = false;
 		}
 
+		finishFlushIfDone();
 		if (size > maxSize.get()) {
 			flushCount = flushCount + (size - maxSize.get());
 			updateSolidity(size - maxSize.get());
@@ -107,17 +126,34 @@ public class SnapshotManager implements RevokingDatabase {
 			)));
 	}
 
+	@Override
+	public synchronized void pinReadView() {
+		Map<RevokingDBWithCachingNewValue, Snapshot> heads = new HashMap<>();
+		dbs.forEach(db -> heads.put(db, db.getHead()));
+		readView = new ReadView(heads);
+	}
+
+	// a pinned layer must not change under its readers: stop handing out a view about to
+	private void unpinIfAt(RevokingDBWithCachingNewValue db, Snapshot snapshot) {
+		if (readView != null && readView.pins(db, snapshot)) {
+			readView = null;
+		}
+	}
+
 	private void advance() {
 		dbs.forEach(db -> db.setHead(db.getHead().advance()));
 		++size;
 	}
 
 	private void retreat() {
-		dbs.forEach(db -> db.setHead(db.getHead().retreat()));
+		dbs.forEach(db -> {
+			unpinIfAt(db, db.getHead());
+			db.retreat();
+		});
 		--size;
 	}
 
-	public void merge() {
+	public synchronized void merge() {
 		if (activeSession <= 0) {
 			throw new RevokingStoreIllegalStateException("activeDialog has to be greater than 0");
 		}
@@ -126,7 +162,10 @@ public class SnapshotManager implements RevokingDatabase {
 			return;
 		}
 
-		dbs.forEach(db -> db.getHead().getPrevious().merge(db.getHead()));
+		dbs.forEach(db -> {
+			unpinIfAt(db, db.getHead().getPrevious());
+			db.getHead().getPrevious().merge(db.getHead());
+		});
 		retreat();
 		--activeSession;
 	}
@@ -211,15 +250,9 @@ public class SnapshotManager implements RevokingDatabase {
 	public void shutdown() {
 		System.err.println("******** begin to pop revokingDb ********");
 		System.err.println("******** before revokingDb size:" + size);
-		try {
-			while (shouldBeRefreshed()) {
-				logger.info("waiting leveldb flush done");
-				TimeUnit.MILLISECONDS.sleep(10);
-			}
-		} catch (InterruptedException e) {
-			System.out.println(e.getMessage() + e);
-			Thread.currentThread().interrupt();
-		}
+		logger.info("waiting leveldb flush done");
+		awaitFlush();
+		flushPipeline.shutdown();
 		checkTmpStore.getDbSource().closeDB();
 		System.err.println("******** end to pop revokingDb ********");
 	}
@@ -236,105 +269,223 @@ public class SnapshotManager implements RevokingDatabase {
 		return flushCount >= maxFlushCount;
 	}
 
-	private void refresh() {
-		List<ListenableFuture<?>> futures = new ArrayList<>(dbs.size());
-		for (RevokingDBWithCachingNewValue db : dbs) {
-			futures.add(flushServices.get(db.getDbName()).submit(() -> refreshOne(db)));
-		}
+	private void refresh(Map<RevokingDBWithCachingNewValue, List<Snapshot>> snapshots) {
+		List<ListenableFuture<?>> futures = new ArrayList<>(snapshots.size());
+		snapshots.forEach((db, layers) -> futures.add(
+			flushServices.get(db.getDbName()).submit(() -> refreshOne(db, layers))));
 		Future<?> future = Futures.allAsList(futures);
 		try {
 			future.get();
 		} catch (InterruptedException e) {
 			Thread.currentThread().interrupt();
+			throw new RevokingStoreIllegalStateException("flush interrupted", e);
 		} catch (ExecutionException e) {
-			logger.error(e.getMessage(), e);
+			throw new RevokingStoreIllegalStateException("flush failed", e.getCause());
 		}
 	}
 
-	private void refreshOne(RevokingDBWithCachingNewValue db) {
-		if (Snapshot.isRoot(db.getHead())) {
+	private void refreshOne(RevokingDBWithCachingNewValue db, List<Snapshot> layers) {
+		long start = System.currentTimeMillis();
+		SnapshotRoot root = (SnapshotRoot) layers.get(0).getRoot();
+		long bytes = root.merge(layers);
+		flushStats.computeIfAbsent(db.getDbName(), FlushStat::new)
+			.record(System.currentTimeMillis() - start, bytes);
+	}
+
+	// link the flushed snapshots out of the chain, must run on the thread that moves the head.
+	private void relink(Map<RevokingDBWithCachingNewValue, List<Snapshot>> snapshots) {
+		snapshots.forEach((db, layers) -> {
+			SnapshotRoot root = (SnapshotRoot) layers.get(0).getRoot();
+			Snapshot last = layers.get(layers.size() - 1);
+			if (layers.contains(root.getSolidity())) {
+				root.resetSolidity();
+			}
+			if (db.getHead() == last) {
+				db.setHead(root);
+			} else {
+				last.getNext().setPrevious(root);
+				root.setNext(last.getNext());
+			}
+		});
+	}
+
+	/**
+	 * persist the oldest snapshots in the background while new blocks keep applying.
+	 *
+	 * <p>Only one flush is in flight at a time: a flush that is due while the previous one is
+	 * still running waits for it. The flushed snapshots stay readable until they are relinked,
+	 * and their contents are in the root db before they leave the read index.
+	 */
+	public synchronized void flush() {
+		if (unChecked) {
 			return;
 		}
 
-		List<Snapshot> snapshots = new ArrayList<>();
+		if (shouldBeRefreshed()) {
+			awaitFlush();
+			if (flushCount == 0) {
+				return;
+			}
 
-		SnapshotRoot root = (SnapshotRoot) db.getHead().getRoot();
-		Snapshot next = root;
-		for (int i = 0; i < flushCount; ++i) {
-			next = next.getNext();
-			snapshots.add(next);
-		}
+			Map<RevokingDBWithCachingNewValue, List<Snapshot>> snapshots = new LinkedHashMap<>();
+			for (RevokingDBWithCachingNewValue db : dbs) {
+				Snapshot head = db.getHead();
+				if (Snapshot.isRoot(head)) {
+					continue;
+				}
+
+				List<Snapshot> layers = new ArrayList<>(flushCount);
+				Snapshot next = head.getRoot();
+				for (int i = 0; i < flushCount; ++i) {
+					next = next.getNext();
+					layers.add(next);
+				}
+				snapshots.put(db, layers);
+			}
+			flushCount = 0;
+			if (snapshots.isEmpty()) {
+				return;
+			}
 
-		root.merge(snapshots);
+			ListenableFuture<?> future = flushPipeline.submit(() -> {
+				SharedRocksDb shared = getSharedDb();
+				if (shared != null) {
+					flushShared(shared, snapshots);
+					return;
+				}
 
-		root.resetSolidity();
-		if (db.getHead() == next) {
-			db.setHead(root);
-		} else {
-			next.getNext().setPrevious(root);
-			root.setNext(next.getNext());
+				long start = System.currentTimeMillis();
+				createCheckPoint(snapshots);
+				long checkPointEnd = System.currentTimeMillis();
+				refresh(snapshots);
+				logger.info("flush cost:{}, create checkpoint cost:{}, refresh cost:{}",
+					System.currentTimeMillis() - start,
+					checkPointEnd - start,
+					System.currentTimeMillis() - checkPointEnd
+				);
+			});
+			pendingFlush = Maps.immutableEntry(snapshots, future);
 		}
 	}
 
-	public void flush() {
-		if (unChecked) {
+	/**
+	 * block until the background flush, if any, is persisted and link it out of the chain.
+	 *
+	 * <p>A flush that failed or was interrupted leaves its snapshots linked, so they stay
+	 * readable, and hands them back to the next flush, whose checkpoint covers them again. Until
+	 * then the checkpoint of the failed flush is what {@link #check} recovers from.
+	 */
+	public synchronized void awaitFlush() {
+		if (pendingFlush == null) {
 			return;
 		}
 
-		if (shouldBeRefreshed()) {
-			long start = System.currentTimeMillis();
-			deleteCheckPoint();
-			createCheckPoint();
-			long checkPointEnd = System.currentTimeMillis();
-			refresh();
-			flushCount = 0;
-			logger.info("flush cost:{}, create checkpoint cost:{}, refresh cost:{}",
-				System.currentTimeMillis() - start,
-				checkPointEnd - start,
-				System.currentTimeMillis() - checkPointEnd
-			);
+		Map<RevokingDBWithCachingNewValue, List<Snapshot>> snapshots = pendingFlush.getKey();
+		Future<?> future = pendingFlush.getValue();
+		pendingFlush = null;
+		try {
+			future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			retain(snapshots, e);
+			return;
+		} catch (ExecutionException e) {
+			retain(snapshots, e.getCause());
+			return;
 		}
+		relink(snapshots);
 	}
 
-	private void createCheckPoint() {
-		Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>();
-		for (RevokingDBWithCachingNewValue db : dbs) {
-			Snapshot head = db.getHead();
-			if (Snapshot.isRoot(head)) {
-				return;
-			}
+	private void retain(Map<RevokingDBWithCachingNewValue, List<Snapshot>> snapshots,
+		Throwable cause) {
+		int layers = snapshots.values().iterator().next().size();
+		flushCount += layers;
+		logger.error("flush of " + layers + " snapshots failed, they stay in memory until the next "
+			+ "flush", cause);
+	}
 
-			String dbName = db.getDbName();
-			Snapshot next = head.getRoot();
-			for (int i = 0; i < flushCount; ++i) {
-				next = next.getNext();
-				SnapshotImpl snapshot = (SnapshotImpl) next;
-				DB<Key, Value> keyValueDB = snapshot.getDb();
-				for (Map.Entry<Key, Value> e : keyValueDB) {
-					Key k = e.getKey();
-					Value v = e.getValue();
-					batch.put(WrappedByteArray.of(Bytes.concat(simpleEncode(dbName), k.getBytes())),
-						WrappedByteArray.of(v.encode()));
-				}
-			}
+	private void finishFlushIfDone() {
+		if (pendingFlush != null && pendingFlush.getValue().isDone()) {
+			awaitFlush();
 		}
+	}
 
-		checkTmpStore.getDbSource().updateByBatch(batch.entrySet().stream()
-				.map(e -> Maps.immutableEntry(e.getKey().getBytes(), e.getValue().getBytes()))
-				.collect(HashMap::new, (m, k) -> m.put(k.getKey(), k.getValue()), HashMap::putAll),
+	// replace the previous checkpoint with the snapshots to be flushed in one atomic batch.
+	private void createCheckPoint(Map<RevokingDBWithCachingNewValue, List<Snapshot>> snapshots) {
+		long start = System.currentTimeMillis();
+		long bytes = checkTmpStore.getDbSource().updateByBatch(batch -> writeCheckPoint(batch, snapshots),
 			WriteOptionsWrapper.getInstance().sync(Args.getInstance().getStorage().isDbSync()));
+		flushStats.computeIfAbsent(CheckTmpStore.class.getSimpleName(), FlushStat::new)
+			.record(System.currentTimeMillis() - start, bytes);
 	}
 
-	private void deleteCheckPoint() {
-		Map<byte[], byte[]> hmap = new HashMap<byte[], byte[]>();
-		if (!checkTmpStore.getDbSource().allKeys().isEmpty()) {
-			for (Map.Entry<byte[], byte[]> e : checkTmpStore.getDbSource()) {
-				hmap.put(e.getKey(), null);
-			}
+	private void writeCheckPoint(BatchSink<byte[], byte[]> batch,
+		Map<RevokingDBWithCachingNewValue, List<Snapshot>> snapshots) {
+		for (Map.Entry<byte[], byte[]> e : checkTmpStore.getDbSource()) {
+			batch.put(e.getKey(), null);
 		}
 
-		checkTmpStore.getDbSource().updateByBatch(hmap, WriteOptionsWrapper.getInstance()
-			.sync(Args.getInstance().getStorage().isDbSync()));
+		snapshots.forEach((db, layers) -> {
+			byte[] dbName = simpleEncode(db.getDbName());
+			for (Snapshot layer : layers) {
+				for (Map.Entry<Key, Value> e : ((SnapshotImpl) layer).getDb()) {
+					batch.put(Bytes.concat(dbName, e.getKey().getBytes()), e.getValue().encode());
+				}
+			}
+		});
+	}
+
+	// the shared database of the checkpoint store, null unless it runs in column family mode.
+	private SharedRocksDb getSharedDb() {
+		DbSourceInter<byte[]> source = checkTmpStore.getDbSource();
+		return source instanceof RocksDbDataSourceImpl
+			? ((RocksDbDataSourceImpl) source).getShared() : null;
+	}
+
+	/**
+	 * persist the stores living in the same shared database as the checkpoint store with one
+	 * atomic write, which makes the checkpoint redundant for them.
+	 *
+	 * <p>Stores outside of it, like the transaction cache, still go through the checkpoint,
+	 * whose rows are written in the same batch, and are refreshed one by one afterwards.
+	 */
+	private void flushShared(SharedRocksDb shared,
+		Map<RevokingDBWithCachingNewValue, List<Snapshot>> snapshots) {
+		long start = System.currentTimeMillis();
+		Map<SnapshotRoot, List<Snapshot>> staged = new LinkedHashMap<>();
+		Map<RevokingDBWithCachingNewValue, List<Snapshot>> rest = new LinkedHashMap<>();
+		snapshots.forEach((db, layers) -> {
+			SnapshotRoot root = (SnapshotRoot) layers.get(0).getRoot();
+			RocksDbDataSourceImpl source = root.getSharedSource();
+			if (source != null && source.getShared() == shared) {
+				staged.put(root, layers);
+			} else {
+				rest.put(db, layers);
+			}
+		});
+
+		long bytes = 0;
+		try (WriteBatch batch = new WriteBatch(); WriteOptions options = new WriteOptions()) {
+			options.setSync(Args.getInstance().getStorage().isDbSync());
+			writeCheckPoint(((RocksDbDataSourceImpl) checkTmpStore.getDbSource()).stage(batch), rest);
+			for (Map.Entry<SnapshotRoot, List<Snapshot>> e : staged.entrySet()) {
+				bytes += e.getKey().stage(e.getValue(), e.getKey().getSharedSource().stage(batch));
+			}
+			shared.write(batch, options);
+		} catch (RocksDBException e) {
+			throw new RuntimeException(e);
+		}
+		staged.forEach(SnapshotRoot::unindex);
+		long writeEnd = System.currentTimeMillis();
+		flushStats.computeIfAbsent(SharedRocksDb.DIRECTORY, FlushStat::new)
+			.record(writeEnd - start, bytes);
+
+		refresh(rest);
+		logger.info("flush cost:{}, shared write cost:{}, refresh cost:{}",
+			System.currentTimeMillis() - start,
+			writeEnd - start,
+			System.currentTimeMillis() - writeEnd
+		);
 	}
 
 	// ensure run this method first after process start.
@@ -385,6 +536,32 @@ public class SnapshotManager implements RevokingDatabase {
 		return r;
 	}
 
+	/**
+	 * flush latency and written bytes of one db.
+	 */
+	@Getter
+	public static class FlushStat {
+
+		private final String name;
+		private long count;
+		private long lastCost;
+		private long totalCost;
+		private long lastBytes;
+		private long totalBytes;
+
+		FlushStat(String name) {
+			this.name = name;
+		}
+
+		synchronized void record(long cost, long bytes) {
+			++count;
+			lastCost = cost;
+			totalCost += cost;
+			lastBytes = bytes;
+			totalBytes += bytes;
+		}
+	}
+
 	@Slf4j(topic = "DB")
 	@Getter // only for unit test
 	public static class Session implements ISession {
@@ -1,36 +1,34 @@
 package io.midasprotocol.core.db2.core;
 
-import com.google.common.collect.Maps;
-import com.google.common.collect.Streams;
-import io.midasprotocol.core.db.common.WrappedByteArray;
+import io.midasprotocol.common.storage.BatchSink;
+import io.midasprotocol.common.storage.leveldb.RocksDbDataSourceImpl;
+import io.midasprotocol.core.db.common.iterator.DBIterator;
 import io.midasprotocol.core.db2.common.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
 
 	@Getter
 	private Snapshot solidity;
+	@Getter(AccessLevel.PACKAGE)
+	private final SnapshotIndex index = new SnapshotIndex();
 
 	public SnapshotRoot(String parentName, String name, Class<? extends DB> clz) {
 		try {
-			if (clz == LevelDB.class || clz == RocksDB.class) {
+			if (clz == LevelDB.class || clz == RocksDB.class || clz == TxCacheDB.class) {
 				Constructor constructor = clz.getConstructor(String.class, String.class);
 				@SuppressWarnings("unchecked")
 				DB<byte[], byte[]> db = (DB<byte[], byte[]>) constructor
 					.newInstance((Object) parentName, (Object) name);
 				this.db = db;
-			} else if (clz == TxCacheDB.class) {
-				@SuppressWarnings("unchecked")
-				DB<byte[], byte[]> db = (DB<byte[], byte[]>) clz.newInstance();
-				this.db = db;
 			} else {
 				throw new IllegalArgumentException();
 			}
@@ -46,6 +44,11 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
 		return db.get(key);
 	}
 
+	@Override
+	public List<byte[]> getAll(List<byte[]> keys) {
+		return db.getAll(keys);
+	}
+
 	@Override
 	public void put(byte[] key, byte[] value) {
 		db.put(key, value);
@@ -58,25 +61,52 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
 
 	@Override
 	public void merge(Snapshot from) {
-		SnapshotImpl snapshot = (SnapshotImpl) from;
-		Map<WrappedByteArray, WrappedByteArray> batch = Streams.stream(snapshot.db)
-			.map(e -> Maps.immutableEntry(WrappedByteArray.of(e.getKey().getBytes()),
-				WrappedByteArray.of(e.getValue().getBytes())))
-			.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-		((Flusher) db).flush(batch);
+		merge(Collections.singletonList(from));
 	}
 
-	public void merge(List<Snapshot> snapshots) {
-		Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>();
+	/**
+	 * stream the snapshots, oldest first, into one write batch of the underlying db.
+	 *
+	 * @return the number of key and value bytes written.
+	 */
+	public long merge(List<Snapshot> snapshots) {
+		long bytes = ((Flusher) db).flush(batch -> stage(snapshots, batch));
+		unindex(snapshots);
+		return bytes;
+	}
+
+	/**
+	 * write the rows of the snapshots, oldest first, into a batch committed by the caller.
+	 *
+	 * @return the number of key and value bytes written.
+	 */
+	long stage(List<Snapshot> snapshots, BatchSink<byte[], byte[]> batch) {
+		long bytes = 0;
 		for (Snapshot snapshot : snapshots) {
-			SnapshotImpl from = (SnapshotImpl) snapshot;
-			Streams.stream(from.db)
-				.map(e -> Maps.immutableEntry(WrappedByteArray.of(e.getKey().getBytes()),
-					WrappedByteArray.of(e.getValue().getBytes())))
-				.forEach(e -> batch.put(e.getKey(), e.getValue()));
+			for (Map.Entry<Key, Value> e : ((SnapshotImpl) snapshot).db) {
+				byte[] value = e.getValue().getBytes();
+				batch.put(e.getKey().getBytes(), value);
+				bytes += e.getKey().getBytes().length + (value == null ? 0 : value.length);
+			}
 		}
+		return bytes;
+	}
 
-		((Flusher) db).flush(batch);
+	/**
+	 * drop the snapshots from the read index once their batch is committed.
+	 */
+	void unindex(List<Snapshot> snapshots) {
+		snapshots.forEach(snapshot -> index.remove((SnapshotImpl) snapshot));
+	}
+
+	/**
+	 * the data source of a root living as a column family of a shared database, null otherwise.
+	 */
+	RocksDbDataSourceImpl getSharedSource() {
+		if (db instanceof RocksDB && ((RocksDB) db).getDb().getShared() != null) {
+			return ((RocksDB) db).getDb();
+		}
+		return null;
 	}
 
 	@Override
@@ -94,6 +124,20 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
 		return db.iterator();
 	}
 
+	@Override
+	public RangeIterator range(byte[] from, byte[] to) {
+		return new RangeIterator(orderedIterator(), from, to);
+	}
+
+	DBIterator orderedIterator() {
+		Iterator<Map.Entry<byte[], byte[]>> iterator = db.iterator();
+		if (!(iterator instanceof DBIterator)) {
+			throw new UnsupportedOperationException(
+				db.getClass().getSimpleName() + " does not support ordered iteration.");
+		}
+		return (DBIterator) iterator;
+	}
+
 	@Override
 	public void close() {
 		((Flusher) db).close();
@@ -102,6 +146,7 @@ public class SnapshotRoot extends AbstractSnapshot<byte[], byte[]> {
 	@Override
 	public void reset() {
 		((Flusher) db).reset();
+		index.clear();
 	}
 
 	@Override
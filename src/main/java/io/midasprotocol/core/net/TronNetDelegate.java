@@ -63,6 +63,10 @@ public class TronNetDelegate {
 		return dbManager.getSyncBeginNumber();
 	}
 
+	public boolean isTooManyPending() {
+		return dbManager.isTooManyPending();
+	}
+
 	public long getBlockTime(BlockId id) throws P2pException {
 		try {
 			return dbManager.getBlockById(id).getTimeStamp();
@@ -136,7 +140,7 @@ public class TronNetDelegate {
 				case TRX:
 					TransactionCapsule tx = dbManager.getTransactionStore().get(hash.getBytes());
 					if (tx != null) {
-						return new TransactionMessage(tx.getData());
+						return new TransactionMessage(tx);
 					}
 					throw new StoreException();
 				default:
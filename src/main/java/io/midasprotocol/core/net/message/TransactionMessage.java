@@ -15,6 +15,15 @@ public class TransactionMessage extends TronMessage {
 		this.type = MessageTypes.TRX.asByte();
 	}
 
+	/**
+	 * reuse the serialized bytes and id the capsule already computed.
+	 */
+	public TransactionMessage(TransactionCapsule trx) {
+		this.transactionCapsule = trx;
+		this.type = MessageTypes.TRX.asByte();
+		this.data = trx.getData();
+	}
+
 	public TransactionMessage(Transaction trx) {
 		this.transactionCapsule = new TransactionCapsule(trx);
 		this.type = MessageTypes.TRX.asByte();
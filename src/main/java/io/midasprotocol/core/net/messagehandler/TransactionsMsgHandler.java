@@ -19,7 +19,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.stream.Collectors;
 
 @Slf4j(topic = "net")
 @Component
@@ -52,31 +54,40 @@ public class TransactionsMsgHandler implements TronMsgHandler {
 		smartContractExecutor.shutdown();
 	}
 
+	// transactions fetched while the pool is full would only be refused
 	public boolean isBusy() {
-		return queue.size() + smartContractQueue.size() > MAX_TRX_SIZE;
+		return queue.size() + smartContractQueue.size() > MAX_TRX_SIZE
+			|| tronNetDelegate.isTooManyPending();
 	}
 
 	@Override
 	public void processMessage(PeerConnection peer, TronMessage msg) throws P2pException {
 		TransactionsMessage transactionsMessage = (TransactionsMessage) msg;
-		check(peer, transactionsMessage);
-		for (Transaction trx : transactionsMessage.getTransactions().getTransactionsList()) {
+		// one message per transaction, so each id is hashed once
+		List<TransactionMessage> trxMessages = transactionsMessage.getTransactions()
+			.getTransactionsList().stream()
+			.map(TransactionMessage::new)
+			.collect(Collectors.toList());
+		check(peer, transactionsMessage, trxMessages);
+		for (TransactionMessage trxMsg : trxMessages) {
+			Transaction trx = trxMsg.getTransactionCapsule().getInstance();
 			int type = trx.getRawData().getContract(0).getType().getNumber();
 			if (type == ContractType.TriggerSmartContract_VALUE
 				|| type == ContractType.CreateSmartContract_VALUE) {
-				if (!smartContractQueue.offer(new TrxEvent(peer, new TransactionMessage(trx)))) {
+				if (!smartContractQueue.offer(new TrxEvent(peer, trxMsg))) {
 					logger.warn("Add smart contract failed, queueSize {}:{}", smartContractQueue.size(),
 						queue.size());
 				}
 			} else {
-				trxHandlePool.submit(() -> handleTransaction(peer, new TransactionMessage(trx)));
+				trxHandlePool.submit(() -> handleTransaction(peer, trxMsg));
 			}
 		}
 	}
 
-	private void check(PeerConnection peer, TransactionsMessage msg) throws P2pException {
-		for (Transaction trx : msg.getTransactions().getTransactionsList()) {
-			Item item = new Item(new TransactionMessage(trx).getMessageId(), InventoryType.TRX);
+	private void check(PeerConnection peer, TransactionsMessage msg,
+		List<TransactionMessage> trxMessages) throws P2pException {
+		for (TransactionMessage trxMsg : trxMessages) {
+			Item item = new Item(trxMsg.getMessageId(), InventoryType.TRX);
 			if (!peer.getAdvInvRequest().containsKey(item)) {
 				throw new P2pException(TypeEnum.BAD_MESSAGE,
 					"trx: " + msg.getMessageId() + " without request.");
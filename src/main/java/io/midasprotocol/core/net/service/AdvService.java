@@ -128,7 +128,7 @@ public class AdvService {
 				Sha256Hash tid = transactionCapsule.getTransactionId();
 				invToSpread.remove(tid);
 				trxCache.put(new Item(tid, InventoryType.TRX),
-					new TransactionMessage(transactionCapsule.getInstance()));
+					new TransactionMessage(transactionCapsule));
 			});
 			blockCache.put(item, msg);
 		} else if (msg instanceof TransactionMessage) {
@@ -136,7 +136,7 @@ public class AdvService {
 			item = new Item(trxMsg.getMessageId(), InventoryType.TRX);
 			trxCount.add();
 			trxCache.put(item,
-				new TransactionMessage(((TransactionMessage) msg).getTransactionCapsule().getInstance()));
+				new TransactionMessage(((TransactionMessage) msg).getTransactionCapsule()));
 		} else {
 			logger.error("Adv item is neither block nor trx, type: {}", msg.getType());
 			return;
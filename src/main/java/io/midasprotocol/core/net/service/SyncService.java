@@ -2,6 +2,7 @@ package io.midasprotocol.core.net.service;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.midasprotocol.common.overlay.server.Channel.TronState;
 import io.midasprotocol.core.capsule.BlockCapsule;
 import io.midasprotocol.core.capsule.BlockCapsule.BlockId;
@@ -22,10 +23,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
 
 import static io.midasprotocol.core.config.Parameter.NetConstants.MAX_BLOCK_FETCH_PER_PEER;
 
@@ -49,6 +48,15 @@ public class SyncService {
 	private ScheduledExecutorService blockHandleExecutor = Executors
 		.newSingleThreadScheduledExecutor();
 
+	// checks a received block needs no state for, run while earlier blocks are imported
+	private ExecutorService blockVerifyExecutor = Executors.newFixedThreadPool(
+		Math.max(Runtime.getRuntime().availableProcessors() / 2, 1),
+		new ThreadFactoryBuilder().setNameFormat("sync-verify-%d").build());
+
+	private Map<BlockId, Future<?>> blockVerifying = new ConcurrentHashMap<>();
+
+	private ImportTimer importTimer = new ImportTimer();
+
 	private volatile boolean handleFlag = false;
 
 	@Setter
@@ -81,6 +89,7 @@ public class SyncService {
 	public void close() {
 		fetchExecutor.shutdown();
 		blockHandleExecutor.shutdown();
+		blockVerifyExecutor.shutdown();
 	}
 
 	public void startSync(PeerConnection peer) {
@@ -111,6 +120,7 @@ public class SyncService {
 		synchronized (blockJustReceived) {
 			blockJustReceived.put(blockMessage, peer);
 		}
+		verifyAhead(blockMessage.getBlockCapsule());
 		handleFlag = true;
 		if (peer.isIdle()) {
 			if (peer.getRemainNum() > 0
@@ -126,13 +136,30 @@ public class SyncService {
 		if (!peer.getSyncBlockRequested().isEmpty()) {
 			peer.getSyncBlockRequested().keySet().forEach(blockId -> invalid(blockId));
 		}
+		// the blocks it sent are dropped with it once handled, their checks ahead go now
+		blockJustReceived.forEach((msg, p) -> {
+			if (p == peer) {
+				cancelVerify(msg.getBlockId());
+			}
+		});
+		blockWaitToProcess.forEach((msg, p) -> {
+			if (p == peer) {
+				cancelVerify(msg.getBlockId());
+			}
+		});
 	}
 
 	private void invalid(BlockId blockId) {
 		requestBlockIds.invalidate(blockId);
+		cancelVerify(blockId);
 		fetchFlag = true;
 	}
 
+	private void cancelVerify(BlockId blockId) {
+		Optional.ofNullable(blockVerifying.remove(blockId))
+			.ifPresent(future -> future.cancel(false));
+	}
+
 	private LinkedList<BlockId> getBlockChainSummary(PeerConnection peer) throws Exception {
 
 		BlockId beginBlockId = peer.getBlockBothHave();
@@ -249,15 +276,57 @@ public class SyncService {
 		}
 	}
 
+	/**
+	 * start the stateless work of a block on the verify pool: check its merkle root and recover
+	 * its witness and transaction signers. Past MAX_BLOCKS_VERIFY_AHEAD blocks in flight the
+	 * import does it inline instead.
+	 *
+	 * <p>A finished check leaves its result on the block, so one whose block never got imported
+	 * makes room for the next.
+	 */
+	private void verifyAhead(BlockCapsule block) {
+		if (blockVerifying.size() >= NodeConstant.MAX_BLOCKS_VERIFY_AHEAD) {
+			blockVerifying.values().removeIf(Future::isDone);
+			if (blockVerifying.size() >= NodeConstant.MAX_BLOCKS_VERIFY_AHEAD) {
+				return;
+			}
+		}
+		blockVerifying.computeIfAbsent(block.getBlockId(), id -> blockVerifyExecutor.submit(() -> {
+			long start = System.nanoTime();
+			block.verifyMerkleRoot();
+			block.preloadSignatures();
+			importTimer.verify.add(System.nanoTime() - start);
+		}));
+	}
+
+	private void awaitVerified(BlockId blockId) {
+		Future<?> future = blockVerifying.remove(blockId);
+		if (future == null) {
+			return;
+		}
+		try {
+			future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | CancellationException e) {
+			// pushBlock checks the block again
+			logger.warn("Verify sync block {} ahead failed.", blockId.getString(), e);
+		}
+	}
+
 	private void processSyncBlock(BlockCapsule block) {
 		boolean flag = true;
 		BlockId blockId = block.getBlockId();
+		long start = System.nanoTime();
+		awaitVerified(blockId);
+		long verified = System.nanoTime();
 		try {
 			tronNetDelegate.processBlock(block);
 		} catch (Exception e) {
 			logger.error("Process sync block {} failed.", blockId.getString(), e);
 			flag = false;
 		}
+		importTimer.record(verified - start, System.nanoTime() - verified);
 		for (PeerConnection peer : tronNetDelegate.getActivePeer()) {
 			if (peer.getSyncBlockInProcess().remove(blockId)) {
 				if (flag) {
@@ -272,4 +341,27 @@ public class SyncService {
 		}
 	}
 
+	/**
+	 * time spent per stage of the sync import, logged every LOG_INTERVAL blocks.
+	 */
+	private static class ImportTimer {
+
+		private static final int LOG_INTERVAL = 1000;
+
+		private final LongAdder verify = new LongAdder();
+		// only touched by the import thread
+		private long wait;
+		private long execute;
+		private long blocks;
+
+		private void record(long waitNanos, long executeNanos) {
+			wait += waitNanos;
+			execute += executeNanos;
+			if (++blocks % LOG_INTERVAL == 0) {
+				logger.info("Sync imported {} blocks, verify ahead {} ms, wait {} ms, execute {} ms.",
+					blocks, TimeUnit.NANOSECONDS.toMillis(verify.sum()),
+					TimeUnit.NANOSECONDS.toMillis(wait), TimeUnit.NANOSECONDS.toMillis(execute));
+			}
+		}
+	}
 }
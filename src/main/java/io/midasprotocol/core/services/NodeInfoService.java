@@ -1,16 +1,25 @@
 package io.midasprotocol.core.services;
 
+import com.google.common.cache.CacheStats;
 import com.sun.management.OperatingSystemMXBean;
 import io.midasprotocol.common.entity.NodeInfo;
+import io.midasprotocol.common.entity.NodeInfo.CapsuleCacheInfo;
 import io.midasprotocol.common.entity.NodeInfo.ConfigNodeInfo;
+import io.midasprotocol.common.entity.NodeInfo.DbFlushInfo;
 import io.midasprotocol.common.entity.NodeInfo.MachineInfo;
 import io.midasprotocol.common.entity.NodeInfo.MachineInfo.DeadLockThreadInfo;
 import io.midasprotocol.common.entity.NodeInfo.MachineInfo.MemoryDescInfo;
+import io.midasprotocol.common.entity.NodeInfo.WorkQueueInfo;
 import io.midasprotocol.common.entity.PeerInfo;
 import io.midasprotocol.common.overlay.discover.node.NodeManager;
 import io.midasprotocol.common.overlay.server.SyncPool;
+import io.midasprotocol.common.utils.WorkQueue;
 import io.midasprotocol.core.config.args.Args;
+import io.midasprotocol.core.db.CapsuleCache;
 import io.midasprotocol.core.db.Manager;
+import io.midasprotocol.core.db.TronStoreWithRevoking;
+import io.midasprotocol.core.db2.core.SnapshotManager;
+import io.midasprotocol.core.db2.core.SnapshotManager.FlushStat;
 import io.midasprotocol.core.net.peer.PeerConnection;
 import io.midasprotocol.core.services.WitnessProductBlockService.CheatWitnessInfo;
 import io.midasprotocol.program.Version;
@@ -48,6 +57,9 @@ public class NodeInfoService {
 	@Autowired
 	private WitnessProductBlockService witnessProductBlockService;
 
+	@Autowired(required = false)
+	private List<TronStoreWithRevoking<?>> stores;
+
 	public NodeInfo getNodeInfo() {
 		NodeInfo nodeInfo = new NodeInfo();
 		setConnectInfo(nodeInfo);
@@ -55,6 +67,9 @@ public class NodeInfoService {
 		setConfigNodeInfo(nodeInfo);
 		setBlockInfo(nodeInfo);
 		setCheatWitnessInfo(nodeInfo);
+		setDbFlushInfo(nodeInfo);
+		setCapsuleCacheInfo(nodeInfo);
+		setWorkQueueInfo(nodeInfo);
 		return nodeInfo;
 	}
 
@@ -197,4 +212,66 @@ public class NodeInfoService {
 		}
 	}
 
+	protected void setDbFlushInfo(NodeInfo nodeInfo) {
+		if (!(dbManager.getRevokingStore() instanceof SnapshotManager)) {
+			return;
+		}
+
+		List<DbFlushInfo> dbFlushInfoList = new ArrayList<>();
+		for (FlushStat flushStat : ((SnapshotManager) dbManager.getRevokingStore()).getFlushStats()
+			.values()) {
+			DbFlushInfo dbFlushInfo = new DbFlushInfo();
+			dbFlushInfo.setName(flushStat.getName());
+			dbFlushInfo.setFlushCount(flushStat.getCount());
+			dbFlushInfo.setLastCost(flushStat.getLastCost());
+			dbFlushInfo.setTotalCost(flushStat.getTotalCost());
+			dbFlushInfo.setLastBytes(flushStat.getLastBytes());
+			dbFlushInfo.setTotalBytes(flushStat.getTotalBytes());
+			dbFlushInfoList.add(dbFlushInfo);
+		}
+		nodeInfo.setDbFlushInfoList(dbFlushInfoList);
+	}
+
+	protected void setCapsuleCacheInfo(NodeInfo nodeInfo) {
+		if (CollectionUtils.isEmpty(stores)) {
+			return;
+		}
+
+		List<CapsuleCacheInfo> capsuleCacheInfoList = new ArrayList<>();
+		for (TronStoreWithRevoking<?> store : stores) {
+			CapsuleCache capsuleCache = store.getCapsuleCache();
+			if (capsuleCache == null) {
+				continue;
+			}
+
+			CacheStats stats = capsuleCache.stats();
+			CapsuleCacheInfo capsuleCacheInfo = new CapsuleCacheInfo();
+			capsuleCacheInfo.setName(store.getDbName());
+			capsuleCacheInfo.setSize(capsuleCache.size());
+			capsuleCacheInfo.setHitCount(stats.hitCount());
+			capsuleCacheInfo.setMissCount(stats.missCount());
+			capsuleCacheInfo.setEvictionCount(stats.evictionCount());
+			capsuleCacheInfoList.add(capsuleCacheInfo);
+		}
+		nodeInfo.setCapsuleCacheInfoList(capsuleCacheInfoList);
+	}
+
+	protected void setWorkQueueInfo(NodeInfo nodeInfo) {
+		List<WorkQueueInfo> workQueueInfoList = new ArrayList<>();
+		for (WorkQueue<?> queue : Arrays.asList(dbManager.getRepushTransactions(),
+			dbManager.getTriggerCapsuleQueue())) {
+			WorkQueueInfo workQueueInfo = new WorkQueueInfo();
+			workQueueInfo.setName(queue.getName());
+			workQueueInfo.setSize(queue.size());
+			workQueueInfo.setCapacity(queue.getCapacity());
+			workQueueInfo.setOfferedCount(queue.getOfferedCount());
+			workQueueInfo.setDroppedCount(queue.getDroppedCount());
+			workQueueInfo.setDrainedCount(queue.getDrainedCount());
+			workQueueInfo.setLastWait(queue.getLastWaitMillis());
+			workQueueInfo.setAverageWait(queue.getAverageWaitMillis());
+			workQueueInfoList.add(workQueueInfo);
+		}
+		nodeInfo.setWorkQueueInfoList(workQueueInfoList);
+	}
+
 }
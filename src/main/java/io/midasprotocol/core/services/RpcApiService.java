@@ -4,6 +4,7 @@ import com.google.common.primitives.Longs;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.Message;
 import io.grpc.Server;
+import io.grpc.ServerInterceptors;
 import io.grpc.netty.NettyServerBuilder;
 import io.grpc.stub.StreamObserver;
 import io.midasprotocol.api.DatabaseGrpc.DatabaseImplBase;
@@ -30,6 +31,7 @@ import io.midasprotocol.core.exception.ContractValidateException;
 import io.midasprotocol.core.exception.NonUniqueObjectException;
 import io.midasprotocol.core.exception.StoreException;
 import io.midasprotocol.core.exception.VMIllegalException;
+import io.midasprotocol.core.services.config.ReadViewInterceptor;
 import io.midasprotocol.protos.Contract;
 import io.midasprotocol.protos.Contract.*;
 import io.midasprotocol.protos.Protocol;
@@ -67,6 +69,8 @@ public class RpcApiService implements Service {
 	private Wallet wallet;
 	@Autowired
 	private NodeInfoService nodeInfoService;
+	@Autowired
+	private ReadViewInterceptor readViewInterceptor;
 	@Getter
 	private DatabaseApi databaseApi = new DatabaseApi();
 	private WalletApi walletApi = new WalletApi();
@@ -95,12 +99,14 @@ public class RpcApiService implements Service {
 			}
 
 			if (args.isSolidityNode()) {
-				serverBuilder = serverBuilder.addService(walletSolidityApi);
+				serverBuilder = serverBuilder.addService(
+					ServerInterceptors.intercept(walletSolidityApi, readViewInterceptor));
 				if (args.isWalletExtensionApi()) {
 					serverBuilder = serverBuilder.addService(new WalletExtensionApi());
 				}
 			} else {
-				serverBuilder = serverBuilder.addService(walletApi);
+				serverBuilder = serverBuilder.addService(
+					ServerInterceptors.intercept(walletApi, readViewInterceptor));
 			}
 
 			// Set configs from config.conf or default value
@@ -0,0 +1,36 @@
+package io.midasprotocol.core.services.config;
+
+import io.midasprotocol.core.db.Manager;
+import io.midasprotocol.core.db2.core.ReadView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.*;
+import java.io.IOException;
+
+/**
+ * Serves each http request from the state as of the last applied block, without waiting on
+ * the block or the transactions being applied.
+ */
+@Component
+public class ReadViewFilter implements Filter {
+
+	@Autowired
+	private Manager dbManager;
+
+	@Override
+	public void doFilter(ServletRequest req, ServletResponse res,
+						 FilterChain chain) throws IOException, ServletException {
+		ReadView previous = ReadView.use(dbManager.getReadView());
+		try {
+			chain.doFilter(req, res);
+		} finally {
+			ReadView.use(previous);
+		}
+	}
+
+	public void init(FilterConfig filterConfig) {}
+
+	public void destroy() {}
+
+}
@@ -0,0 +1,48 @@
+package io.midasprotocol.core.services.config;
+
+import io.grpc.*;
+import io.midasprotocol.core.db.Manager;
+import io.midasprotocol.core.db2.core.ReadView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serves each rpc call from the state as of the last applied block when it started, without
+ * waiting on the block or the transactions being applied. The call may be served by several
+ * threads, each reads through the view while it handles the call.
+ */
+@Component
+public class ReadViewInterceptor implements ServerInterceptor {
+
+	@Autowired
+	private Manager dbManager;
+
+	@Override
+	public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+		Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+		ReadView view = dbManager.getReadView();
+		return new ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT>(
+			next.startCall(call, headers)) {
+
+			@Override
+			public void onMessage(ReqT message) {
+				ReadView previous = ReadView.use(view);
+				try {
+					super.onMessage(message);
+				} finally {
+					ReadView.use(previous);
+				}
+			}
+
+			@Override
+			public void onHalfClose() {
+				ReadView previous = ReadView.use(view);
+				try {
+					super.onHalfClose();
+				} finally {
+					ReadView.use(previous);
+				}
+			}
+		};
+	}
+}
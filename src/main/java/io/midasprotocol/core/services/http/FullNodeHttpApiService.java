@@ -3,6 +3,7 @@ package io.midasprotocol.core.services.http;
 import io.midasprotocol.common.application.Service;
 import io.midasprotocol.core.config.args.Args;
 import io.midasprotocol.core.services.config.CORSFilter;
+import io.midasprotocol.core.services.config.ReadViewFilter;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.servlet.FilterHolder;
@@ -166,6 +167,8 @@ public class FullNodeHttpApiService implements Service {
 	private BlockRewardServlet blockRewardServlet;
 	@Autowired
 	private CORSFilter corsFilter;
+	@Autowired
+	private ReadViewFilter readViewFilter;
 
 	@Override
 	public void init() {
@@ -271,6 +274,8 @@ public class FullNodeHttpApiService implements Service {
 			FilterHolder filterHolder = new FilterHolder();
 			filterHolder.setFilter(corsFilter);
 			context.addFilter(filterHolder, "/*", EnumSet.of(DispatcherType.REQUEST));
+			context.addFilter(new FilterHolder(readViewFilter), "/*",
+				EnumSet.of(DispatcherType.REQUEST));
 			server.start();
 		} catch (Exception e) {
 			logger.debug("IOException: {}", e.getMessage());
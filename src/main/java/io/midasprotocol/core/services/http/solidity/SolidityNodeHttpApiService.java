@@ -2,14 +2,19 @@ package io.midasprotocol.core.services.http.solidity;
 
 import io.midasprotocol.common.application.Service;
 import io.midasprotocol.core.config.args.Args;
+import io.midasprotocol.core.services.config.ReadViewFilter;
 import io.midasprotocol.core.services.http.*;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.servlet.FilterHolder;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.servlet.DispatcherType;
+import java.util.EnumSet;
+
 @Component
 @Slf4j(topic = "API")
 public class SolidityNodeHttpApiService implements Service {
@@ -57,6 +62,9 @@ public class SolidityNodeHttpApiService implements Service {
 	@Autowired
 	private GetNodeInfoServlet getNodeInfoServlet;
 
+	@Autowired
+	private ReadViewFilter readViewFilter;
+
 	@Override
 	public void init() {
 
@@ -116,6 +124,8 @@ public class SolidityNodeHttpApiService implements Service {
 
 			context.addServlet(new ServletHolder(getNodeInfoServlet), "/wallet/getnodeinfo");
 
+			context.addFilter(new FilterHolder(readViewFilter), "/*",
+				EnumSet.of(DispatcherType.REQUEST));
 			server.start();
 		} catch (Exception e) {
 			logger.debug("IOException: {}", e.getMessage());
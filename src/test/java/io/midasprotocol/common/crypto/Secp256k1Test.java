@@ -0,0 +1,56 @@
+package io.midasprotocol.common.crypto;
+
+import io.midasprotocol.common.crypto.ECKey.ECDSASignature;
+import io.midasprotocol.common.utils.Sha256Hash;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class Secp256k1Test {
+
+	@Test
+	public void testBatchMatchesECKey() throws SignatureException {
+		List<byte[]> hashes = new ArrayList<>();
+		List<byte[]> sigs = new ArrayList<>();
+		List<byte[]> expected = new ArrayList<>();
+		for (int i = 0; i < 20; ++i) {
+			ECKey key = new ECKey();
+			byte[] hash = Sha256Hash.of(("message " + i).getBytes()).getBytes();
+			ECDSASignature sig = key.sign(hash);
+			hashes.add(hash);
+			sigs.add(sig.toByteArray());
+			expected.add(ECKey.signatureToAddress(hash, sig.toBase64()));
+			Assert.assertArrayEquals(key.getAddress(), expected.get(i));
+		}
+
+		byte[][] addresses = Secp256k1.signaturesToAddresses(hashes, sigs);
+		for (int i = 0; i < addresses.length; ++i) {
+			Assert.assertArrayEquals(expected.get(i), addresses[i]);
+			Assert.assertArrayEquals(expected.get(i),
+				Secp256k1.signatureToAddress(hashes.get(i), sigs.get(i)));
+		}
+	}
+
+	@Test
+	public void testBadHeader() {
+		ECKey key = new ECKey();
+		byte[] hash = Sha256Hash.of("message".getBytes()).getBytes();
+		byte[] sig = key.sign(hash).toByteArray();
+		sig[64] = 100;
+
+		List<byte[]> hashes = new ArrayList<>();
+		List<byte[]> sigs = new ArrayList<>();
+		hashes.add(hash);
+		sigs.add(sig);
+		Assert.assertNull(Secp256k1.signaturesToAddresses(hashes, sigs)[0]);
+		try {
+			Secp256k1.signatureToAddress(hash, sig);
+			Assert.fail();
+		} catch (SignatureException e) {
+			Assert.assertTrue(e.getMessage().startsWith("Header byte out of range"));
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package io.midasprotocol.common.runtime;
+
+import io.midasprotocol.common.runtime.config.VMConfig;
+import io.midasprotocol.common.runtime.vm.ChargeTest;
+import io.midasprotocol.common.runtime.vm.CreateContractSuicideTest;
+import io.midasprotocol.common.runtime.vm.EnergyWhenAssertStyleTest;
+import io.midasprotocol.common.runtime.vm.EnergyWhenRequireStyleTest;
+import io.midasprotocol.common.runtime.vm.EnergyWhenSendAndTransferTest;
+import io.midasprotocol.common.runtime.vm.InternalTransactionCallTest;
+import io.midasprotocol.common.runtime.vm.InterpreterTest;
+import io.midasprotocol.common.runtime.vm.TransferTokenTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+/**
+ * Runs the contract tests again on the decoded code, the regular run covering the default
+ * interpreter.
+ */
+public class PredecodedInterpreterTest {
+
+	private static final Class<?>[] SUITE = {
+		InterpreterTest.class,
+		RuntimeImplTest.class,
+		InheritanceTest.class,
+		InternalTransactionComplexTest.class,
+		RuntimeTransferComplexTest.class,
+		ChargeTest.class,
+		CreateContractSuicideTest.class,
+		EnergyWhenAssertStyleTest.class,
+		EnergyWhenRequireStyleTest.class,
+		EnergyWhenSendAndTransferTest.class,
+		InternalTransactionCallTest.class,
+		TransferTokenTest.class
+	};
+
+	@Test
+	public void testConformance() {
+		VMConfig config = VMConfig.getInstance();
+		boolean predecoded = config.vmPredecoded();
+		config.setVmPredecoded(true);
+		try {
+			Result result = JUnitCore.runClasses(SUITE);
+			Assert.assertTrue(result.getFailures().toString(), result.wasSuccessful());
+		} finally {
+			config.setVmPredecoded(predecoded);
+		}
+	}
+}
@@ -17,11 +17,15 @@
  */
 package io.midasprotocol.common.runtime.vm;
 
+import io.midasprotocol.common.utils.ByteUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Test;
 import org.spongycastle.util.encoders.Hex;
 
 import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Consumer;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -452,4 +456,104 @@ public class DataWordTest {
 		assertEquals(32, wr.getData().length);
 		assertTrue(wr.isZero());
 	}
+
+	@Test
+	public void testDivisionAddBack() {
+		// the first estimate of the quotient limb is one too many, as in Hacker's Delight's tests
+		DataWord x = new DataWord(
+				Hex.decode("7fffffff800000000000000000000000"));
+		DataWord y = new DataWord(
+				Hex.decode("800000000000000000000001"));
+		DataWord quotient = x.clone();
+		quotient.div(y);
+		DataWord remainder = x.clone();
+		remainder.mod(y);
+
+		assertEquals(x.value().divide(y.value()), quotient.value());
+		assertEquals(x.value().mod(y.value()), remainder.value());
+	}
+
+	@Test
+	public void testArithmeticAgainstBigInteger() {
+		Random random = new Random(0);
+		for (int i = 0; i < 20_000; ++i) {
+			DataWord a = randomWord(random);
+			DataWord b = randomWord(random);
+			DataWord c = randomWord(random);
+			DataWord e = random.nextBoolean() ? new DataWord(random.nextInt(300)) : b;
+			BigInteger x = a.value();
+			BigInteger y = b.value();
+			BigInteger z = c.value();
+
+			assertArithmetic("add", word(x.add(y)), a, w -> w.add(b));
+			assertArithmetic("sub", word(x.subtract(y)), a, w -> w.sub(b));
+			assertArithmetic("mul", word(x.multiply(y)), a, w -> w.mul(b));
+			assertArithmetic("div", y.signum() == 0 ? word(y) : word(x.divide(y)), a,
+					w -> w.div(b));
+			assertArithmetic("sdiv", y.signum() == 0 ? word(y) : word(a.sValue().divide(b.sValue())),
+					a, w -> w.sDiv(b));
+			assertArithmetic("mod", y.signum() == 0 ? word(y) : word(x.mod(y)), a, w -> w.mod(b));
+			BigInteger sMod = y.signum() == 0 ? y : a.sValue().abs().mod(b.sValue().abs());
+			assertArithmetic("smod", word(a.isNegative() ? sMod.negate() : sMod), a,
+					w -> w.sMod(b));
+			assertArithmetic("exp", word(x.modPow(e.value(), DataWord._2_256)), a, w -> w.exp(e));
+			assertArithmetic("addmod", z.signum() == 0 ? word(z) : word(x.add(y).mod(z)), a,
+					w -> w.addmod(b, c));
+			assertArithmetic("mulmod", z.signum() == 0 ? word(z) : word(x.multiply(y).mod(z)), a,
+					w -> w.mulmod(b, c));
+		}
+	}
+
+	private static byte[] word(BigInteger value) {
+		return ByteUtil.copyToArray(value.and(DataWord.MAX_VALUE));
+	}
+
+	private static void assertArithmetic(String op, byte[] expected, DataWord operand,
+			Consumer<DataWord> arithmetic) {
+		DataWord result = operand.clone();
+		arithmetic.accept(result);
+		assertEquals(op + " " + operand, Hex.toHexString(expected), result.toString());
+	}
+
+	/**
+	 * operands biased toward the edges of the limb arithmetic: zero, all ones, the sign bit alone,
+	 * powers of two and their neighbours, and values of every length.
+	 */
+	private static DataWord randomWord(Random random) {
+		byte[] data = new byte[32];
+		int length = 1 + random.nextInt(32);
+		switch (random.nextInt(6)) {
+			case 0:
+				break;
+			case 1:
+				Arrays.fill(data, (byte) 0xff);
+				break;
+			case 2:
+				data[0] = (byte) 0x80;
+				break;
+			case 3:
+				int bit = random.nextInt(256);
+				data[31 - bit / 8] = (byte) (1 << bit % 8);
+				if (random.nextBoolean()) {
+					DataWord word = new DataWord(data);
+					if (random.nextBoolean()) {
+						word.sub(new DataWord(1));
+					} else {
+						word.add(new DataWord(1));
+					}
+					return word;
+				}
+				break;
+			case 4:
+				for (int i = 32 - length; i < 32; ++i) {
+					data[i] = (byte) (random.nextBoolean() ? 0xff : 0x80 * random.nextInt(2));
+				}
+				break;
+			default:
+				for (int i = 32 - length; i < 32; ++i) {
+					data[i] = (byte) random.nextInt();
+				}
+		}
+		return new DataWord(data);
+	}
 }
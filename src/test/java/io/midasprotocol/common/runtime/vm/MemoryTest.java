@@ -562,5 +562,40 @@ public class MemoryTest {
 		assertTrue(zero == 10);
 	}
 
+	@Test
+	public void memoryCopy() {
+
+		Memory memoryBuffer = new Memory();
+		memoryBuffer.write(0, Hex.decode("ffffffffffff"), 6, false);
+
+		// past the end of the source, zeros replace what was in memory
+		memoryBuffer.copy(1, Hex.decode("010203"), 1, 4);
+		assertArrayEquals(Hex.decode("ff02030000ff"), memoryBuffer.read(0, 6));
+
+		// from past the end, only zeros
+		memoryBuffer.copy(2, Hex.decode("01"), 5, 2);
+		assertArrayEquals(Hex.decode("ff02000000ff"), memoryBuffer.read(0, 6));
+		Assert.assertEquals(memoryBuffer.size(), 32);
+
+		memoryBuffer.copy(CHUNK_SIZE - 1, Hex.decode("0102"), 0, 2);
+		Assert.assertEquals(memoryBuffer.internalSize(), 2 * CHUNK_SIZE);
+		assertArrayEquals(Hex.decode("0102"), memoryBuffer.read(CHUNK_SIZE - 1, 2));
+	}
+
+	@Test
+	public void memoryPooled() {
 
-}
\ No newline at end of file
+		Memory memoryBuffer = Memory.pooled();
+		byte[] data = new byte[CHUNK_SIZE];
+		Arrays.fill(data, (byte) 1);
+		memoryBuffer.write(0, data, data.length, false);
+		memoryBuffer.release();
+
+		// the next program of the thread takes it back empty
+		Memory reused = Memory.pooled();
+		Assert.assertSame(reused, memoryBuffer);
+		Assert.assertEquals(reused.size(), 0);
+		Assert.assertEquals(reused.internalSize(), 0);
+		assertArrayEquals(new byte[CHUNK_SIZE], reused.read(0, CHUNK_SIZE));
+	}
+}
@@ -0,0 +1,48 @@
+package io.midasprotocol.common.runtime.vm.program;
+
+import io.midasprotocol.common.runtime.vm.DataWord;
+import org.junit.Assert;
+import org.junit.Test;
+import org.spongycastle.util.encoders.Hex;
+
+public class ProgramPrecompileTest {
+
+	@Test
+	public void testJumpDest() {
+		// JUMPDEST, PUSH1 0x5b, JUMPDEST: the pushed byte is data, not a destination
+		ProgramPrecompile precompile = ProgramPrecompile.compile(Hex.decode("5b605b5b"));
+		Assert.assertTrue(precompile.hasJumpDest(0));
+		Assert.assertFalse(precompile.hasJumpDest(2));
+		Assert.assertTrue(precompile.hasJumpDest(3));
+		Assert.assertFalse(precompile.hasJumpDest(4));
+		Assert.assertFalse(precompile.hasJumpDest(-1));
+	}
+
+	@Test
+	public void testDecoded() {
+		// PUSH1 0x05, JUMP, PUSH1 0x03, JUMPDEST, PUSH1 0x01, JUMPI, PUSH2 0xff (cut short)
+		ProgramPrecompile precompile = ProgramPrecompile.compile(Hex.decode("60055660035b60015761ff"));
+		Assert.assertEquals(new DataWord(5), precompile.getPushWord(0));
+		// padded the way the code is read past its end
+		Assert.assertEquals(new DataWord(0xff00), precompile.getPushWord(9));
+		// a copy each time, for the stack to own
+		Assert.assertNotSame(precompile.getPushWord(0).getData(), precompile.getPushWord(0).getData());
+
+		Assert.assertEquals(5, precompile.getJumpTarget(2));
+		// the destination pushed is not a JUMPDEST
+		Assert.assertEquals(-1, precompile.getJumpTarget(8));
+	}
+
+	@Test
+	public void testSharedByCode() {
+		ProgramPrecompile.invalidateAll();
+		long hits = ProgramPrecompile.stats().hitCount();
+		byte[] code = Hex.decode("6001600201005b");
+		ProgramPrecompile precompile = ProgramPrecompile.of(code);
+
+		// the same code loaded again is another array
+		Assert.assertSame(precompile, ProgramPrecompile.of(code.clone()));
+		Assert.assertEquals(hits + 1, ProgramPrecompile.stats().hitCount());
+		Assert.assertNotSame(precompile, ProgramPrecompile.of(Hex.decode("6001600201005b00")));
+	}
+}
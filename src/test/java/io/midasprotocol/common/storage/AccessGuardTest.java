@@ -0,0 +1,108 @@
+package io.midasprotocol.common.storage;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class AccessGuardTest {
+
+	@Test(timeout = 10_000)
+	public void testBlockWaitsForEntered() throws InterruptedException {
+		AccessGuard guard = new AccessGuard();
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicBoolean reading = new AtomicBoolean();
+		AtomicBoolean overlapped = new AtomicBoolean();
+		Thread reader = new Thread(() -> {
+			guard.enter();
+			reading.set(true);
+			entered.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			reading.set(false);
+			guard.exit();
+		});
+		reader.start();
+		entered.await();
+
+		Thread blocker = new Thread(() -> {
+			guard.block();
+			overlapped.set(reading.get());
+			guard.unblock();
+		});
+		blocker.start();
+		blocker.join(200);
+		Assert.assertTrue(blocker.isAlive());
+
+		release.countDown();
+		blocker.join();
+		reader.join();
+		Assert.assertFalse(overlapped.get());
+	}
+
+	@Test(timeout = 10_000)
+	public void testNestedEnterWhileBlockPending() throws InterruptedException {
+		AccessGuard guard = new AccessGuard();
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch blocking = new CountDownLatch(1);
+		CountDownLatch nested = new CountDownLatch(1);
+		Thread reader = new Thread(() -> {
+			guard.enter();
+			entered.countDown();
+			try {
+				blocking.await();
+				// let the blocker get to waiting for the reader
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			// as a read that goes through another read of the same source does
+			guard.enter();
+			nested.countDown();
+			guard.exit();
+			guard.exit();
+		});
+		reader.start();
+		entered.await();
+
+		Thread blocker = new Thread(() -> {
+			blocking.countDown();
+			guard.block();
+			guard.unblock();
+		});
+		blocker.start();
+
+		Assert.assertTrue(nested.await(5, TimeUnit.SECONDS));
+		reader.join();
+		blocker.join();
+	}
+
+	@Test(timeout = 10_000)
+	public void testEnterWaitsForBlock() throws InterruptedException {
+		AccessGuard guard = new AccessGuard();
+		guard.block();
+		// reentrant, and the blocking thread may read
+		guard.block();
+		guard.enter();
+		guard.exit();
+		guard.unblock();
+
+		CountDownLatch done = new CountDownLatch(1);
+		Thread reader = new Thread(() -> {
+			guard.enter();
+			guard.exit();
+			done.countDown();
+		});
+		reader.start();
+		Assert.assertFalse(done.await(200, TimeUnit.MILLISECONDS));
+
+		guard.unblock();
+		Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+	}
+}
@@ -0,0 +1,89 @@
+package io.midasprotocol.common.storage.leveldb;
+
+import io.midasprotocol.common.storage.RocksDbSettings;
+import io.midasprotocol.common.utils.ByteArray;
+import io.midasprotocol.common.utils.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class SharedRocksDbTest {
+
+	private static final String dbPath = "output-shared-rocks-test";
+	private static final String parentName = dbPath + File.separator;
+
+	private RocksDbSettings settings;
+	private RocksDbDataSourceImpl accounts;
+	private RocksDbDataSourceImpl blocks;
+
+	@Before
+	public void initDb() {
+		settings = RocksDbSettings.getDefaultSettings().withColumnFamilies(true);
+		accounts = new RocksDbDataSourceImpl(parentName, "accounts");
+		blocks = new RocksDbDataSourceImpl(parentName, "blocks");
+		accounts.initDB(settings);
+		blocks.initDB(settings);
+	}
+
+	@After
+	public void destroy() {
+		accounts.closeDB();
+		blocks.closeDB();
+		FileUtil.deleteDir(new File(dbPath));
+	}
+
+	@Test
+	public void testPutGetReset() {
+		assertSame(accounts.getShared(), blocks.getShared());
+		assertSame(accounts.getDatabase(), blocks.getDatabase());
+
+		byte[] key = "key".getBytes();
+		accounts.putData(key, "account".getBytes());
+		blocks.putData(key, "block".getBytes());
+		assertEquals("account", ByteArray.toStr(accounts.getData(key)));
+		assertEquals("block", ByteArray.toStr(blocks.getData(key)));
+
+		// a reset drops the column family of one store only
+		accounts.resetDb();
+		assertNull(accounts.getData(key));
+		assertEquals(0, accounts.allKeys().size());
+		assertEquals("block", ByteArray.toStr(blocks.getData(key)));
+
+		accounts.putData(key, "again".getBytes());
+		accounts.closeDB();
+		blocks.closeDB();
+		assertFalse(accounts.isAlive());
+
+		// the column families are found again on reopening
+		accounts.initDB(settings);
+		blocks.initDB(settings);
+		assertEquals("again", ByteArray.toStr(accounts.getData(key)));
+		assertEquals("block", ByteArray.toStr(blocks.getData(key)));
+	}
+
+	@Test
+	public void testStagedBatchSpansStores() throws RocksDBException {
+		byte[] key = "staged".getBytes();
+		blocks.putData(key, "old".getBytes());
+
+		try (WriteBatch batch = new WriteBatch(); WriteOptions options = new WriteOptions()) {
+			accounts.stage(batch).put(key, "account".getBytes());
+			blocks.stage(batch).put(key, null);
+
+			// nothing shows before the one write of the whole batch
+			assertNull(accounts.getData(key));
+			assertEquals("old", ByteArray.toStr(blocks.getData(key)));
+
+			accounts.getShared().write(batch, options);
+		}
+		assertEquals("account", ByteArray.toStr(accounts.getData(key)));
+		assertNull(blocks.getData(key));
+	}
+}
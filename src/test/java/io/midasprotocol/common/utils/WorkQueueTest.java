@@ -0,0 +1,48 @@
+package io.midasprotocol.common.utils;
+
+import com.google.common.collect.Lists;
+import io.midasprotocol.common.utils.WorkQueue.DropPolicy;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+public class WorkQueueTest {
+
+	@Test
+	public void testRejectNew() throws InterruptedException {
+		WorkQueue<Integer> queue = new WorkQueue<>("test", 2, DropPolicy.REJECT_NEW);
+		Assert.assertTrue(queue.offer(1));
+		Assert.assertTrue(queue.offer(2));
+		Assert.assertFalse(queue.offer(3));
+		Assert.assertFalse(queue.offer(4, 10, TimeUnit.MILLISECONDS));
+		Assert.assertEquals(Arrays.asList(1, 2), Lists.newArrayList(queue));
+		Assert.assertEquals(4, queue.getOfferedCount());
+		Assert.assertEquals(2, queue.getDroppedCount());
+	}
+
+	@Test
+	public void testDropOldest() {
+		WorkQueue<Integer> queue = new WorkQueue<>("test", 2, DropPolicy.DROP_OLDEST);
+		queue.offer(1);
+		queue.offer(2);
+		Assert.assertTrue(queue.offer(3));
+		Assert.assertEquals(Arrays.asList(2, 3), Lists.newArrayList(queue));
+		Assert.assertEquals(1, queue.getDroppedCount());
+	}
+
+	@Test
+	public void testDrain() throws InterruptedException {
+		WorkQueue<Integer> queue = new WorkQueue<>("test", 10, DropPolicy.REJECT_NEW);
+		Assert.assertTrue(queue.drain(5, 1, TimeUnit.MILLISECONDS).isEmpty());
+		for (int i = 0; i < 7; ++i) {
+			queue.offer(i);
+		}
+
+		Assert.assertEquals(Arrays.asList(0, 1, 2, 3, 4), queue.drain(5, 1, TimeUnit.SECONDS));
+		Assert.assertEquals(Integer.valueOf(5), queue.poll());
+		Assert.assertEquals(1, queue.size());
+		Assert.assertEquals(6, queue.getDrainedCount());
+	}
+}
@@ -79,6 +79,44 @@ public class BlockCapsuleTest {
 		logger.info("Transaction[O] Merkle Root : {}", blockCapsule0.getMerkleRoot().toString());
 	}
 
+	@Test
+	public void testVerifyMerkleRoot() throws BadItemException {
+		BlockCapsule block = new BlockCapsule(2, Sha256Hash.ZERO_HASH, 1234,
+				ByteString.copyFrom("1234567".getBytes()));
+		block.addTransaction(new TransactionCapsule(TransferContract.newBuilder()
+				.setAmount(1L)
+				.setOwnerAddress(ByteString.copyFrom("0x0000000000000000000".getBytes()))
+				.build(), ContractType.TransferContract));
+		Assert.assertFalse(new BlockCapsule(block.getData()).verifyMerkleRoot());
+
+		block.setMerkleRoot();
+		Assert.assertTrue(new BlockCapsule(block.getData()).verifyMerkleRoot());
+	}
+
+	@Test
+	public void testMemoisedHashes() throws BadItemException {
+		TransactionCapsule trx = new TransactionCapsule(TransferContract.newBuilder()
+				.setAmount(3L)
+				.setOwnerAddress(ByteString.copyFrom("0x0000000000000000000".getBytes()))
+				.build(), ContractType.TransferContract);
+		Sha256Hash id = trx.getTransactionId();
+		byte[] data = trx.getData();
+		trx.sign(ByteArray.fromHexString(
+				"1111111111111111111111111111111111111111111111111111111111111111"));
+		Assert.assertEquals(id, trx.getTransactionId());
+		Assert.assertNotEquals(data.length, trx.getData().length);
+		trx.setExpiration(1000);
+		Assert.assertNotEquals(id, trx.getTransactionId());
+
+		BlockCapsule block = new BlockCapsule(3, Sha256Hash.ZERO_HASH, 1234,
+				ByteString.copyFrom("1234567".getBytes()));
+		Sha256Hash emptyBlockId = block.getBlockId();
+		block.addTransaction(trx);
+		block.setMerkleRoot();
+		Assert.assertNotEquals(emptyBlockId, block.getBlockId());
+		Assert.assertEquals(new BlockCapsule(block.getData()).getBlockId(), block.getBlockId());
+	}
+
   /* @Test
   public void testAddTransaction() {
     TransactionCapsule transactionCapsule = new TransactionCapsule("123", 1L);
@@ -0,0 +1,31 @@
+package io.midasprotocol.core.capsule.utils;
+
+import com.google.protobuf.ByteString;
+import io.midasprotocol.common.crypto.ECKey;
+import io.midasprotocol.common.utils.Sha256Hash;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.security.SignatureException;
+import java.util.Arrays;
+
+public class SignatureCacheTest {
+
+	@Test
+	public void testRecoverOnce() throws SignatureException {
+		ECKey key = new ECKey();
+		byte[] hash = Sha256Hash.of("transaction".getBytes()).getBytes();
+		ByteString sig = ByteString.copyFrom(key.sign(hash).toByteArray());
+
+		SignatureCache.invalidateAll();
+		long hits = SignatureCache.stats().hitCount();
+		Assert.assertArrayEquals(key.getAddress(), SignatureCache.signatureToAddress(hash, sig));
+		Assert.assertArrayEquals(key.getAddress(), SignatureCache.signatureToAddress(hash, sig));
+		Assert.assertEquals(hits + 1, SignatureCache.stats().hitCount());
+
+		// the same signature over another hash is another key
+		byte[] other = Sha256Hash.of("other".getBytes()).getBytes();
+		Assert.assertFalse(Arrays.equals(key.getAddress(),
+			SignatureCache.signatureToAddress(other, sig)));
+	}
+}
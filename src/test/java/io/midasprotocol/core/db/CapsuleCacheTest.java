@@ -0,0 +1,58 @@
+package io.midasprotocol.core.db;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CapsuleCacheTest {
+
+	private static final byte[] KEY = "key".getBytes();
+	private static final byte[] OTHER = "other".getBytes();
+
+	@Test
+	public void testPutAndInvalidate() {
+		CapsuleCache cache = new CapsuleCache(10);
+		Assert.assertNull(cache.get(KEY));
+
+		cache.put(KEY, "value", cache.version());
+		Assert.assertEquals("value", cache.get(KEY));
+		Assert.assertEquals(1, cache.stats().hitCount());
+		Assert.assertEquals(1, cache.stats().missCount());
+
+		cache.invalidate(KEY);
+		Assert.assertNull(cache.get(KEY));
+	}
+
+	@Test
+	public void testAbsent() {
+		CapsuleCache cache = new CapsuleCache(10);
+		Assert.assertFalse(cache.isAbsent(KEY));
+
+		cache.putAbsent(KEY, cache.version());
+		Assert.assertTrue(cache.isAbsent(KEY));
+		Assert.assertNull(cache.get(KEY));
+		Assert.assertFalse(cache.isAbsent(OTHER));
+
+		// written since
+		cache.invalidate(KEY);
+		Assert.assertFalse(cache.isAbsent(KEY));
+
+		long version = cache.version();
+		cache.invalidate(OTHER);
+		cache.putAbsent(KEY, version);
+		Assert.assertFalse(cache.isAbsent(KEY));
+	}
+
+	@Test
+	public void testLoadRacingWithChange() {
+		CapsuleCache cache = new CapsuleCache(10);
+		long version = cache.version();
+		cache.invalidate(OTHER);
+		cache.put(KEY, "stale", version);
+		Assert.assertNull(cache.get(KEY));
+
+		cache.put(KEY, "value", cache.version());
+		cache.invalidateAll();
+		Assert.assertNull(cache.get(KEY));
+		Assert.assertEquals(0, cache.size());
+	}
+}
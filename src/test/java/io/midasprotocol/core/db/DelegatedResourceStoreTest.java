@@ -0,0 +1,73 @@
+package io.midasprotocol.core.db;
+
+import com.google.protobuf.ByteString;
+import io.midasprotocol.common.application.ApplicationContext;
+import io.midasprotocol.common.utils.ByteArray;
+import io.midasprotocol.common.utils.FileUtil;
+import io.midasprotocol.core.Constant;
+import io.midasprotocol.core.capsule.DelegatedResourceCapsule;
+import io.midasprotocol.core.config.DefaultConfig;
+import io.midasprotocol.core.config.args.Args;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class DelegatedResourceStoreTest {
+
+	private static final byte[] ALICE = ByteArray.fromHexString("0101");
+	private static final byte[] BOB = ByteArray.fromHexString("0102");
+	private static final byte[] CAROL = ByteArray.fromHexString("0103");
+	private static String dbPath = "output_delegated_resource_store_test";
+	private static ApplicationContext context;
+	private static DelegatedResourceStore delegatedResourceStore;
+
+	static {
+		Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+		context = new ApplicationContext(DefaultConfig.class);
+	}
+
+	@AfterClass
+	public static void destroy() {
+		Args.clearParam();
+		context.destroy();
+		FileUtil.deleteDir(new File(dbPath));
+	}
+
+	@BeforeClass
+	public static void init() {
+		delegatedResourceStore = context.getBean(DelegatedResourceStore.class);
+		put(ALICE, BOB);
+		put(ALICE, CAROL);
+		put(BOB, ALICE);
+		put(CAROL, ALICE);
+	}
+
+	private static void put(byte[] from, byte[] to) {
+		DelegatedResourceCapsule capsule = new DelegatedResourceCapsule(ByteString.copyFrom(from),
+			ByteString.copyFrom(to));
+		delegatedResourceStore.put(capsule.createDbKey(), capsule);
+	}
+
+	private static List<String> receivers(List<DelegatedResourceCapsule> capsules) {
+		return capsules.stream()
+			.map(c -> ByteArray.toHexString(c.getInstance().getTo().toByteArray()))
+			.collect(Collectors.toList());
+	}
+
+	@Test
+	public void testGetByFrom() {
+		// the delegations of later senders are not part of the result
+		Assert.assertEquals(Arrays.asList("0102", "0103"),
+			receivers(delegatedResourceStore.getByFrom(ALICE)));
+		Assert.assertEquals(Arrays.asList("0101"),
+			receivers(delegatedResourceStore.getByFrom(BOB)));
+		Assert.assertTrue(delegatedResourceStore.getByFrom(ByteArray.fromHexString("0104"))
+			.isEmpty());
+	}
+}
@@ -0,0 +1,35 @@
+package io.midasprotocol.core.db;
+
+import com.google.protobuf.ByteString;
+import io.midasprotocol.core.capsule.TransactionCapsule;
+import io.midasprotocol.protos.Contract.TransferContract;
+import io.midasprotocol.protos.Contract.TriggerSmartContract;
+import io.midasprotocol.protos.Protocol.Transaction.Contract.ContractType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExecutionTimeEstimatorTest {
+
+	private static TransactionCapsule trigger(String contract) {
+		return new TransactionCapsule(TriggerSmartContract.newBuilder()
+			.setContractAddress(ByteString.copyFromUtf8(contract))
+			.build(), ContractType.TriggerSmartContract);
+	}
+
+	@Test
+	public void testLearnPerKind() {
+		ExecutionTimeEstimator estimator = new ExecutionTimeEstimator();
+		TransactionCapsule transfer = new TransactionCapsule(TransferContract.newBuilder()
+			.setAmount(1).build(), ContractType.TransferContract);
+		Assert.assertEquals(ExecutionTimeEstimator.DEFAULT_NANOS, estimator.estimate(transfer));
+
+		estimator.record(transfer, 800);
+		Assert.assertEquals(800, estimator.estimate(transfer));
+		estimator.record(transfer, 1600);
+		Assert.assertEquals(900, estimator.estimate(transfer));
+
+		estimator.record(trigger("slow"), 5_000_000);
+		Assert.assertEquals(5_000_000, estimator.estimate(trigger("slow")));
+		Assert.assertEquals(ExecutionTimeEstimator.DEFAULT_NANOS, estimator.estimate(trigger("other")));
+	}
+}
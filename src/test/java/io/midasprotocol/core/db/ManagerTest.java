@@ -122,6 +122,62 @@ public class ManagerTest {
 				ByteArray.toInt(trx.getInstance().getRawData().getRefBlockBytes().toByteArray()));
 	}
 
+	@Test
+	public void processPrecheckedTransaction()
+			throws ContractExeException, UnLinkedBlockException, ValidateScheduleException, BadBlockException,
+			ContractValidateException, ValidateSignatureException, BadItemException, ItemNotFoundException,
+			AccountResourceInsufficientException, TransactionExpirationException,
+			TooBigTransactionException, DupTransactionException, TaposException,
+			BadNumberBlockException, NonCommonBlockException, ReceiptCheckErrException,
+			VMIllegalException, TooBigTransactionResultException {
+
+		BlockCapsule blockCapsule =
+				new BlockCapsule(
+						1,
+						Sha256Hash.wrap(dbManager.getGenesisBlockId().getByteString()),
+						1,
+						ByteString.copyFrom(
+								ECKey.fromPrivate(
+										ByteArray.fromHexString(
+												Args.getInstance().getLocalWitnesses().getPrivateKey()))
+										.getAddress()));
+		blockCapsule.setMerkleRoot();
+		blockCapsule.sign(
+				ByteArray.fromHexString(Args.getInstance().getLocalWitnesses().getPrivateKey()));
+		dbManager.pushBlock(blockCapsule);
+
+		TransferContract tc =
+				TransferContract.newBuilder()
+						.setAmount(10)
+						.setOwnerAddress(ByteString.copyFromUtf8("aaa"))
+						.setToAddress(ByteString.copyFromUtf8("bbb"))
+						.build();
+
+		// passes tapos and expiration, yet is not signed
+		TransactionCapsule unchecked = new TransactionCapsule(tc, ContractType.TransferContract);
+		dbManager.setBlockReference(unchecked);
+		unchecked.setExpiration(dbManager.getHeadBlockTimeStamp() + 60_000);
+		try {
+			dbManager.processTransaction(unchecked, null);
+			Assert.fail("an unsigned transaction was processed");
+		} catch (ValidateSignatureException e) {
+			// the signature is checked when nothing was checked ahead
+		}
+
+		// refers to no known block and is not signed, as pre-validation already let it through
+		TransactionCapsule prechecked = new TransactionCapsule(tc, ContractType.TransferContract);
+		prechecked.setVerified(true);
+		prechecked.setPrechecked(true);
+		try {
+			dbManager.processTransaction(prechecked, null);
+		} catch (TaposException | ValidateSignatureException e) {
+			Assert.fail("a prechecked transaction was checked again: " + e.getMessage());
+		} catch (ContractValidateException | AccountResourceInsufficientException e) {
+			// it gets as far as executing the contract, whose owner does not exist
+		}
+		Assert.assertFalse(prechecked.isPrechecked());
+	}
+
 	@Test
 	public void pushBlock() {
 		boolean isUnlinked = false;
@@ -0,0 +1,74 @@
+package io.midasprotocol.core.db;
+
+import com.google.protobuf.ByteString;
+import io.midasprotocol.common.utils.Sha256Hash;
+import io.midasprotocol.common.utils.WorkQueue;
+import io.midasprotocol.common.utils.WorkQueue.DropPolicy;
+import io.midasprotocol.core.capsule.BlockCapsule;
+import io.midasprotocol.core.capsule.TransactionCapsule;
+import io.midasprotocol.protos.Contract.TransferAssetContract;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PendingManagerTest {
+
+	private static final byte[] ALICE = "alice".getBytes();
+	private static final byte[] BOB = "bob".getBytes();
+	private static final byte[] CAROL = "carol".getBytes();
+
+	private static TransactionCapsule transfer(byte[] owner, byte[] to, long amount) {
+		TransactionCapsule trx = new TransactionCapsule(TransferAssetContract.newBuilder()
+			.setOwnerAddress(ByteString.copyFrom(owner))
+			.setToAddress(ByteString.copyFrom(to))
+			.setAmount(amount)
+			.build());
+		trx.setExpiration(1000);
+		trx.setTrxTrace(new TransactionTrace(trx, null));
+		return trx;
+	}
+
+	@Test
+	public void testOnlyTouchedOwnersRepushed() throws Exception {
+		TransactionPool pool = new TransactionPool(10, Long.MAX_VALUE);
+		TransactionCapsule included = transfer(ALICE, BOB, 1);
+		TransactionCapsule fromBob = transfer(BOB, CAROL, 2);
+		TransactionCapsule fromCarol = transfer(CAROL, CAROL, 3);
+		pool.add(included);
+		pool.add(fromBob);
+		pool.add(fromCarol);
+
+		BlockCapsule block = new BlockCapsule(1, Sha256Hash.ZERO_HASH, 600, ByteString.EMPTY);
+		block.addTransaction(included);
+
+		WorkQueue<TransactionCapsule> repush = new WorkQueue<>("repush", 10, DropPolicy.REJECT_NEW);
+		DynamicPropertiesStore properties = mock(DynamicPropertiesStore.class);
+		when(properties.getLatestBlockHeaderHash()).thenReturn(block.getBlockId());
+		when(properties.getLatestBlockHeaderTimestamp()).thenReturn(600L);
+		Manager manager = mock(Manager.class);
+		when(manager.getSession()).thenReturn(SessionOptional.instance());
+		when(manager.getTransactionPool()).thenReturn(pool);
+		when(manager.getPoppedTransactions()).thenReturn(new ArrayList<>());
+		when(manager.getDynamicPropertiesStore()).thenReturn(properties);
+		when(manager.getRepushTransactions()).thenReturn(repush);
+
+		new PendingManager(manager, block).close();
+
+		// bob was paid by the block and goes round again, the transaction of carol stays as it was
+		List<TransactionCapsule> repushed = new ArrayList<>();
+		repush.forEach(repushed::add);
+		Assert.assertEquals(Collections.singletonList(fromBob), repushed);
+		Assert.assertEquals(Collections.singletonList(fromCarol), pool.toList());
+		verify(manager, never()).processTransaction(any(), any());
+		verify(manager, never()).pushTransaction(any());
+	}
+}
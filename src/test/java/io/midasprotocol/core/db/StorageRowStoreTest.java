@@ -0,0 +1,63 @@
+package io.midasprotocol.core.db;
+
+import io.midasprotocol.common.application.ApplicationContext;
+import io.midasprotocol.common.runtime.vm.DataWord;
+import io.midasprotocol.common.utils.FileUtil;
+import io.midasprotocol.core.Constant;
+import io.midasprotocol.core.capsule.StorageRowCapsule;
+import io.midasprotocol.core.config.DefaultConfig;
+import io.midasprotocol.core.config.args.Args;
+import io.midasprotocol.core.db2.core.ISession;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+
+public class StorageRowStoreTest {
+
+	private static String dbPath = "output_storage_row_store_test";
+	private static ApplicationContext context;
+	private static Manager dbManager;
+	private static StorageRowStore storageRowStore;
+
+	static {
+		Args.setParam(new String[]{"-d", dbPath}, Constant.TEST_CONF);
+		context = new ApplicationContext(DefaultConfig.class);
+	}
+
+	@AfterClass
+	public static void destroy() {
+		Args.clearParam();
+		context.destroy();
+		FileUtil.deleteDir(new File(dbPath));
+	}
+
+	@BeforeClass
+	public static void init() {
+		dbManager = context.getBean(Manager.class);
+		storageRowStore = context.getBean(StorageRowStore.class);
+	}
+
+	@Test
+	public void testAbsentRowAcrossRevoke() {
+		byte[] key = "unset-slot".getBytes();
+		byte[] value = new DataWord(1).getData();
+		Assert.assertNotNull(storageRowStore.getCapsuleCache());
+
+		Assert.assertNull(storageRowStore.get(key).getData());
+		Assert.assertTrue(storageRowStore.getCapsuleCache().isAbsent(key));
+
+		try (ISession session = dbManager.getRevokingStore().buildSession()) {
+			storageRowStore.put(key, new StorageRowCapsule(key, value));
+			Assert.assertFalse(storageRowStore.getCapsuleCache().isAbsent(key));
+			Assert.assertArrayEquals(value, storageRowStore.get(key).getData());
+			session.revoke();
+		}
+
+		// the write is undone, and so is the row cached while it was there
+		Assert.assertNull(storageRowStore.get(key).getData());
+		Assert.assertTrue(storageRowStore.getCapsuleCache().isAbsent(key));
+	}
+}
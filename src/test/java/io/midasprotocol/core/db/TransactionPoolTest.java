@@ -0,0 +1,124 @@
+package io.midasprotocol.core.db;
+
+import com.google.protobuf.ByteString;
+import io.midasprotocol.common.utils.Sha256Hash;
+import io.midasprotocol.core.capsule.BlockCapsule;
+import io.midasprotocol.core.capsule.TransactionCapsule;
+import io.midasprotocol.protos.Contract.TransferAssetContract;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class TransactionPoolTest {
+
+	private static final byte[] ALICE = "alice".getBytes();
+	private static final byte[] BOB = "bob".getBytes();
+	private static final byte[] CAROL = "carol".getBytes();
+
+	private static TransactionCapsule transfer(byte[] owner, byte[] to, long amount, long fee) {
+		TransactionCapsule trx = new TransactionCapsule(TransferAssetContract.newBuilder()
+			.setOwnerAddress(ByteString.copyFrom(owner))
+			.setToAddress(ByteString.copyFrom(to))
+			.setAmount(amount)
+			.build());
+		trx.setExpiration(1000);
+		if (fee > 0) {
+			trx.setTrxTrace(new TransactionTrace(trx, null));
+			trx.getTrxTrace().getReceipt().setBandwidthFee(fee);
+		}
+		return trx;
+	}
+
+	@Test
+	public void testPriorityOrder() {
+		TransactionPool pool = new TransactionPool(10, Long.MAX_VALUE);
+		TransactionCapsule first = transfer(ALICE, BOB, 1, 0);
+		TransactionCapsule second = transfer(BOB, CAROL, 2, 0);
+		TransactionCapsule paid = transfer(CAROL, ALICE, 3, 100_000);
+
+		Assert.assertTrue(pool.add(first));
+		Assert.assertTrue(pool.add(second));
+		Assert.assertTrue(pool.add(paid));
+		Assert.assertFalse(pool.add(first));
+		Assert.assertTrue(pool.contains(first.getTransactionId()));
+		Assert.assertEquals(Arrays.asList(paid, first, second), pool.toList());
+
+		Assert.assertTrue(pool.remove(paid));
+		Assert.assertFalse(pool.remove(paid));
+		Assert.assertEquals(Arrays.asList(first, second), pool.toList());
+		Assert.assertEquals(first.getSerializedSize() + second.getSerializedSize(), pool.getBytes());
+	}
+
+	@Test
+	public void testOwnerQueues() {
+		TransactionPool pool = new TransactionPool(10, Long.MAX_VALUE);
+		TransactionCapsule first = transfer(ALICE, BOB, 1, 0);
+		TransactionCapsule fromBob = transfer(BOB, CAROL, 2, 0);
+		TransactionCapsule paid = transfer(ALICE, CAROL, 3, 100_000);
+		pool.add(first);
+		pool.add(fromBob);
+		pool.add(paid);
+
+		// the paid one ranks first, yet stays behind the earlier transaction of its owner
+		Assert.assertEquals(Arrays.asList(paid, first, fromBob), pool.toList());
+		Assert.assertEquals(Arrays.asList(first, fromBob, paid), pool.toArrivalList());
+		List<List<TransactionCapsule>> queues = pool.toOwnerQueues().stream()
+			.map(ArrayList::new)
+			.collect(Collectors.toList());
+		Assert.assertEquals(2, queues.size());
+		Assert.assertTrue(queues.contains(Arrays.asList(first, paid)));
+		Assert.assertTrue(queues.contains(Collections.singletonList(fromBob)));
+	}
+
+	@Test
+	public void testEviction() {
+		TransactionPool pool = new TransactionPool(2, Long.MAX_VALUE);
+		TransactionCapsule first = transfer(ALICE, BOB, 1, 0);
+		TransactionCapsule second = transfer(ALICE, BOB, 2, 0);
+		TransactionCapsule third = transfer(ALICE, BOB, 3, 0);
+		TransactionCapsule paid = transfer(ALICE, BOB, 4, 100_000);
+
+		pool.add(first);
+		pool.add(second);
+		Assert.assertFalse(pool.add(third));
+		Assert.assertTrue(pool.add(paid));
+		Assert.assertEquals(Arrays.asList(paid, first), pool.toList());
+		Assert.assertEquals(2, pool.getEvicted());
+
+		TransactionPool small = new TransactionPool(10, first.getSerializedSize());
+		Assert.assertTrue(small.add(first));
+		Assert.assertFalse(small.add(second));
+		Assert.assertEquals(1, small.size());
+	}
+
+	@Test
+	public void testRevalidate() {
+		TransactionPool pool = new TransactionPool(10, Long.MAX_VALUE);
+		TransactionCapsule included = transfer(ALICE, BOB, 1, 0);
+		TransactionCapsule fromBob = transfer(BOB, CAROL, 2, 0);
+		TransactionCapsule fromCarol = transfer(CAROL, CAROL, 3, 0);
+		TransactionCapsule expired = transfer(CAROL, ALICE, 4, 0);
+		expired.setExpiration(500);
+		pool.add(included);
+		pool.add(fromBob);
+		pool.add(fromCarol);
+		pool.add(expired);
+		Assert.assertEquals(Collections.singletonList(fromBob), pool.getByOwner(BOB));
+
+		BlockCapsule block = new BlockCapsule(1, Sha256Hash.ZERO_HASH, 600, ByteString.EMPTY);
+		block.addTransaction(included);
+
+		// the block paid bob, whose pooled transaction is handed back
+		Assert.assertEquals(Collections.singletonList(fromBob), pool.revalidate(block, 600));
+		Assert.assertEquals(Collections.singletonList(fromCarol), pool.toList());
+
+		Assert.assertEquals(Collections.singletonList(fromCarol), pool.clear());
+		Assert.assertEquals(0, pool.size());
+		Assert.assertEquals(0, pool.getBytes());
+	}
+}
@@ -0,0 +1,53 @@
+package io.midasprotocol.core.db;
+
+import com.google.protobuf.ByteString;
+import io.midasprotocol.core.capsule.TransactionCapsule;
+import io.midasprotocol.protos.Contract.TransferAssetContract;
+import io.midasprotocol.protos.Protocol.Transaction;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class TransactionSchedulerTest {
+
+	private static TransactionCapsule transfer(String owner, String to) {
+		return new TransactionCapsule(TransferAssetContract.newBuilder()
+			.setOwnerAddress(ByteString.copyFromUtf8(owner))
+			.setToAddress(ByteString.copyFromUtf8(to))
+			.setAmount(1)
+			.build());
+	}
+
+	@Test
+	public void testPartition() {
+		TransactionCapsule ab = transfer("a", "b");
+		TransactionCapsule cd = transfer("c", "d");
+		TransactionCapsule ef = transfer("e", "f");
+		TransactionCapsule bc = transfer("b", "c");
+		TransactionCapsule gg = transfer("g", "g");
+
+		List<List<TransactionCapsule>> groups = TransactionScheduler
+			.partition(Arrays.asList(ab, cd, ef, bc, gg));
+		Assert.assertEquals(Arrays.asList(
+			Arrays.asList(ab, cd, bc),
+			Collections.singletonList(ef),
+			Collections.singletonList(gg)), groups);
+	}
+
+	@Test
+	public void testUnknownOwnerJoinsAll() {
+		TransactionCapsule ab = transfer("a", "b");
+		TransactionCapsule unknown = new TransactionCapsule(Transaction.newBuilder()
+			.setRawData(Transaction.Raw.newBuilder()
+				.addContract(Transaction.Contract.newBuilder()
+					.setType(Transaction.Contract.ContractType.CustomContract)))
+			.build());
+		TransactionCapsule cd = transfer("c", "d");
+
+		Assert.assertEquals(Collections.singletonList(Arrays.asList(ab, unknown, cd)),
+			TransactionScheduler.partition(Arrays.asList(ab, unknown, cd)));
+	}
+}
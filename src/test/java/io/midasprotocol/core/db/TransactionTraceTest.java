@@ -19,6 +19,7 @@ import com.google.protobuf.Any;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import io.midasprotocol.common.application.ApplicationContext;
+import io.midasprotocol.common.runtime.NativeRuntime;
 import io.midasprotocol.common.runtime.TVMTestUtils;
 import io.midasprotocol.common.utils.ByteArray;
 import io.midasprotocol.common.utils.FileUtil;
@@ -34,6 +35,7 @@ import io.midasprotocol.core.exception.ContractExeException;
 import io.midasprotocol.core.exception.ContractValidateException;
 import io.midasprotocol.core.exception.VMIllegalException;
 import io.midasprotocol.protos.Contract.CreateSmartContract;
+import io.midasprotocol.protos.Contract.TransferContract;
 import io.midasprotocol.protos.Contract.TriggerSmartContract;
 import io.midasprotocol.protos.Protocol.Account;
 import io.midasprotocol.protos.Protocol.Account.AccountResource;
@@ -274,6 +276,36 @@ public class TransactionTraceTest {
 
 	}
 
+	@Test
+	public void testNativeTransfer()
+		throws VMIllegalException, ContractExeException, ContractValidateException {
+		byte[] owner = Wallet.decodeFromBase58Check(OwnerAddress);
+		byte[] to = Wallet.decodeFromBase58Check(TriggerOwnerAddress);
+		dbManager.getAccountStore().put(owner, new AccountCapsule(ByteString.copyFromUtf8("owner"),
+			ByteString.copyFrom(owner), AccountType.Normal, 1_000_000L));
+		dbManager.getAccountStore().put(to, new AccountCapsule(ByteString.copyFromUtf8("to"),
+			ByteString.copyFrom(to), AccountType.Normal, 0L));
+
+		TransactionCapsule transactionCapsule = new TransactionCapsule(TransferContract.newBuilder()
+			.setOwnerAddress(ByteString.copyFrom(owner))
+			.setToAddress(ByteString.copyFrom(to))
+			.setAmount(100L)
+			.build(), dbManager.getAccountStore());
+		TransactionTrace trace = new TransactionTrace(transactionCapsule, dbManager);
+		trace.init(null);
+		trace.checkIsConstant();
+		trace.exec();
+		trace.finalization();
+
+		Assert.assertFalse(trace.needVM());
+		Assert.assertTrue(trace.getRuntime() instanceof NativeRuntime);
+		Assert.assertNull(trace.getRuntimeError());
+		Assert.assertNull(trace.getRuntimeResult().getException());
+		Assert.assertEquals(1_000_000L - 100L - trace.getRuntimeResult().getRet().getFee(),
+			dbManager.getAccountStore().get(owner).getBalance());
+		Assert.assertEquals(100L, dbManager.getAccountStore().get(to).getBalance());
+	}
+
 	@Test
 	public void testPay() throws BalanceInsufficientException {
 		Account account = Account.newBuilder()
@@ -21,6 +21,9 @@ import io.midasprotocol.core.db2.core.SnapshotManager;
 import io.midasprotocol.core.exception.RevokingStoreIllegalStateException;
 
 import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -227,6 +230,83 @@ public class RevokingDbWithCacheNewValueTest {
 	}
 
 
+	@Test
+	public synchronized void testGetRange() {
+		revokingDatabase = new TestSnapshotManager();
+		revokingDatabase.enable();
+		tronDatabase = new TestRevokingTronStore("testSnapshotManager-testGetRange");
+		revokingDatabase.add(tronDatabase.getRevokingDB());
+		while (revokingDatabase.size() != 0) {
+			revokingDatabase.pop();
+		}
+
+		// no session is open, so these go straight to the root
+		for (int i = 0; i < 5; i++) {
+			ProtoCapsuleTest testProtoCapsule = new ProtoCapsuleTest(("getRange" + i).getBytes());
+			tronDatabase.put(testProtoCapsule.getData(), testProtoCapsule);
+		}
+
+		try (ISession tmpSession = revokingDatabase.buildSession()) {
+			for (int i = 5; i < 8; i++) {
+				ProtoCapsuleTest testProtoCapsule = new ProtoCapsuleTest(("getRange" + i).getBytes());
+				tronDatabase.put(testProtoCapsule.getData(), testProtoCapsule);
+			}
+			tronDatabase.delete("getRange1".getBytes());
+			tmpSession.commit();
+		}
+
+		ProtoCapsuleTest other = new ProtoCapsuleTest("other".getBytes());
+		tronDatabase.put(other.getData(), other);
+
+		Assert.assertEquals(Arrays.asList("getRange2", "getRange3", "getRange4", "getRange5", "getRange6"),
+				keys(tronDatabase.getRange("getRange2".getBytes(), "getRange7".getBytes(), 10)));
+		Assert.assertEquals(Arrays.asList("getRange0", "getRange2", "getRange3"),
+				keys(tronDatabase.getPrefix("getRange".getBytes(), 3)));
+		Assert.assertEquals(8, tronDatabase.getRange(null, null, 100).size());
+
+		revokingDatabase.pop();
+		Assert.assertEquals(Arrays.asList("getRange0", "getRange1", "getRange2", "getRange3", "getRange4"),
+				keys(tronDatabase.getPrefix("getRange".getBytes(), 100)));
+	}
+
+	@Test
+	public synchronized void testGetAll() {
+		revokingDatabase = new TestSnapshotManager();
+		revokingDatabase.enable();
+		tronDatabase = new TestRevokingTronStore("testSnapshotManager-testGetAll");
+		revokingDatabase.add(tronDatabase.getRevokingDB());
+		while (revokingDatabase.size() != 0) {
+			revokingDatabase.pop();
+		}
+
+		for (int i = 0; i < 3; i++) {
+			tronDatabase.put(("getAll" + i).getBytes(), new ProtoCapsuleTest(("root" + i).getBytes()));
+		}
+
+		try (ISession tmpSession = revokingDatabase.buildSession()) {
+			tronDatabase.put("getAll2".getBytes(), new ProtoCapsuleTest("layer2".getBytes()));
+			tronDatabase.put("getAll3".getBytes(), new ProtoCapsuleTest("layer3".getBytes()));
+			tronDatabase.delete("getAll1".getBytes());
+			tmpSession.commit();
+		}
+
+		List<byte[]> keys = Arrays.asList("getAll3".getBytes(), "getAll0".getBytes(),
+				"getAll1".getBytes(), "missing".getBytes(), "getAll2".getBytes());
+		List<ProtoCapsuleTest> items = tronDatabase.getAll(keys);
+		Assert.assertEquals(new ProtoCapsuleTest("layer3".getBytes()), items.get(0));
+		Assert.assertEquals(new ProtoCapsuleTest("root0".getBytes()), items.get(1));
+		Assert.assertNull(items.get(2));
+		Assert.assertNull(items.get(3));
+		Assert.assertEquals(new ProtoCapsuleTest("layer2".getBytes()), items.get(4));
+
+		revokingDatabase.pop();
+		Assert.assertArrayEquals("root1".getBytes(), tronDatabase.getRevokingDB().getAll(keys).get(2));
+	}
+
+	private static List<String> keys(List<Entry<byte[], ProtoCapsuleTest>> entries) {
+		return entries.stream().map(e -> new String(e.getKey())).collect(Collectors.toList());
+	}
+
 	public static class TestRevokingTronStore extends TronStoreWithRevoking<ProtoCapsuleTest> {
 
 		protected TestRevokingTronStore(String dbName) {
@@ -0,0 +1,97 @@
+package io.midasprotocol.core.db2;
+
+import io.midasprotocol.common.application.Application;
+import io.midasprotocol.common.application.ApplicationContext;
+import io.midasprotocol.common.application.ApplicationFactory;
+import io.midasprotocol.common.storage.RocksDbSettings;
+import io.midasprotocol.common.storage.leveldb.SharedRocksDb;
+import io.midasprotocol.common.utils.FileUtil;
+import io.midasprotocol.core.config.DefaultConfig;
+import io.midasprotocol.core.config.args.Args;
+import io.midasprotocol.core.db.CheckTmpStore;
+import io.midasprotocol.core.db2.RevokingDbWithCacheNewValueTest.TestRevokingTronStore;
+import io.midasprotocol.core.db2.RevokingDbWithCacheNewValueTest.TestSnapshotManager;
+import io.midasprotocol.core.db2.SnapshotRootTest.ProtoCapsuleTest;
+import io.midasprotocol.core.db2.core.ISession;
+import io.midasprotocol.core.db2.core.SnapshotManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+@Slf4j
+public class SharedFlushTest {
+
+	private static String dbPath = "output_shared_flush_test";
+
+	private SnapshotManager revokingDatabase;
+	private ApplicationContext context;
+	private Application appT;
+	private TestRevokingTronStore accounts;
+	private TestRevokingTronStore blocks;
+
+	@Before
+	public void init() {
+		Args.setParam(new String[]{"-d", dbPath}, "config-test-dbbackup.conf");
+		RocksDbSettings.getSettings().withColumnFamilies(true);
+		context = new ApplicationContext(DefaultConfig.class);
+		appT = ApplicationFactory.create(context);
+		revokingDatabase = new TestSnapshotManager();
+		revokingDatabase.enable();
+		accounts = new TestRevokingTronStore("sharedFlush-accounts");
+		blocks = new TestRevokingTronStore("sharedFlush-blocks");
+		revokingDatabase.add(accounts.getRevokingDB());
+		revokingDatabase.add(blocks.getRevokingDB());
+		revokingDatabase.setCheckTmpStore(context.getBean(CheckTmpStore.class));
+	}
+
+	@After
+	public void removeDb() {
+		appT.shutdownServices();
+		appT.shutdown();
+		context.destroy();
+		accounts.close();
+		blocks.close();
+		revokingDatabase.getCheckTmpStore().getDbSource().closeDB();
+		RocksDbSettings.getSettings().withColumnFamilies(false);
+		Args.clearParam();
+		FileUtil.deleteDir(new File(dbPath));
+	}
+
+	@Test
+	public synchronized void testFlushShared() {
+		while (revokingDatabase.size() != 0) {
+			revokingDatabase.pop();
+		}
+
+		revokingDatabase.setMaxFlushCount(0);
+		revokingDatabase.setUnChecked(false);
+		revokingDatabase.setMaxSize(5);
+		byte[] key = "shared".getBytes();
+		for (int i = 1; i < 11; i++) {
+			try (ISession tmpSession = revokingDatabase.buildSession()) {
+				accounts.put(key, new ProtoCapsuleTest(("account" + i).getBytes()));
+				blocks.put(key, new ProtoCapsuleTest(("block" + i).getBytes()));
+				tmpSession.commit();
+			}
+		}
+
+		revokingDatabase.flush();
+		revokingDatabase.awaitFlush();
+		Assert.assertEquals(new ProtoCapsuleTest("account10".getBytes()), accounts.get(key));
+		Assert.assertEquals(new ProtoCapsuleTest("block10".getBytes()), blocks.get(key));
+
+		// both stores went out in the one write of the shared database, none through the
+		// checkpoint or a write of their own
+		SnapshotManager.FlushStat shared = revokingDatabase.getFlushStats()
+			.get(SharedRocksDb.DIRECTORY);
+		Assert.assertNotNull(shared);
+		Assert.assertTrue(shared.getTotalBytes() > 0);
+		Assert.assertNull(revokingDatabase.getFlushStats().get("sharedFlush-accounts"));
+		Assert.assertNull(revokingDatabase.getFlushStats().get("sharedFlush-blocks"));
+		Assert.assertTrue(revokingDatabase.getCheckTmpStore().getDbSource().allKeys().isEmpty());
+	}
+}
@@ -17,6 +17,7 @@ import io.midasprotocol.core.db2.RevokingDbWithCacheNewValueTest.TestRevokingTro
 import io.midasprotocol.core.db2.RevokingDbWithCacheNewValueTest.TestSnapshotManager;
 import io.midasprotocol.core.db2.SnapshotRootTest.ProtoCapsuleTest;
 import io.midasprotocol.core.db2.core.ISession;
+import io.midasprotocol.core.db2.core.ReadView;
 import io.midasprotocol.core.db2.core.SnapshotManager;
 import io.midasprotocol.core.exception.BadItemException;
 import io.midasprotocol.core.exception.ItemNotFoundException;
@@ -79,6 +80,12 @@ public class SnapshotManagerTest {
 		revokingDatabase.flush();
 		Assert.assertEquals(new ProtoCapsuleTest("refresh10".getBytes()),
 				tronDatabase.get(protoCapsule.getData()));
+
+		revokingDatabase.awaitFlush();
+		Assert.assertEquals(new ProtoCapsuleTest("refresh10".getBytes()),
+				tronDatabase.get(protoCapsule.getData()));
+		Assert.assertTrue(revokingDatabase.getFlushStats()
+				.get("testSnapshotManager-test").getTotalBytes() > 0);
 	}
 
 	@Test
@@ -100,4 +107,74 @@ public class SnapshotManagerTest {
 		Assert.assertNull(tronDatabase.get(protoCapsule.getData()));
 
 	}
+
+	@Test
+	public synchronized void testIndexAcrossRevokeAndPop() {
+		while (revokingDatabase.size() != 0) {
+			revokingDatabase.pop();
+		}
+
+		revokingDatabase.setMaxFlushCount(0);
+		revokingDatabase.setUnChecked(false);
+		revokingDatabase.setMaxSize(5);
+		byte[] key = "index".getBytes();
+		for (int i = 1; i < 11; i++) {
+			ProtoCapsuleTest testProtoCapsule = new ProtoCapsuleTest(("index" + i).getBytes());
+			try (ISession tmpSession = revokingDatabase.buildSession()) {
+				tronDatabase.put(key, testProtoCapsule);
+				tmpSession.commit();
+			}
+		}
+		Assert.assertEquals(new ProtoCapsuleTest("index10".getBytes()), tronDatabase.get(key));
+
+		revokingDatabase.pop();
+		Assert.assertEquals(new ProtoCapsuleTest("index9".getBytes()), tronDatabase.get(key));
+
+		try (ISession ignored = revokingDatabase.buildSession()) {
+			tronDatabase.delete(key);
+			Assert.assertNull(tronDatabase.get(key));
+		}
+		Assert.assertEquals(new ProtoCapsuleTest("index9".getBytes()), tronDatabase.get(key));
+
+		try (ISession tmpSession = revokingDatabase.buildSession()) {
+			tronDatabase.put(key, new ProtoCapsuleTest("merged".getBytes()));
+			tmpSession.merge();
+		}
+		Assert.assertEquals(new ProtoCapsuleTest("merged".getBytes()), tronDatabase.get(key));
+
+		revokingDatabase.pop();
+		Assert.assertEquals(new ProtoCapsuleTest("index8".getBytes()), tronDatabase.get(key));
+	}
+
+	@Test
+	public synchronized void testReadView() {
+		while (revokingDatabase.size() != 0) {
+			revokingDatabase.pop();
+		}
+
+		byte[] key = "view".getBytes();
+		try (ISession tmpSession = revokingDatabase.buildSession()) {
+			tronDatabase.put(key, new ProtoCapsuleTest("block".getBytes()));
+			tmpSession.commit();
+		}
+		revokingDatabase.pinReadView();
+		ReadView view = revokingDatabase.getReadView();
+
+		try (ISession ignored = revokingDatabase.buildSession()) {
+			tronDatabase.put(key, new ProtoCapsuleTest("pending".getBytes()));
+			Assert.assertEquals(new ProtoCapsuleTest("pending".getBytes()), tronDatabase.get(key));
+
+			ReadView previous = ReadView.use(view);
+			try {
+				Assert.assertEquals(new ProtoCapsuleTest("block".getBytes()), tronDatabase.get(key));
+			} finally {
+				ReadView.use(previous);
+			}
+		}
+		Assert.assertSame(view, revokingDatabase.getReadView());
+
+		// popping the pinned block withdraws the view
+		revokingDatabase.pop();
+		Assert.assertNull(revokingDatabase.getReadView());
+	}
 }
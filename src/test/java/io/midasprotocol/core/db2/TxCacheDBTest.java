@@ -0,0 +1,79 @@
+package io.midasprotocol.core.db2;
+
+import com.google.common.primitives.Longs;
+import io.midasprotocol.common.utils.FileUtil;
+import io.midasprotocol.common.utils.Sha256Hash;
+import io.midasprotocol.core.Constant;
+import io.midasprotocol.core.config.args.Args;
+import io.midasprotocol.core.db.common.WrappedByteArray;
+import io.midasprotocol.core.db2.common.TxCacheDB;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TxCacheDBTest {
+	private static String dbPath = "output_tx_cache_db_test";
+	private static String dbName = "trans-cache";
+
+	private TxCacheDB txCacheDB;
+
+	@Before
+	public void init() {
+		Args.setParam(new String[]{"-d", dbPath}, Constant.TEST_CONF);
+		txCacheDB = new TxCacheDB(Args.getInstance().getOutputDirectoryByDbName(dbName), dbName);
+	}
+
+	@After
+	public void removeDb() {
+		txCacheDB.close();
+		Args.clearParam();
+		FileUtil.deleteDir(new File(dbPath));
+	}
+
+	private static byte[] txId(long i) {
+		return Sha256Hash.hash(Longs.toByteArray(i));
+	}
+
+	@Test
+	public void testRestart() {
+		Map<WrappedByteArray, WrappedByteArray> batch = new HashMap<>();
+		for (long i = 0; i < 100; i++) {
+			batch.put(WrappedByteArray.of(txId(i)), WrappedByteArray.of(Longs.toByteArray(i % 10)));
+		}
+		txCacheDB.flush(batch);
+		Assert.assertEquals(100, txCacheDB.size());
+		txCacheDB.close();
+
+		txCacheDB = new TxCacheDB(Args.getInstance().getOutputDirectoryByDbName(dbName), dbName);
+		Assert.assertEquals(100, txCacheDB.size());
+		for (long i = 0; i < 100; i++) {
+			Assert.assertTrue(txCacheDB.has(txId(i)));
+			Assert.assertEquals(i % 10, Longs.fromByteArray(txCacheDB.get(txId(i))));
+		}
+		Assert.assertFalse(txCacheDB.has(txId(100)));
+	}
+
+	@Test
+	public void testEvictWholeBlock() {
+		txCacheDB.put(txId(1), Longs.toByteArray(1));
+		txCacheDB.put(txId(2), Longs.toByteArray(1));
+		txCacheDB.put(txId(3), Longs.toByteArray(2));
+		Assert.assertEquals(3, txCacheDB.size());
+
+		txCacheDB.put(txId(4), Longs.toByteArray(70_001));
+		Assert.assertFalse(txCacheDB.has(txId(1)));
+		Assert.assertFalse(txCacheDB.has(txId(2)));
+		Assert.assertTrue(txCacheDB.has(txId(3)));
+		Assert.assertTrue(txCacheDB.has(txId(4)));
+		Assert.assertEquals(2, txCacheDB.size());
+
+		txCacheDB.remove(txId(3));
+		Assert.assertFalse(txCacheDB.has(txId(3)));
+		Assert.assertEquals(1, txCacheDB.size());
+	}
+}